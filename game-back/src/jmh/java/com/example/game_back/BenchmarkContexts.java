@@ -0,0 +1,35 @@
+package com.example.game_back;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application without its web server for benchmarks that go through the Spring beans.
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Starts a fresh application context on its own in-memory H2 database.
+     *
+     * @param databaseName Name of the H2 database, so benchmarks in the same JVM don't share rows
+     * @param properties Further {@code key=value} properties overriding application.properties
+     * @return The running context, to be closed in the benchmark's tear-down
+     */
+    public static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return new SpringApplicationBuilder(GameBackApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.devtools.restart.enabled=false",
+                        "game.snapshot.path=",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.game_back.solution.equations;
+
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per grid of checking a batch of grids of the classic puzzle: the vector and scalar batch
+ * validators, with and without filling the batch, and one {@link CompiledEquation#isSolution} or
+ * validity bitmap check per grid. Run with the {@code jmh} profile, which starts the JVM with the
+ * incubator module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(BatchValidatorBenchmark.GRIDS)
+public class BatchValidatorBenchmark {
+
+    static final int GRIDS = 1024;
+
+    /**
+     * Share of the checked grids that are solutions, in percent.
+     */
+    @Param({"0", "50"})
+    public int validPercent;
+
+    private int[][] grids;
+
+    private BatchValidator vector;
+
+    private BatchValidator scalar;
+
+    private ValidityBitmap bitmap;
+
+    private BatchValidator.Batch vectorBatch;
+
+    private BatchValidator.Batch scalarBatch;
+
+    @Setup
+    public void setUp() {
+        List<int[]> valid;
+        try (ParallelSolver solver = new ParallelSolver(1, 2)) {
+            valid = solver.findAll(Puzzle.CLASSIC).solutions();
+        }
+        bitmap = ValidityBitmap.build(Puzzle.CLASSIC, valid);
+        vector = BatchValidator.of(Puzzle.CLASSIC.getCompiled());
+        scalar = BatchValidator.scalar(Puzzle.CLASSIC.getCompiled());
+        if (!vector.isVectorized()) {
+            throw new IllegalStateException("Run with --add-modules=jdk.incubator.vector");
+        }
+
+        grids = new int[GRIDS][];
+        Random random = new Random(42);
+        for (int i = 0; i < GRIDS; i++) {
+            grids[i] = random.nextInt(100) < validPercent
+                    ? valid.get(random.nextInt(valid.size())).clone()
+                    : shuffled(random);
+        }
+        vectorBatch = fill(vector);
+        scalarBatch = fill(scalar);
+    }
+
+    private static int[] shuffled(Random random) {
+        int[] grid = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = grid.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = grid[i];
+            grid[i] = grid[j];
+            grid[j] = t;
+        }
+        return grid;
+    }
+
+    private BatchValidator.Batch fill(BatchValidator validator) {
+        BatchValidator.Batch batch = validator.newBatch(GRIDS);
+        for (int[] grid : grids) {
+            batch.add(grid);
+        }
+        return batch;
+    }
+
+    @Benchmark
+    public boolean[] vectorValidate() {
+        return vectorBatch.validate();
+    }
+
+    @Benchmark
+    public boolean[] scalarValidate() {
+        return scalarBatch.validate();
+    }
+
+    @Benchmark
+    public boolean[] vectorFillAndValidate() {
+        return fill(vector).validate();
+    }
+
+    @Benchmark
+    public boolean[] scalarFillAndValidate() {
+        return fill(scalar).validate();
+    }
+
+    @Benchmark
+    public boolean[] isSolution() {
+        boolean[] results = new boolean[GRIDS];
+        for (int i = 0; i < GRIDS; i++) {
+            results[i] = Puzzle.CLASSIC.isSolution(grids[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public boolean[] bitmap() {
+        boolean[] results = new boolean[GRIDS];
+        for (int i = 0; i < GRIDS; i++) {
+            results[i] = bitmap.isSolution(grids[i]);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.game_back.solution.models;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking one grid, through the entity, the exact validator and the validity bitmap.
+ * Each invocation checks the next grid of a fixed set, so the branch predictor cannot learn the
+ * answer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final int GRIDS = 1024;
+
+    /**
+     * Share of the checked grids that are solutions, in percent.
+     */
+    @Param({"0", "50"})
+    public int validPercent;
+
+    private int[][] grids;
+
+    private List<Integer>[] lists;
+
+    private Solution[] solutions;
+
+    private ValidityBitmap bitmap;
+
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        List<int[]> valid;
+        try (ParallelSolver solver = new ParallelSolver(1, 2)) {
+            valid = solver.findAll(Puzzle.CLASSIC).solutions();
+        }
+        bitmap = ValidityBitmap.build(Puzzle.CLASSIC, valid);
+
+        grids = new int[GRIDS][];
+        lists = new List[GRIDS];
+        solutions = new Solution[GRIDS];
+        Random random = new Random(42);
+        for (int i = 0; i < GRIDS; i++) {
+            int[] grid = random.nextInt(100) < validPercent
+                    ? valid.get(random.nextInt(valid.size())).clone()
+                    : shuffled(random);
+            grids[i] = grid;
+            lists[i] = Arrays.stream(grid).boxed().toList();
+            solutions[i] = new Solution(null, lists[i]);
+        }
+    }
+
+    private static int[] shuffled(Random random) {
+        int[] grid = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = grid.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = grid[i];
+            grid[i] = grid[j];
+            grid[j] = t;
+        }
+        return grid;
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (index + 1) & (GRIDS - 1);
+        return index;
+    }
+
+    @Benchmark
+    public boolean solutionIsValid() {
+        return solutions[nextIndex()].isValid();
+    }
+
+    @Benchmark
+    public boolean validatorArray() {
+        return SolutionValidator.isValid(grids[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean bitmapArray() {
+        return bitmap.isSolution(grids[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean bitmapList() {
+        return bitmap.isSolution(lists[nextIndex()]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.BenchmarkContexts;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link SolutionRepository#saveAll(Iterable)} call of {@code batch} new solutions on
+ * in-memory H2, for several JDBC batch sizes. Every saved grid is distinct, and the table is
+ * emptied after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveAllBenchmark {
+
+    private static final long GRID_HEADER = 9L << 56;
+
+    /**
+     * Solutions per {@code saveAll} call.
+     */
+    @Param({"136", "1000", "10000"})
+    public int batch;
+
+    /**
+     * Value of {@code game.persistence.batch-size}, the rows sent per JDBC batch; 1 disables batching.
+     */
+    @Param({"1", "500"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private SolutionRepository repository;
+
+    private long nextGrid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("save-all-" + batch + "-" + jdbcBatchSize,
+                "game.persistence.batch-size=" + jdbcBatchSize);
+        repository = context.getBean(SolutionRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSaved() {
+        repository.deleteAllInBulk();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Solution> saveAll() {
+        List<Solution> solutions = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            List<Integer> numbers = PackedNumbers.unpack(GRID_HEADER | nextGrid++);
+            solutions.add(new Solution(null, Puzzle.CLASSIC_ID, numbers, false));
+        }
+        return repository.saveAll(solutions);
+    }
+}
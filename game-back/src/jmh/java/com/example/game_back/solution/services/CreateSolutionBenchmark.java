@@ -0,0 +1,100 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.BenchmarkContexts;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameSolverService#createSolution(List)} against a table already holding {@code rows}
+ * solutions, for a proposal that is stored already (one indexed lookup) and for a new one
+ * (lookup, insert and flush).
+ * <p>
+ * The table is filled with a single {@code INSERT ... SELECT} of distinct 9-number grids whose
+ * first four numbers are 0, so they never collide with the grids the benchmark proposes. Rows
+ * inserted by {@link #createNew()} are deleted after each iteration to keep the table size fixed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CreateSolutionBenchmark {
+
+    /**
+     * Length field of a packed 9-number grid; the grid itself is in the low 36 bits.
+     */
+    private static final long GRID_HEADER = 9L << 56;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private GameSolverService service;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SplittableRandom random;
+
+    private long nextNew;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("create-" + rows);
+        service = context.getBean(GameSolverService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("INSERT INTO solution (id, packed_numbers, correct, puzzle_id) "
+                + "SELECT X, ? + X, FALSE, ? FROM SYSTEM_RANGE(1, ?)", GRID_HEADER, Puzzle.CLASSIC_ID, rows);
+        jdbcTemplate.execute("ALTER SEQUENCE solution_seq RESTART WITH "
+                + (rows + Solution.ID_ALLOCATION_SIZE + 1));
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreated() {
+        jdbcTemplate.update("DELETE FROM solution WHERE id > ?", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Proposes a grid that is already stored.
+     */
+    @Benchmark
+    public Solution createExisting() {
+        return service.createSolution(PackedNumbers.unpack(GRID_HEADER + 1 + random.nextInt(rows)));
+    }
+
+    /**
+     * Proposes a grid that is not stored yet; its first number is 15, unlike every prefilled row.
+     */
+    @Benchmark
+    public Solution createNew() {
+        return service.createSolution(PackedNumbers.unpack(GRID_HEADER | 15L << 32 | nextNew++));
+    }
+}
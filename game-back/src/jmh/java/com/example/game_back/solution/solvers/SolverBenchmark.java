@@ -0,0 +1,82 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Full search for every solution of a puzzle, collected or streamed to a sink, on one thread and
+ * on the fork/join pool, with and without symmetry reduction. {@link PruningSolverBenchmark}
+ * gives the hand-written classic solver as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"classic", "ten-cells"})
+    public String puzzleId;
+
+    /**
+     * Worker threads of the {@link ParallelSolver}; 0 means one per available processor.
+     */
+    @Param({"1", "0"})
+    public int parallelism;
+
+    /**
+     * Whether only canonical grids are searched and then expanded into their classes.
+     */
+    @Param({"false", "true"})
+    public boolean symmetryReduction;
+
+    private Puzzle puzzle;
+
+    private ParallelSolver solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        puzzle = switch (puzzleId) {
+            case Puzzle.CLASSIC_ID -> Puzzle.CLASSIC;
+            case "ten-cells" -> new Puzzle(puzzleId,
+                    Equation.parse("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 - 11*n10 = 87"),
+                    Puzzle.parseDigits("1-10"));
+            default -> throw new IllegalArgumentException("Unknown puzzle " + puzzleId);
+        };
+        solver = new ParallelSolver(parallelism, 2, symmetryReduction);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public SearchResult findAll() {
+        return solver.findAll(puzzle);
+    }
+
+    @Benchmark
+    public long forEach() {
+        LongAdder found = new LongAdder();
+        solver.forEach(puzzle, new SearchProgress(), numbers -> found.increment());
+        return found.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.game_back.solution.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How generated solutions are written, declared under {@code game.persistence}.
+ *
+ * @param batchSize Rows per JDBC batch and per writer transaction
+ * @param writers Writer threads draining the solver's output during a generation
+ * @param queueCapacity Solutions buffered between the solver and the writers; the solver waits
+ *                      when the queue is full
+ */
+@ConfigurationProperties(prefix = "game.persistence")
+public record PersistenceProperties(@DefaultValue("500") int batchSize,
+                                    @DefaultValue("1") int writers,
+                                    @DefaultValue("2000") int queueCapacity) {
+
+    public PersistenceProperties {
+        if (batchSize < 1 || writers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Persistence settings must be positive, got batchSize="
+                    + batchSize + ", writers=" + writers + ", queueCapacity=" + queueCapacity);
+        }
+    }
+}
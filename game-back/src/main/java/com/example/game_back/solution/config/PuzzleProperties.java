@@ -0,0 +1,32 @@
+package com.example.game_back.solution.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Puzzle variants declared under {@code game.puzzles.<id>}.
+ *
+ * @param puzzles Variant definitions by puzzle id
+ */
+@ConfigurationProperties(prefix = "game")
+public record PuzzleProperties(Map<String, Definition> puzzles) {
+
+    public PuzzleProperties {
+        puzzles = puzzles == null ? Map.of() : puzzles;
+    }
+
+    /**
+     * @param equation The equation, e.g. {@code n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87}
+     * @param digits The digit set, e.g. {@code 1-9} or {@code 0,2,4-7}; defaults to {@code 1-9}
+     */
+    public record Definition(String equation, String digits) {
+
+        public Definition {
+            if (equation == null) {
+                throw new IllegalArgumentException("A puzzle definition needs an equation");
+            }
+            digits = digits == null ? "1-9" : digits;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.game_back.solution.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Where the solution snapshot is kept, declared under {@code game.snapshot}.
+ *
+ * @param path The snapshot file; blank to disable snapshots
+ * @param proposals Whether the stored rows, such as user proposals, are written to the snapshot
+ *                  along with the generated solutions
+ */
+@ConfigurationProperties(prefix = "game.snapshot")
+public record SnapshotProperties(@DefaultValue("") String path,
+                                 @DefaultValue("false") boolean proposals) {
+
+    public boolean isEnabled() {
+        return path != null && !path.isBlank();
+    }
+
+    /**
+     * @throws IllegalStateException if snapshots are disabled
+     */
+    public Path file() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("No snapshot path configured");
+        }
+        return Path.of(path);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.game_back.solution.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the in-process solution cache, declared under {@code game.cache}.
+ *
+ * @param solutions Solutions kept for lookups by id
+ * @param pages Solution pages kept for the list endpoint
+ * @param ttl How long an entry is served after it was loaded, which bounds how stale it gets
+ *            when the table is changed outside the application
+ */
+@ConfigurationProperties(prefix = "game.cache")
+public record SolutionCacheProperties(@DefaultValue("10000") long solutions,
+                                      @DefaultValue("1000") long pages,
+                                      @DefaultValue("10m") Duration ttl) {
+
+    public SolutionCacheProperties {
+        if (solutions < 1 || pages < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache settings must be positive, got solutions="
+                    + solutions + ", pages=" + pages + ", ttl=" + ttl);
+        }
+    }
+}
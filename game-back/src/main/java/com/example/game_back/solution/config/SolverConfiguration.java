@@ -0,0 +1,76 @@
+package com.example.game_back.solution.config;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties({PuzzleProperties.class, PersistenceProperties.class, SolutionCacheProperties.class,
+        SnapshotProperties.class})
+public class SolverConfiguration {
+
+    /**
+     * Solver shared by all generation requests. Its fork/join pool is shut down with the context.
+     *
+     * @param parallelism Worker threads, 0 for one per available processor
+     * @param splitDepth Number of leading positions the search tree is split on
+     * @param symmetryReduction Whether to search one grid per class of interchangeable cells
+     * @return The configured solver
+     */
+    @Bean(destroyMethod = "close")
+    public ParallelSolver parallelSolver(@Value("${game.solver.parallelism:0}") int parallelism,
+                                         @Value("${game.solver.split-depth:2}") int splitDepth,
+                                         @Value("${game.solver.symmetry-reduction:true}") boolean symmetryReduction) {
+        return new ParallelSolver(parallelism, splitDepth, symmetryReduction);
+    }
+
+    /**
+     * Executor running background generation jobs, so they never hold a request thread.
+     * Jobs queue up behind each other when all its threads are busy.
+     *
+     * @param threads Number of jobs run at the same time
+     * @return The job executor, shut down with the context
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService generationJobExecutor(@Value("${game.jobs.threads:1}") int threads) {
+        return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("generation-job-", 1).factory());
+    }
+
+    /**
+     * The classic puzzle plus every variant from {@code game.puzzles}. Each equation is parsed
+     * and compiled here, so an invalid definition fails the startup.
+     *
+     * @param properties The configured variants
+     * @return The puzzle registry
+     */
+    @Bean
+    public PuzzleRegistry puzzleRegistry(PuzzleProperties properties) {
+        List<Puzzle> variants = properties.puzzles().entrySet().stream()
+                .map(entry -> new Puzzle(entry.getKey(),
+                        Equation.parse(entry.getValue().equation()),
+                        Puzzle.parseDigits(entry.getValue().digits())))
+                .toList();
+        return new PuzzleRegistry(variants);
+    }
+
+    /**
+     * Validity bitmap of the classic puzzle, computed once at startup.
+     *
+     * @param parallelSolver The solver used to enumerate the solutions
+     * @return The bitmap over all 9! grids
+     */
+    @Bean
+    public ValidityBitmap validityBitmap(ParallelSolver parallelSolver) {
+        return ValidityBitmap.build(Puzzle.CLASSIC, parallelSolver.findAll(Puzzle.CLASSIC).solutions());
+    }
+}
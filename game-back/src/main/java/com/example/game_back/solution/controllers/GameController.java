@@ -1,7 +1,28 @@
 package com.example.game_back.solution.controllers;
 
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.models.GenerationResult;
+import com.example.game_back.solution.models.Hint;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.ProposalResult;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
 import com.example.game_back.solution.services.GameSolverService;
+import com.example.game_back.solution.services.HintService;
+import com.example.game_back.solution.services.SolutionChangeFeed;
+import com.example.game_back.solution.services.ValueIndexService;
 import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionClasses;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionQueryPage;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.models.TargetHistogram;
+import com.example.game_back.solution.models.TargetSolutions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,9 +30,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,38 +48,138 @@ import java.util.Optional;
 @RequestMapping("/api/game/solutions")
 public class GameController {
 
+    /**
+     * Response header carrying the cursor of the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     private final GameSolverService gameSolverService;
 
-    public GameController(GameSolverService gameSolverService) {
+    private final HintService hintService;
+
+    private final ValueIndexService valueIndexService;
+
+    private final SolutionChangeFeed changeFeed;
+
+    private final ObjectMapper objectMapper;
+
+    public GameController(GameSolverService gameSolverService, HintService hintService,
+                          ValueIndexService valueIndexService, SolutionChangeFeed changeFeed,
+                          ObjectMapper objectMapper) {
         this.gameSolverService = gameSolverService;
+        this.hintService = hintService;
+        this.valueIndexService = valueIndexService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Endpoint to generate all possible solutions and save it to the database.
-     * This method will clear the database before generating new solutions.
+     * Endpoint to generate all possible solutions of a puzzle. They are served from an in-memory
+     * index with ids from {@value ComputedSolutionRepository#ID_BASE} on, replacing the puzzle's
+     * stored correct solutions, or saved to the database in place of all the puzzle's stored
+     * solutions when {@code game.persistence.materialize-generated} is set.
+     * <p>
+     * The generation runs on the request thread, saving included, and is kept synchronous for
+     * compatibility with existing clients. Clients should start it as a background job through
+     * {@code POST /api/game/solutions/jobs} instead, which keeps the HTTP threads free and reports
+     * progress.
      *
-     * @return A map containing the calculation time and total number of solutions
+     * @param puzzleId The id of the puzzle to solve, the classic puzzle by default
+     * @return A map containing the calculation time, split into solver and persistence time, and
+     * the total number of solutions, or 404 Not Found
+     * if the puzzle is unknown
      */
     @GetMapping("/generate")
-    public ResponseEntity<Map<String, Object>> generateSolutions() {
-        long calculationTime = gameSolverService.generateSolutionsEfficient();
-        List<Solution> solutions = gameSolverService.getAllSolutions();
+    public ResponseEntity<Map<String, Object>> generateSolutions(
+            @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId) {
+        Optional<GenerationResult> result = gameSolverService.generateSolutionsEfficient(puzzleId);
+        if (result.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("calculationTimeMs", calculationTime);
-        response.put("totalSolutions", solutions.size());
+        response.put("puzzleId", result.get().puzzleId());
+        response.put("calculationTimeMs", result.get().calculationTimeMs());
+        response.put("solverTimeMs", result.get().solverTimeMs());
+        response.put("persistenceTimeMs", result.get().persistenceTimeMs());
+        response.put("totalSolutions", result.get().totalSolutions());
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Endpoint to get all solutions from the database.
+     * Endpoint to get one page of solutions, in id order.
+     * When more solutions follow, the id to pass as {@code after} for the next page is
+     * returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
-     * @return A list of all solutions
+     * @param after Only solutions with a greater id are returned; omit for the first page
+     * @param size The page size, at most {@value #MAX_PAGE_SIZE}; omit for the configured default
+     * @param correct If set, only solutions with this correctness flag are returned
+     * @return The page of solutions, or 400 Bad Request if the page size is out of range
      */
     @GetMapping()
-    public ResponseEntity<List<Solution>> getAllSolutions() {
-        return ResponseEntity.ok(gameSolverService.getAllSolutions());
+    public ResponseEntity<List<SolutionView>> getSolutions(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean correct) {
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SolutionPage page = gameSolverService.getSolutionPage(after == null ? 0 : after, size, correct);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.solutions());
+    }
+
+    /**
+     * Endpoint to stream every solution as newline-delimited JSON, one solution per line,
+     * written while rows are read from the database.
+     *
+     * @param correct If set, only solutions with this correctness flag are streamed
+     * @return The streamed solutions
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSolutions(@RequestParam(required = false) Boolean correct) {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(SolutionView.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gameSolverService.streamSolutions(correct, solution -> {
+                try {
+                    writer.writeValue(outputStream, solution);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Endpoint to follow the changes to the solutions as server-sent events, instead of polling
+     * the list. Each event is named after its type ({@code created}, {@code updated},
+     * {@code deleted}, {@code cleared}, {@code generated} or {@code reset}) and carries the
+     * changed solution, the deleted id or the number of solutions cleared or generated as JSON.
+     * A {@code reset} means changes were lost and the client should reload the solutions.
+     *
+     * @param lastEventId The id of the last event received, sent by reconnecting clients to get
+     *                    the changes they missed
+     * @param resumeFrom The same, for clients that cannot set the header
+     * @return The event stream
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String resumeFrom) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : resumeFrom);
     }
 
     /**
@@ -64,7 +191,7 @@ public class GameController {
      */
     @PostMapping()
     public ResponseEntity<Solution> createSolution(@RequestBody List<Integer> numbers) {
-        if (numbers == null || numbers.size() != 9) {
+        if (!isStorableProposal(numbers)) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -72,6 +199,179 @@ public class GameController {
         return ResponseEntity.ok(savedSolution);
     }
 
+    /**
+     * Endpoint to propose many solutions at once. New proposals are saved and validated, and
+     * proposals already stored, or repeated within the batch, are reported as duplicates.
+     *
+     * @param proposals Up to {@value #MAX_BATCH_SIZE} lists of 9 numbers
+     * @return One result per proposal, in order, or 400 Bad Request if any proposal is malformed
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProposalResult>> createSolutions(@RequestBody List<List<Integer>> proposals) {
+        if (proposals == null || proposals.isEmpty() || proposals.size() > MAX_BATCH_SIZE
+                || !proposals.stream().allMatch(GameController::isStorableProposal)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(gameSolverService.proposeSolutions(proposals));
+    }
+
+    /**
+     * Endpoint to check a proposed solution without saving it.
+     *
+     * @param numbers List of 9 numbers representing the proposed solution
+     * @return A map containing whether the proposal is a correct solution
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<Map<String, Object>> validateSolution(@RequestBody List<Integer> numbers) {
+        if (numbers == null || numbers.size() != 9) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("correct", gameSolverService.isSolution(numbers));
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint to get the distinct solutions of a puzzle, computed by the solver: one canonical
+     * grid per class of solutions that only differ by swapping interchangeable cells, such as
+     * {@code n1} and {@code n4} in the classic puzzle.
+     *
+     * @param puzzleId The id of the puzzle to solve, the classic puzzle by default
+     * @return The canonical solutions and the size of their classes, or 404 Not Found if the
+     * puzzle is unknown
+     */
+    @GetMapping("/classes")
+    public ResponseEntity<SolutionClasses> getSolutionClasses(
+            @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId) {
+        return gameSolverService.findSolutionClasses(puzzleId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to query the solutions of a puzzle by the digits of their cells, such as
+     * {@code n5=5 & n1=1} or {@code n3=even | n9!=1-3}: constraints joined by {@code &} must all
+     * hold, clauses joined by {@code |} are alternatives. Matches are returned one page at a
+     * time in id order, with their total count.
+     *
+     * @param where The query; omit to match every solution
+     * @param puzzleId The id of the puzzle, the classic puzzle by default
+     * @param after Only solutions with a greater id are returned; omit for the first page
+     * @param size The page size, at most {@value #MAX_PAGE_SIZE}; omit for the configured default
+     * @param correct If set, only solutions with this correctness flag are returned
+     * @return The page, the total count and the cursor of the next page, 400 Bad Request if the
+     * query or page size is invalid, or 404 Not Found if the puzzle is unknown
+     */
+    @GetMapping("/query")
+    public ResponseEntity<SolutionQueryPage> querySolutions(
+            @RequestParam(defaultValue = "") String where,
+            @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean correct) {
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return gameSolverService.querySolutions(puzzleId, SolutionQuery.parse(where), after == null ? 0 : after,
+                            size, correct)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Endpoint to get hints for a partially filled grid: how many solutions agree with its filled
+     * cells, which digits each cell can still take, and optionally the first of those solutions.
+     *
+     * @param grid The grid, with null for each empty cell
+     * @param puzzleId The id of the puzzle, the classic puzzle by default
+     * @param limit Number of agreeing solutions to return, at most {@value #MAX_PAGE_SIZE}
+     * @return The hint, 400 Bad Request if the grid or limit is invalid, or 404 Not Found if the
+     * puzzle is unknown
+     */
+    @PostMapping("/hint")
+    public ResponseEntity<Hint> getHint(@RequestBody List<Integer> grid,
+                                        @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId,
+                                        @RequestParam(defaultValue = "0") int limit) {
+        if (limit < 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return hintService.hint(puzzleId, grid, limit)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Endpoint to get the targets the expression of a puzzle reaches, with the number of
+     * solutions the puzzle would have for each. The first request on an expression evaluates it
+     * on every grid, later ones are served from the index this builds.
+     *
+     * @param puzzleId The id of the puzzle, the classic puzzle by default
+     * @param integral Whether to only return integer targets, true by default
+     * @param top If set, only the targets with the most solutions are returned, this many
+     * @return The histogram, 400 Bad Request if {@code top} is not positive or the puzzle has too
+     * many grids to index, or 404 Not Found if the puzzle is unknown
+     */
+    @GetMapping("/targets")
+    public ResponseEntity<TargetHistogram> getTargets(
+            @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId,
+            @RequestParam(defaultValue = "true") boolean integral,
+            @RequestParam(required = false) Integer top) {
+        if (top != null && top < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return valueIndexService.histogram(puzzleId, integral, top)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Endpoint to get the solutions the expression of a puzzle would have with another target,
+     * one page at a time in lexicographic order.
+     *
+     * @param target The target, an integer or a fraction such as {@code 173/2}
+     * @param puzzleId The id of the puzzle, the classic puzzle by default
+     * @param after The {@code nextCursor} of the previous page; omit for the first page
+     * @param size The page size, at most {@value #MAX_PAGE_SIZE}; omit for the configured default
+     * @return The page and the total count, 400 Bad Request if the target or page size is
+     * invalid or the puzzle has too many grids to index, or 404 Not Found if the puzzle is unknown
+     */
+    @GetMapping("/targets/solutions")
+    public ResponseEntity<TargetSolutions> getTargetSolutions(
+            @RequestParam String target,
+            @RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return valueIndexService.solutions(puzzleId, target, after, size)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Endpoint to get a solution by its ID.
      *
@@ -79,8 +379,8 @@ public class GameController {
      * @return The solution if found, or 404 Not Found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Solution> getSolutionById(@PathVariable Long id) {
-        Optional<Solution> solution = gameSolverService.getSolutionById(id);
+    public ResponseEntity<SolutionView> getSolutionById(@PathVariable Long id) {
+        Optional<SolutionView> solution = gameSolverService.getSolutionById(id);
         
         return solution
                 .map(ResponseEntity::ok)
@@ -91,10 +391,14 @@ public class GameController {
      * Endpoint to delete a solution by its ID.
      *
      * @param id The ID of the solution to delete
-     * @return 204 No Content if deleted successfully, 404 Not Found if not found
+     * @return 204 No Content if deleted successfully, 404 Not Found if not found, or 405 Method Not
+     * Allowed for a computed solution, which is read-only
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSolutionById(@PathVariable Long id) {
+        if (ComputedSolutionRepository.isComputedId(id)) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+        }
         boolean deleted = gameSolverService.deleteSolutionById(id);
         
         if (deleted) {
@@ -105,7 +409,8 @@ public class GameController {
     }
 
     /**
-     * Endpoint to delete all solutions from the database.
+     * Endpoint to delete all solutions from the database. Computed solutions are no longer served
+     * until their puzzle is generated again.
      *
      * @return A response containing the number of solutions deleted
      */
@@ -119,6 +424,21 @@ public class GameController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint to delete every solution flagged as incorrect.
+     *
+     * @return A response containing the number of solutions deleted
+     */
+    @DeleteMapping("/incorrect")
+    public ResponseEntity<Map<String, Object>> deleteIncorrectSolutions() {
+        long deletedCount = gameSolverService.deleteIncorrectSolutions();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("deletedCount", deletedCount);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint to update a solution by its ID.
      * If another solution with the same numbers already exists, that solution will be deleted
@@ -126,11 +446,15 @@ public class GameController {
      *
      * @param id The ID of the solution to update
      * @param numbers The new list of numbers for the solution
-     * @return The updated solution if found, or 404 Not Found if not found
+     * @return The updated solution if found, or 404 Not Found if not found, or 405 Method Not
+     * Allowed for a computed solution, which is read-only
      */
     @PutMapping("/{id}")
     public ResponseEntity<Solution> updateSolution(@PathVariable Long id, @RequestBody List<Integer> numbers) {
-        if (numbers == null || numbers.size() != 9) {
+        if (ComputedSolutionRepository.isComputedId(id)) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+        }
+        if (!isStorableProposal(numbers)) {
             return ResponseEntity.badRequest().build();
         }
         
@@ -140,4 +464,11 @@ public class GameController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * A stored proposal must have 9 numbers that fit the packed numbers column (0 to 15).
+     */
+    private static boolean isStorableProposal(List<Integer> numbers) {
+        return numbers != null && numbers.size() == 9 && PackedNumbers.isPackable(numbers);
+    }
 }
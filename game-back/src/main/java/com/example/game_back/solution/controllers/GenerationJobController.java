@@ -0,0 +1,84 @@
+package com.example.game_back.solution.controllers;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.services.GenerationJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/game/solutions/jobs")
+public class GenerationJobController {
+
+    private final GenerationJobService generationJobService;
+
+    public GenerationJobController(GenerationJobService generationJobService) {
+        this.generationJobService = generationJobService;
+    }
+
+    /**
+     * Endpoint to start generating all solutions of a puzzle in the background.
+     * <p>
+     * By default the solutions are served from an in-memory index once the search has finished,
+     * and only then are the puzzle's stored correct solutions deleted; incorrect proposals are
+     * kept, and a job cancelled before that point changes nothing. With
+     * {@code game.persistence.materialize-generated}, or for a puzzle too large to index, all the
+     * puzzle's stored solutions are deleted before the search starts and the new ones are saved
+     * while it runs, so a cancelled job keeps the batches already saved.
+     *
+     * @param puzzleId The id of the puzzle to solve, the classic puzzle by default
+     * @return 202 Accepted with the queued job and its location, or 404 Not Found if the puzzle
+     * is unknown
+     */
+    @PostMapping()
+    public ResponseEntity<GenerationJob> startJob(@RequestParam(defaultValue = Puzzle.CLASSIC_ID) String puzzleId) {
+        Optional<GenerationJob> job = generationJobService.startJob(puzzleId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.get().getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job.get());
+    }
+
+    /**
+     * Endpoint to get the progress of a job: nodes explored, solutions found and rows saved,
+     * then the result summary once it has succeeded.
+     *
+     * @param id The ID of the job
+     * @return The job if found, or 404 Not Found
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<GenerationJob> getJob(@PathVariable String id) {
+        return generationJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to cancel a job. A running job stops at its next checkpoint, so its status may
+     * still be RUNNING in the response.
+     *
+     * @param id The ID of the job to cancel
+     * @return The job if found, or 404 Not Found
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<GenerationJob> cancelJob(@PathVariable String id) {
+        return generationJobService.cancelJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.game_back.solution.equations;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Checks many grids of a puzzle at once. Grids are collected into a {@link Batch}, which keeps
+ * them column by column (one {@code int} array per cell), and the whole batch is validated in
+ * one call.
+ * <p>
+ * When the {@code jdk.incubator.vector} module is present (the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}) and the equation fits, the equation is evaluated in
+ * its cross-multiplied integer form on as many grids per instruction as the CPU has {@code int}
+ * lanes. Otherwise each grid goes through {@link CompiledEquation#isSolution(int[])}. Both give
+ * the same results. Instances are immutable and may be shared between threads.
+ */
+@Slf4j
+public abstract class BatchValidator {
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    protected final CompiledEquation equation;
+
+    BatchValidator(CompiledEquation equation) {
+        this.equation = equation;
+    }
+
+    /**
+     * Creates the fastest validator available for an equation.
+     */
+    public static BatchValidator of(CompiledEquation equation) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent() && IntegerForm.fits(equation)) {
+            try {
+                // Loaded by name so that this class links without the incubator module
+                return (BatchValidator) Class.forName(BatchValidator.class.getPackageName() + ".VectorBatchValidator")
+                        .getDeclaredConstructor(CompiledEquation.class)
+                        .newInstance(equation);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector validation is unavailable, falling back to scalar checks", e);
+            }
+        }
+        return scalar(equation);
+    }
+
+    /**
+     * Creates a validator checking one grid at a time.
+     */
+    public static BatchValidator scalar(CompiledEquation equation) {
+        return new BatchValidator(equation) {
+            @Override
+            void validate(int[][] columns, int count, boolean[] results) {
+                int[] grid = new int[columns.length];
+                for (int i = 0; i < count; i++) {
+                    for (int cell = 0; cell < grid.length; cell++) {
+                        grid[cell] = columns[cell][i];
+                    }
+                    results[i] = equation.isSolution(grid);
+                }
+            }
+
+            @Override
+            public boolean isVectorized() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Whether grids are checked with vector instructions.
+     */
+    public abstract boolean isVectorized();
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param capacity The number of grids it will hold
+     */
+    public Batch newBatch(int capacity) {
+        return new Batch(capacity);
+    }
+
+    /**
+     * Checks the first {@code count} grids of the columns.
+     *
+     * @param columns One array per cell, holding the cell of every grid
+     * @param count The number of grids
+     * @param results Receives whether each grid is a solution
+     */
+    abstract void validate(int[][] columns, int count, boolean[] results);
+
+    /**
+     * Grids of the same puzzle to check together, stored column by column.
+     */
+    public final class Batch {
+
+        private final int[][] columns;
+
+        private int count;
+
+        private Batch(int capacity) {
+            this.columns = new int[equation.getCellCount()][capacity];
+        }
+
+        /**
+         * Adds a grid; one with the wrong number of cells is added as an invalid grid.
+         */
+        public Batch add(int[] numbers) {
+            int index = count++;
+            for (int cell = 0; cell < columns.length; cell++) {
+                columns[cell][index] = numbers.length == columns.length ? numbers[cell] : -1;
+            }
+            return this;
+        }
+
+        /**
+         * Adds a grid as received by the API; null numbers and a wrong number of cells make it
+         * invalid.
+         */
+        public Batch add(List<Integer> numbers) {
+            int index = count++;
+            boolean sized = numbers != null && numbers.size() == columns.length;
+            for (int cell = 0; cell < columns.length; cell++) {
+                Integer number = sized ? numbers.get(cell) : null;
+                columns[cell][index] = number == null ? -1 : number;
+            }
+            return this;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * @return Whether each grid, in the order added, is a solution
+         */
+        public boolean[] validate() {
+            boolean[] results = new boolean[count];
+            BatchValidator.this.validate(columns, count, results);
+            return results;
+        }
+    }
+
+    /**
+     * The equation multiplied by the product of every denominator, so that it only involves
+     * integers: {@code sum(k[t] * product(cells[t]) * product of the divisors of the other terms)
+     * = target * D * product of all divisors}, with {@code D} the product of the coefficient
+     * denominators and {@code k[t]} the coefficient numerator times {@code D} over its own
+     * denominator. A zero divisor makes both sides zero and is checked separately.
+     */
+    static final class IntegerForm {
+
+        /**
+         * Largest digit whose bit fits the {@code int} masks of the permutation check, with room
+         * for the sum of the bits of every cell.
+         */
+        static final int MAX_DIGIT = 24;
+
+        final int[] coefficients;
+
+        /**
+         * For each term, the indexes in {@link #divisorTerms} of the other terms with divisors.
+         */
+        final int[][] otherDivisorTerms;
+
+        /**
+         * The terms with divisors.
+         */
+        final int[] divisorTerms;
+
+        final int scaledTarget;
+
+        IntegerForm(CompiledEquation equation) {
+            List<Term> terms = equation.getEquation().getTerms();
+            long scale = 1;
+            for (Term term : terms) {
+                scale *= term.denominator();
+            }
+
+            coefficients = new int[terms.size()];
+            for (int t = 0; t < terms.size(); t++) {
+                coefficients[t] = Math.toIntExact(terms.get(t).numerator() * (scale / terms.get(t).denominator()));
+            }
+            divisorTerms = IntStream.range(0, terms.size())
+                    .filter(t -> terms.get(t).divisors().length > 0)
+                    .toArray();
+            otherDivisorTerms = new int[terms.size()][];
+            for (int t = 0; t < terms.size(); t++) {
+                int term = t;
+                otherDivisorTerms[t] = IntStream.range(0, divisorTerms.length)
+                        .filter(d -> divisorTerms[d] != term)
+                        .toArray();
+            }
+            scaledTarget = Math.toIntExact(equation.getTarget() * scale);
+        }
+
+        /**
+         * Whether both sides of the integer form stay within {@code int} range for every grid of
+         * the digit set, and the digits fit the permutation check.
+         */
+        static boolean fits(CompiledEquation equation) {
+            int[] digits = equation.getDigits();
+            if (digits[digits.length - 1] > MAX_DIGIT || equation.getCellCount() > 64) {
+                return false;
+            }
+
+            long hi = Math.max(1, digits[digits.length - 1]);
+            List<Term> terms = equation.getEquation().getTerms();
+            try {
+                long scale = 1;
+                int divisorCount = 0;
+                for (Term term : terms) {
+                    scale = Math.multiplyExact(scale, term.denominator());
+                    divisorCount += term.divisors().length;
+                }
+
+                long total = Math.multiplyExact(Math.abs(equation.getTarget()),
+                        Math.multiplyExact(scale, power(hi, divisorCount)));
+                for (Term term : terms) {
+                    long k = Math.abs(term.numerator()) * (scale / term.denominator());
+                    int others = divisorCount - term.divisors().length;
+                    total = Math.addExact(total, Math.multiplyExact(k, power(hi, term.cells().length + others)));
+                }
+                return total <= Integer.MAX_VALUE;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+
+        private static long power(long base, int exponent) {
+            long result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result = Math.multiplyExact(result, base);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (isVectorized() ? "vector" : "scalar") + " validator of " + equation.getEquation()
+                + " over " + Arrays.toString(equation.getDigits());
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.game_back.solution.equations;
+
+import com.example.game_back.solution.solvers.SolutionSink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The interchangeable cells of an equation: two cells are interchangeable when swapping them in
+ * every term leaves the equation unchanged, as {@code n1} and {@code n4}, or {@code n7} and
+ * {@code n8} in the classic puzzle. Swapping two such cells maps every solution to another one,
+ * so the solutions fall into classes of grids that only differ by a permutation within each
+ * group of interchangeable cells.
+ * <p>
+ * The canonical grid of a class is the one whose values increase with the cell position inside
+ * every group. Only transpositions of single cells are detected; symmetries that must move
+ * several cells together, such as swapping two whole terms, are not used.
+ */
+public final class CellSymmetry {
+
+    private final int cellCount;
+
+    /**
+     * Groups of at least two interchangeable cells, each in ascending position order.
+     */
+    private final int[][] groups;
+
+    /**
+     * For each cell, the previous cell of its group, or -1.
+     */
+    private final int[] previous;
+
+    /**
+     * For each cell, the next cell of its group, or -1.
+     */
+    private final int[] next;
+
+    private final long classSize;
+
+    private CellSymmetry(int cellCount, int[][] groups) {
+        this.cellCount = cellCount;
+        this.groups = groups;
+        this.previous = new int[cellCount];
+        this.next = new int[cellCount];
+        Arrays.fill(previous, -1);
+        Arrays.fill(next, -1);
+
+        long size = 1;
+        for (int[] group : groups) {
+            for (int i = 1; i < group.length; i++) {
+                previous[group[i]] = group[i - 1];
+                next[group[i - 1]] = group[i];
+                size = Math.multiplyExact(size, i + 1);
+            }
+        }
+        this.classSize = size;
+    }
+
+    /**
+     * Detects the interchangeable cells of an equation by trying every transposition of two
+     * cells. Cells that no term refers to are interchangeable with each other.
+     *
+     * @param equation The equation
+     * @return Its cell symmetry, without groups if no two cells can be swapped
+     */
+    public static CellSymmetry of(Equation equation) {
+        int cellCount = equation.getCellCount();
+        Map<Term, Integer> terms = countTerms(equation, identity(cellCount));
+
+        int[] groupOf = new int[cellCount];
+        Arrays.fill(groupOf, -1);
+        List<List<Integer>> found = new ArrayList<>();
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (groupOf[cell] >= 0) {
+                continue;
+            }
+            List<Integer> group = new ArrayList<>(List.of(cell));
+            for (int other = cell + 1; other < cellCount; other++) {
+                if (groupOf[other] < 0 && terms.equals(countTerms(equation, swap(cellCount, cell, other)))) {
+                    groupOf[other] = found.size();
+                    group.add(other);
+                }
+            }
+            groupOf[cell] = found.size();
+            found.add(group);
+        }
+
+        int[][] groups = found.stream()
+                .filter(group -> group.size() > 1)
+                .map(group -> group.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        return new CellSymmetry(cellCount, groups);
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * The groups of at least two interchangeable cells, each in ascending position order.
+     */
+    public List<int[]> getGroups() {
+        return Arrays.stream(groups).map(int[]::clone).toList();
+    }
+
+    /**
+     * Number of grids in each class of solutions: the product of the factorials of the group
+     * sizes, 4 for the classic puzzle.
+     */
+    public long getClassSize() {
+        return classSize;
+    }
+
+    /**
+     * Whether the equation has no interchangeable cells, so every class holds a single grid.
+     */
+    public boolean isTrivial() {
+        return groups.length == 0;
+    }
+
+    /**
+     * The cell before {@code cell} in its group, whose value must be smaller in a canonical
+     * grid, or -1 if there is none.
+     */
+    public int previousCell(int cell) {
+        return previous[cell];
+    }
+
+    /**
+     * The cell after {@code cell} in its group, whose value must be larger in a canonical grid,
+     * or -1 if there is none.
+     */
+    public int nextCell(int cell) {
+        return next[cell];
+    }
+
+    /**
+     * Checks whether a grid is the canonical representative of its class.
+     *
+     * @param numbers A grid with distinct values
+     * @return true if the values increase with the position inside every group
+     */
+    public boolean isCanonical(int[] numbers) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (next[cell] >= 0 && numbers[cell] >= numbers[next[cell]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the canonical representative of a grid's class, by sorting the values of every
+     * group over its cells.
+     *
+     * @param numbers A grid
+     * @return A new array holding the canonical grid
+     */
+    public int[] canonicalize(int[] numbers) {
+        int[] canonical = numbers.clone();
+        for (int[] group : groups) {
+            int[] values = new int[group.length];
+            for (int i = 0; i < group.length; i++) {
+                values[i] = numbers[group[i]];
+            }
+            Arrays.sort(values);
+            for (int i = 0; i < group.length; i++) {
+                canonical[group[i]] = values[i];
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Passes every grid of a class to {@code sink}, the given grid included. Each grid is passed
+     * in a scratch array that is reused after the call returns; {@code numbers} is not modified.
+     *
+     * @param numbers Any grid of the class
+     * @param sink Receives the {@link #getClassSize()} grids of the class
+     */
+    public void forEachVariant(int[] numbers, SolutionSink sink) {
+        int[] grid = numbers.clone();
+        permute(grid, 0, 0, sink);
+    }
+
+    /**
+     * Permutes the values of {@code groups[group]} from index {@code from} on, then moves on to
+     * the next group; every complete arrangement is passed to the sink.
+     */
+    private void permute(int[] grid, int group, int from, SolutionSink sink) {
+        if (group == groups.length) {
+            sink.accept(grid);
+            return;
+        }
+        int[] cells = groups[group];
+        if (from == cells.length - 1) {
+            permute(grid, group + 1, 0, sink);
+            return;
+        }
+
+        for (int i = from; i < cells.length; i++) {
+            swapValues(grid, cells[from], cells[i]);
+            permute(grid, group, from + 1, sink);
+            swapValues(grid, cells[from], cells[i]);
+        }
+    }
+
+    private static void swapValues(int[] grid, int a, int b) {
+        int value = grid[a];
+        grid[a] = grid[b];
+        grid[b] = value;
+    }
+
+    /**
+     * Counts the equation's terms after renaming their cells with {@code mapping}. The cells and
+     * divisors of each term are sorted, as products do not depend on their order.
+     */
+    private static Map<Term, Integer> countTerms(Equation equation, int[] mapping) {
+        Map<Term, Integer> counts = new HashMap<>();
+        for (Term term : equation.getTerms()) {
+            Term renamed = new Term(term.numerator(), term.denominator(),
+                    rename(term.cells(), mapping), rename(term.divisors(), mapping));
+            counts.merge(renamed, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static int[] rename(int[] cells, int[] mapping) {
+        int[] renamed = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            renamed[i] = mapping[cells[i]];
+        }
+        Arrays.sort(renamed);
+        return renamed;
+    }
+
+    private static int[] identity(int cellCount) {
+        int[] mapping = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            mapping[cell] = cell;
+        }
+        return mapping;
+    }
+
+    private static int[] swap(int cellCount, int a, int b) {
+        int[] mapping = identity(cellCount);
+        mapping[a] = b;
+        mapping[b] = a;
+        return mapping;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int[] group : groups) {
+            sb.append(sb.isEmpty() ? "" : " ").append('{');
+            for (int i = 0; i < group.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append('n').append(group[i] + 1);
+            }
+            sb.append('}');
+        }
+        return sb.isEmpty() ? "{}" : sb.toString();
+    }
+}
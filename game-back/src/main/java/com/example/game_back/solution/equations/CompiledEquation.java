@@ -0,0 +1,484 @@
+package com.example.game_back.solution.equations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An {@link Equation} compiled for a digit set into flat primitive arrays: an exact rational
+ * evaluator that only multiplies and adds {@code long}s, and the assignment order and per-depth
+ * tables used by {@link com.example.game_back.solution.solvers.EquationSolver}.
+ * <p>
+ * Compilation rejects digit sets for which the cross-multiplied form could overflow 64 bits, so
+ * evaluating any grid drawn from the digit set is exact. Instances are immutable and may be
+ * shared between threads.
+ */
+public final class CompiledEquation {
+
+    private static final long OVERFLOW_LIMIT = Long.MAX_VALUE / 4;
+
+    /**
+     * Returned by {@link #accumulate} for a zero divisor; {@link #checkOverflow()} keeps every
+     * numerator it can return far smaller in magnitude.
+     */
+    private static final long ZERO_DIVISOR = Long.MIN_VALUE;
+
+    private final Equation equation;
+
+    private final int cellCount;
+
+    private final int termCount;
+
+    private final long target;
+
+    private final int[] digits;
+
+    private final long digitMask;
+
+    private final long[] coefficientNumerators;
+
+    private final long[] coefficientDenominators;
+
+    private final int[] cellStart;
+
+    private final int[] cells;
+
+    private final int[] divisorStart;
+
+    private final int[] divisors;
+
+    private final int[] order;
+
+    private final int denominatorDepth;
+
+    private final int[] completionStart;
+
+    private final int[] completionTerms;
+
+    private final int[] boundStart;
+
+    private final int[] boundTerms;
+
+    private final int[] boundPowers;
+
+    private final int[] boundAssignedStart;
+
+    private final int[] boundAssignedCells;
+
+    CompiledEquation(Equation equation, int[] digits) {
+        this.equation = equation;
+        this.cellCount = equation.getCellCount();
+        this.target = equation.getTarget();
+        this.digits = validateDigits(digits);
+        this.digitMask = maskOf(this.digits);
+
+        List<Term> terms = equation.getTerms();
+        this.termCount = terms.size();
+        this.coefficientNumerators = new long[termCount];
+        this.coefficientDenominators = new long[termCount];
+        this.cellStart = new int[termCount + 1];
+        this.divisorStart = new int[termCount + 1];
+        for (int t = 0; t < termCount; t++) {
+            Term term = terms.get(t);
+            coefficientNumerators[t] = term.numerator();
+            coefficientDenominators[t] = term.denominator();
+            cellStart[t + 1] = cellStart[t] + term.cells().length;
+            divisorStart[t + 1] = divisorStart[t] + term.divisors().length;
+        }
+        this.cells = flatten(terms, true);
+        this.divisors = flatten(terms, false);
+        checkOverflow();
+
+        boolean[] isDivisor = new boolean[cellCount];
+        for (int cell : divisors) {
+            isDivisor[cell] = true;
+        }
+        this.order = assignmentOrder(terms, isDivisor);
+        int depth = 0;
+        while (depth < cellCount && isDivisor[order[depth]]) {
+            depth++;
+        }
+        this.denominatorDepth = depth;
+
+        int[] positionOf = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            positionOf[order[i]] = i;
+        }
+
+        int[] completion = new int[termCount];
+        for (int t = 0; t < termCount; t++) {
+            completion[t] = denominatorDepth;
+            for (int i = cellStart[t]; i < cellStart[t + 1]; i++) {
+                completion[t] = Math.max(completion[t], positionOf[cells[i]] + 1);
+            }
+        }
+
+        this.completionStart = new int[cellCount + 2];
+        List<Integer> completionList = new ArrayList<>();
+        this.boundStart = new int[cellCount + 1];
+        List<Integer> boundTermList = new ArrayList<>();
+        List<Integer> boundPowerList = new ArrayList<>();
+        List<Integer> assignedStartList = new ArrayList<>(List.of(0));
+        List<Integer> assignedList = new ArrayList<>();
+        for (int d = 0; d <= cellCount; d++) {
+            completionStart[d] = completionList.size();
+            for (int t = 0; t < termCount; t++) {
+                if (completion[t] == d) {
+                    completionList.add(t);
+                }
+            }
+
+            boundStart[d] = boundTermList.size();
+            if (d < denominatorDepth || d == cellCount) {
+                continue;
+            }
+            for (int t = 0; t < termCount; t++) {
+                if (completion[t] <= d) {
+                    continue;
+                }
+                int power = 0;
+                for (int i = cellStart[t]; i < cellStart[t + 1]; i++) {
+                    if (positionOf[cells[i]] >= d) {
+                        power++;
+                    } else {
+                        assignedList.add(cells[i]);
+                    }
+                }
+                boundTermList.add(t);
+                boundPowerList.add(power);
+                assignedStartList.add(assignedList.size());
+            }
+        }
+        completionStart[cellCount + 1] = completionList.size();
+
+        this.completionTerms = toArray(completionList);
+        this.boundTerms = toArray(boundTermList);
+        this.boundPowers = toArray(boundPowerList);
+        this.boundAssignedStart = toArray(assignedStartList);
+        this.boundAssignedCells = toArray(assignedList);
+    }
+
+    public Equation getEquation() {
+        return equation;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getTermCount() {
+        return termCount;
+    }
+
+    public long getTarget() {
+        return target;
+    }
+
+    /**
+     * The allowed digits in ascending order. The returned array must not be modified.
+     */
+    public int[] getDigits() {
+        return digits;
+    }
+
+    /**
+     * Bit {@code d} is set for every allowed digit {@code d}.
+     */
+    public long getDigitMask() {
+        return digitMask;
+    }
+
+    /**
+     * Checks a complete grid: the right number of cells, each an allowed digit used at most once,
+     * and the equation satisfied exactly.
+     *
+     * @param values The grid in position order
+     * @return true if the grid is a solution
+     */
+    public boolean isSolution(int[] values) {
+        if (values.length != cellCount) {
+            return false;
+        }
+
+        long seen = 0;
+        for (int value : values) {
+            if (value < 0 || value > 63) {
+                return false;
+            }
+            long bit = 1L << value;
+            if ((digitMask & bit) == 0 || (seen & bit) != 0) {
+                return false;
+            }
+            seen |= bit;
+        }
+
+        return satisfies(values);
+    }
+
+    /**
+     * Evaluates the equation exactly by accumulating the terms as one fraction, without
+     * allocating. The values must come from the compiled digit set; repetitions are not checked.
+     *
+     * @param values The grid in position order
+     * @return true if the equation holds and no divisor is zero
+     */
+    public boolean satisfies(int[] values) {
+        return accumulate(values, target) == 0;
+    }
+
+    /**
+     * Evaluates the left-hand side of the equation exactly, as a reduced fraction with a positive
+     * denominator. The values must come from the compiled digit set; repetitions are not checked.
+     *
+     * @param values The grid in position order
+     * @param fraction Receives the numerator at index 0 and the denominator at index 1
+     * @return false, leaving {@code fraction} unchanged, if some divisor is zero
+     */
+    public boolean evaluate(int[] values, long[] fraction) {
+        long numerator = accumulate(values, 0);
+        if (numerator == ZERO_DIVISOR) {
+            return false;
+        }
+
+        long denominator = numerator - accumulate(values, 1);
+        long gcd = Term.gcd(Math.abs(numerator), denominator);
+        fraction[0] = numerator / gcd;
+        fraction[1] = denominator / gcd;
+        return true;
+    }
+
+    /**
+     * Sums the terms minus {@code offset} as one fraction over {@code D}, the product of the term
+     * denominators, which is positive.
+     *
+     * @return The numerator of that fraction, {@code (lhs - offset) * D}, or {@link #ZERO_DIVISOR}
+     *         if some divisor is zero
+     */
+    private long accumulate(int[] values, long offset) {
+        long numerator = 0;
+        long denominator = 1;
+
+        for (int t = 0; t < termCount; t++) {
+            long p = coefficientNumerators[t];
+            for (int i = cellStart[t]; i < cellStart[t + 1]; i++) {
+                p *= values[cells[i]];
+            }
+            long q = coefficientDenominators[t];
+            for (int i = divisorStart[t]; i < divisorStart[t + 1]; i++) {
+                q *= values[divisors[i]];
+            }
+
+            if (q == 1) {
+                numerator += p * denominator;
+            } else if (q == 0) {
+                return ZERO_DIVISOR;
+            } else {
+                numerator = numerator * q + p * denominator;
+                denominator *= q;
+            }
+        }
+
+        return numerator - offset * denominator;
+    }
+
+    // Search plan accessors, read by the solver in its inner loop.
+
+    /**
+     * Grid positions in the order the solver assigns them: every divisor cell first, then the
+     * remaining cells by decreasing weight of the terms they appear in.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Number of leading positions in {@link #getOrder()} that are divisor cells.
+     */
+    public int getDenominatorDepth() {
+        return denominatorDepth;
+    }
+
+    public int cellStart(int term) {
+        return cellStart[term];
+    }
+
+    public int cell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Computes the scale factor of every term once all divisor cells have values: with
+     * {@code D} the product of all term denominators, term {@code t} contributes
+     * {@code multipliers[t] * product(cells)} to the equation scaled by {@code D}.
+     *
+     * @param values The grid, with every divisor cell assigned
+     * @param multipliers Receives the per-term multipliers
+     * @return {@code D}, or 0 if some divisor is zero
+     */
+    public long computeMultipliers(int[] values, long[] multipliers) {
+        long scale = 1;
+        for (int t = 0; t < termCount; t++) {
+            long q = coefficientDenominators[t];
+            for (int i = divisorStart[t]; i < divisorStart[t + 1]; i++) {
+                q *= values[divisors[i]];
+            }
+            if (q == 0) {
+                return 0;
+            }
+            multipliers[t] = q;
+            scale *= q;
+        }
+
+        for (int t = 0; t < termCount; t++) {
+            multipliers[t] = coefficientNumerators[t] * (scale / multipliers[t]);
+        }
+        return scale;
+    }
+
+    /**
+     * Range of {@link #getCompletionTerm(int)} indexes for the terms whose last cell is assigned
+     * at {@code depth} (positions {@code 0..depth-1} assigned).
+     */
+    public int completionStart(int depth) {
+        return completionStart[depth];
+    }
+
+    public int getCompletionTerm(int index) {
+        return completionTerms[index];
+    }
+
+    /**
+     * Range of bound entries for the terms still incomplete at {@code depth}. Only populated
+     * from {@link #getDenominatorDepth()} up to, but excluding, the full grid.
+     */
+    public int boundStart(int depth) {
+        return boundStart[depth];
+    }
+
+    public int getBoundTerm(int entry) {
+        return boundTerms[entry];
+    }
+
+    /**
+     * Number of the entry's term cells that are not yet assigned.
+     */
+    public int getBoundPower(int entry) {
+        return boundPowers[entry];
+    }
+
+    public int boundAssignedStart(int entry) {
+        return boundAssignedStart[entry];
+    }
+
+    public int getBoundAssignedCell(int index) {
+        return boundAssignedCells[index];
+    }
+
+    private int[] assignmentOrder(List<Term> terms, boolean[] isDivisor) {
+        double lo = 1;
+        for (int digit : digits) {
+            if (digit > 0) {
+                lo = digit;
+                break;
+            }
+        }
+        double hi = Math.max(1, digits[digits.length - 1]);
+
+        double[] weight = new double[cellCount];
+        int[] divisorUses = new int[cellCount];
+        for (Term term : terms) {
+            double magnitude = Math.abs((double) term.numerator() / term.denominator())
+                    * Math.pow(hi, term.cells().length - 1)
+                    / Math.pow(lo, term.divisors().length);
+            for (int cell : term.cells()) {
+                weight[cell] = Math.max(weight[cell], magnitude);
+            }
+            for (int cell : term.divisors()) {
+                divisorUses[cell]++;
+            }
+        }
+
+        Comparator<Integer> byPriority = Comparator
+                .<Integer, Boolean>comparing(cell -> !isDivisor[cell])
+                .thenComparing(cell -> -divisorUses[cell])
+                .thenComparing(cell -> -weight[cell])
+                .thenComparing(cell -> cell);
+        List<Integer> cellList = new ArrayList<>();
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellList.add(cell);
+        }
+        cellList.sort(byPriority);
+        return toArray(cellList);
+    }
+
+    /**
+     * Bounds every intermediate the evaluator and solver can produce for grids over the digit set.
+     */
+    private void checkOverflow() {
+        long hi = Math.max(1, digits[digits.length - 1]);
+        try {
+            long scale = 1;
+            for (int t = 0; t < termCount; t++) {
+                scale = Math.multiplyExact(scale, coefficientDenominators[t]);
+                for (int i = divisorStart[t]; i < divisorStart[t + 1]; i++) {
+                    scale = Math.multiplyExact(scale, hi);
+                }
+            }
+
+            long total = Math.multiplyExact(Math.abs(target), scale);
+            for (int t = 0; t < termCount; t++) {
+                long p = Math.abs(coefficientNumerators[t]);
+                for (int i = cellStart[t]; i < cellStart[t + 1]; i++) {
+                    p = Math.multiplyExact(p, hi);
+                }
+                total = Math.addExact(total, Math.multiplyExact(p, scale));
+            }
+            if (total > OVERFLOW_LIMIT) {
+                throw new ArithmeticException();
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Equation '" + equation
+                    + "' may overflow 64-bit arithmetic for digits up to " + hi);
+        }
+    }
+
+    private int[] validateDigits(int[] candidates) {
+        if (candidates.length == 0) {
+            throw new IllegalArgumentException("The digit set must not be empty");
+        }
+        if (cellCount > 64) {
+            throw new IllegalArgumentException("At most 64 cells are supported, got " + cellCount);
+        }
+
+        int[] sorted = candidates.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 0 || sorted[i] > 63) {
+                throw new IllegalArgumentException("Digits must be in the range 0..63, got " + sorted[i]);
+            }
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Duplicate digit " + sorted[i]);
+            }
+        }
+        return sorted;
+    }
+
+    private static long maskOf(int[] digits) {
+        long mask = 0;
+        for (int digit : digits) {
+            mask |= 1L << digit;
+        }
+        return mask;
+    }
+
+    private static int[] flatten(List<Term> terms, boolean numerator) {
+        return terms.stream()
+                .flatMapToInt(term -> Arrays.stream(numerator ? term.cells() : term.divisors()))
+                .toArray();
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
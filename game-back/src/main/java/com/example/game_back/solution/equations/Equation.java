@@ -0,0 +1,132 @@
+package com.example.game_back.solution.equations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A puzzle equation: a sum of {@link Term}s over grid cells that must equal an integer target.
+ * Instances are immutable; build them with {@link #builder()} or {@link #parse(String)} and
+ * {@link #compile(int[])} them once for evaluation.
+ */
+public final class Equation {
+
+    private final List<Term> terms;
+
+    private final long target;
+
+    private final int cellCount;
+
+    private Equation(List<Term> terms, long target, int cellCount) {
+        this.terms = List.copyOf(terms);
+        this.target = target;
+        this.cellCount = cellCount;
+    }
+
+    /**
+     * Parses an equation such as {@code n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87}.
+     * Cells are written {@code n1..nN}; the grid has as many cells as the highest one referenced.
+     *
+     * @param expression The equation text
+     * @return The parsed equation
+     * @throws IllegalArgumentException if the text is not a supported equation
+     */
+    public static Equation parse(String expression) {
+        return new EquationParser(expression).parse();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Term> getTerms() {
+        return terms;
+    }
+
+    public long getTarget() {
+        return target;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Compiles the equation for grids drawn without repetition from the given digits.
+     *
+     * @param digits The allowed digits, each in the range 0..63
+     * @return The compiled evaluator and search plan
+     * @throws IllegalArgumentException if the digits are invalid or could overflow the evaluator
+     */
+    public CompiledEquation compile(int[] digits) {
+        return new CompiledEquation(this, digits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Equation other
+                && target == other.target
+                && cellCount == other.cellCount
+                && terms.equals(other.terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * terms.hashCode() + Long.hashCode(target);
+    }
+
+    /**
+     * The left-hand side of the equation, e.g. {@code n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9}.
+     */
+    public String getExpression() {
+        StringBuilder sb = new StringBuilder();
+        for (Term term : terms) {
+            if (sb.isEmpty()) {
+                sb.append(term.numerator() < 0 ? "-" : "");
+            } else {
+                sb.append(term.numerator() < 0 ? " - " : " + ");
+            }
+            sb.append(term);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getExpression() + " = " + target;
+    }
+
+    public static final class Builder {
+
+        private final List<Term> terms = new ArrayList<>();
+
+        private int cellCount;
+
+        private Builder() {
+        }
+
+        public Builder add(Term term) {
+            terms.add(term);
+            cellCount = Math.max(cellCount, term.maxCell() + 1);
+            return this;
+        }
+
+        public Builder subtract(Term term) {
+            return add(term.negate());
+        }
+
+        /**
+         * Widens the grid to at least {@code cellCount} cells, for cells not referenced by any term.
+         */
+        public Builder cells(int cellCount) {
+            this.cellCount = Math.max(this.cellCount, cellCount);
+            return this;
+        }
+
+        public Equation equalTo(long target) {
+            if (terms.isEmpty()) {
+                throw new IllegalArgumentException("An equation needs at least one term");
+            }
+            return new Equation(terms, target, cellCount);
+        }
+    }
+}
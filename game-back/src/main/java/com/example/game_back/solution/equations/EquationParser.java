@@ -0,0 +1,157 @@
+package com.example.game_back.solution.equations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for the equation grammar:
+ * <pre>
+ * equation := ['+' | '-'] term (('+' | '-') term)* '=' ['-'] integer
+ * term     := factor (('*' | '/') factor)*
+ * factor   := integer | 'n' integer | '(' term ')'
+ * </pre>
+ * Every term must refer to at least one cell; constants belong in the target.
+ */
+final class EquationParser {
+
+    private final String text;
+
+    private int pos;
+
+    EquationParser(String text) {
+        this.text = text;
+    }
+
+    Equation parse() {
+        Equation.Builder builder = Equation.builder();
+
+        boolean negative = consumeSign();
+        builder.add(signed(parseTerm(), negative));
+        while (peek() == '+' || peek() == '-') {
+            negative = next() == '-';
+            builder.add(signed(parseTerm(), negative));
+        }
+
+        expect('=');
+        boolean negativeTarget = consumeSign();
+        long target = parseInteger();
+        if (peek() != 0) {
+            throw error("Unexpected '" + peek() + "'");
+        }
+        return builder.equalTo(negativeTarget ? -target : target);
+    }
+
+    private Term parseTerm() {
+        Product product = new Product();
+        parseFactor(product, false);
+        while (peek() == '*' || peek() == '/') {
+            parseFactor(product, next() == '/');
+        }
+        return product.toTerm();
+    }
+
+    private void parseFactor(Product product, boolean divide) {
+        char c = peek();
+        if (c == '(') {
+            next();
+            parseFactor(product, divide);
+            while (peek() == '*' || peek() == '/') {
+                parseFactor(product, divide != (next() == '/'));
+            }
+            expect(')');
+        } else if (c == 'n') {
+            next();
+            int cell = (int) parseInteger() - 1;
+            if (cell < 0) {
+                throw error("Cells are numbered from n1");
+            }
+            (divide ? product.divisors : product.cells).add(cell);
+        } else if (Character.isDigit(c)) {
+            long value = parseInteger();
+            if (divide) {
+                if (value == 0) {
+                    throw error("Division by zero");
+                }
+                product.denominator = Math.multiplyExact(product.denominator, value);
+            } else {
+                product.numerator = Math.multiplyExact(product.numerator, value);
+            }
+        } else {
+            throw error(c == 0 ? "Unexpected end of equation" : "Unexpected '" + c + "'");
+        }
+    }
+
+    private long parseInteger() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("Expected a number");
+        }
+        try {
+            return Long.parseLong(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Number too large");
+        }
+    }
+
+    private boolean consumeSign() {
+        char c = peek();
+        if (c == '+' || c == '-') {
+            next();
+            return c == '-';
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        next();
+    }
+
+    private char peek() {
+        skipWhitespace();
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in '" + text + "'");
+    }
+
+    private static Term signed(Term term, boolean negative) {
+        return negative ? term.negate() : term;
+    }
+
+    private static final class Product {
+
+        private final List<Integer> cells = new ArrayList<>();
+
+        private final List<Integer> divisors = new ArrayList<>();
+
+        private long numerator = 1;
+
+        private long denominator = 1;
+
+        private Term toTerm() {
+            int[] cellArray = cells.stream().mapToInt(Integer::intValue).toArray();
+            int[] divisorArray = divisors.stream().mapToInt(Integer::intValue).toArray();
+            return new Term(numerator, denominator, cellArray, divisorArray);
+        }
+    }
+}
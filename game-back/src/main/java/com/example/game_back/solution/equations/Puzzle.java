@@ -0,0 +1,128 @@
+package com.example.game_back.solution.equations;
+
+import com.example.game_back.solution.solvers.EquationSolver;
+import com.example.game_back.solution.solvers.SolutionSink;
+import com.example.game_back.solution.solvers.Solver;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * A named puzzle variant: an equation and the digits its cells are filled with, each digit used
+ * at most once. The equation is compiled when the puzzle is created.
+ */
+public final class Puzzle {
+
+    public static final String CLASSIC_ID = "classic";
+
+    public static final String CLASSIC_EQUATION = "n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87";
+
+    public static final Puzzle CLASSIC = new Puzzle(CLASSIC_ID, Equation.parse(CLASSIC_EQUATION), parseDigits("1-9"));
+
+    private final String id;
+
+    private final CompiledEquation compiled;
+
+    private final CellSymmetry symmetry;
+
+    private final BatchValidator validator;
+
+    public Puzzle(String id, Equation equation, int[] digits) {
+        this.id = id;
+        this.compiled = equation.compile(digits);
+        this.symmetry = CellSymmetry.of(equation);
+        this.validator = BatchValidator.of(compiled);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Equation getEquation() {
+        return compiled.getEquation();
+    }
+
+    public CompiledEquation getCompiled() {
+        return compiled;
+    }
+
+    /**
+     * The interchangeable cells of the equation, detected when the puzzle is created.
+     */
+    public CellSymmetry getSymmetry() {
+        return symmetry;
+    }
+
+    public int getCellCount() {
+        return compiled.getCellCount();
+    }
+
+    /**
+     * The allowed digits in ascending order. The returned array must not be modified.
+     */
+    public int[] getDigits() {
+        return compiled.getDigits();
+    }
+
+    public boolean isSolution(int[] numbers) {
+        return compiled.isSolution(numbers);
+    }
+
+    /**
+     * The validator checking many grids at once, vectorized when the JVM allows it.
+     */
+    public BatchValidator getValidator() {
+        return validator;
+    }
+
+    /**
+     * Creates a single-threaded solver for this puzzle.
+     *
+     * @param sink Receives each solution found
+     * @return A new solver with its own scratch state
+     */
+    public Solver newSolver(SolutionSink sink) {
+        return new EquationSolver(compiled, sink);
+    }
+
+    /**
+     * Creates a single-threaded solver that only reports the canonical solution of each class of
+     * {@link #getSymmetry()}.
+     *
+     * @param sink Receives each canonical solution found
+     * @return A new solver with its own scratch state
+     */
+    public Solver newCanonicalSolver(SolutionSink sink) {
+        return new EquationSolver(compiled, symmetry, sink);
+    }
+
+    /**
+     * Parses a digit set written as comma-separated digits and inclusive ranges, e.g. {@code 1-9}
+     * or {@code 0,2,4-7}.
+     *
+     * @param spec The digit set
+     * @return The digits in ascending order
+     * @throws IllegalArgumentException if the set cannot be parsed
+     */
+    public static int[] parseDigits(String spec) {
+        TreeSet<Integer> digits = new TreeSet<>();
+        try {
+            for (String part : spec.split(",")) {
+                String[] bounds = part.trim().split("-", 2);
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : from;
+                for (int digit = from; digit <= to; digit++) {
+                    digits.add(digit);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid digit set '" + spec + "'", e);
+        }
+        return digits.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String toString() {
+        return id + ": " + getEquation() + " over " + Arrays.toString(getDigits());
+    }
+}
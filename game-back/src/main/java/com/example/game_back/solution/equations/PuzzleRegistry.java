@@ -0,0 +1,32 @@
+package com.example.game_back.solution.equations;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The puzzles the application can generate, by id. The classic puzzle is always present.
+ */
+public class PuzzleRegistry {
+
+    private final Map<String, Puzzle> puzzles = new LinkedHashMap<>();
+
+    public PuzzleRegistry(Collection<Puzzle> variants) {
+        puzzles.put(Puzzle.CLASSIC_ID, Puzzle.CLASSIC);
+        for (Puzzle puzzle : variants) {
+            if (puzzles.putIfAbsent(puzzle.getId(), puzzle) != null) {
+                throw new IllegalArgumentException("Duplicate puzzle id '" + puzzle.getId() + "'");
+            }
+        }
+    }
+
+    public Optional<Puzzle> find(String id) {
+        return Optional.ofNullable(puzzles.get(id));
+    }
+
+    public Collection<Puzzle> getAll() {
+        return Collections.unmodifiableCollection(puzzles.values());
+    }
+}
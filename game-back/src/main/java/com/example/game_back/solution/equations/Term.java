@@ -0,0 +1,137 @@
+package com.example.game_back.solution.equations;
+
+import java.util.Arrays;
+
+/**
+ * One additive term of an equation: {@code numerator/denominator * product(cells) / product(divisors)}.
+ * Cells are zero-based grid positions and may repeat. The rational coefficient is kept reduced,
+ * with the sign on the numerator.
+ *
+ * @param numerator Coefficient numerator
+ * @param denominator Coefficient denominator, always positive
+ * @param cells Grid positions multiplied in the numerator
+ * @param divisors Grid positions multiplied in the denominator
+ */
+public record Term(long numerator, long denominator, int[] cells, int[] divisors) {
+
+    public Term {
+        if (denominator == 0) {
+            throw new IllegalArgumentException("Coefficient denominator must not be zero");
+        }
+        if (cells.length == 0 && divisors.length == 0) {
+            throw new IllegalArgumentException("Constant terms are not supported; fold them into the target");
+        }
+        for (int cell : cells) {
+            requireCell(cell);
+        }
+        for (int cell : divisors) {
+            requireCell(cell);
+        }
+
+        if (denominator < 0) {
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        if (gcd > 1) {
+            numerator /= gcd;
+            denominator /= gcd;
+        }
+        cells = cells.clone();
+        divisors = divisors.clone();
+    }
+
+    /**
+     * Creates the term {@code coefficient * product(cells)}.
+     */
+    public static Term of(long coefficient, int... cells) {
+        return new Term(coefficient, 1, cells, new int[0]);
+    }
+
+    /**
+     * Returns this term with its value divided by the product of the given cells.
+     */
+    public Term dividedByCells(int... cells) {
+        int[] merged = Arrays.copyOf(divisors, divisors.length + cells.length);
+        System.arraycopy(cells, 0, merged, divisors.length, cells.length);
+        return new Term(numerator, denominator, this.cells, merged);
+    }
+
+    /**
+     * Returns this term with its coefficient divided by {@code value}.
+     */
+    public Term dividedBy(long value) {
+        return new Term(numerator, Math.multiplyExact(denominator, value), cells, divisors);
+    }
+
+    public Term negate() {
+        return new Term(-numerator, denominator, cells, divisors);
+    }
+
+    /**
+     * Highest grid position the term refers to, or -1 if it refers to none.
+     */
+    int maxCell() {
+        int max = -1;
+        for (int cell : cells) {
+            max = Math.max(max, cell);
+        }
+        for (int cell : divisors) {
+            max = Math.max(max, cell);
+        }
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Term other
+                && numerator == other.numerator
+                && denominator == other.denominator
+                && Arrays.equals(cells, other.cells)
+                && Arrays.equals(divisors, other.divisors);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(numerator) + Long.hashCode(denominator))
+                + 31 * Arrays.hashCode(cells) + Arrays.hashCode(divisors);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        long magnitude = Math.abs(numerator);
+        boolean coefficientShown = magnitude != 1 || cells.length == 0;
+        if (coefficientShown) {
+            sb.append(magnitude);
+        }
+        for (int cell : cells) {
+            if (!sb.isEmpty()) {
+                sb.append('*');
+            }
+            sb.append('n').append(cell + 1);
+        }
+        if (denominator != 1) {
+            sb.append('/').append(denominator);
+        }
+        for (int cell : divisors) {
+            sb.append('/').append('n').append(cell + 1);
+        }
+        return sb.toString();
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static void requireCell(int cell) {
+        if (cell < 0) {
+            throw new IllegalArgumentException("Cell positions must not be negative, got " + cell);
+        }
+    }
+}
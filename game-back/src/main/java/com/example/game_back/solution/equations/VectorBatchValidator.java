@@ -0,0 +1,110 @@
+package com.example.game_back.solution.equations;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.List;
+
+/**
+ * Validates grids with the Vector API, as many at a time as the CPU has {@code int} lanes: one
+ * lane per grid, one vector load per cell. A grid is a solution when its digits are allowed and
+ * distinct (the bits of its digits do not overlap, so their sum equals their union) and the
+ * integer form of the equation holds with no zero divisor. The grids left over after the last
+ * full vector are checked one by one.
+ * <p>
+ * Only created by {@link BatchValidator#of} when the incubator module is present and the equation
+ * fits {@code int} lanes.
+ */
+final class VectorBatchValidator extends BatchValidator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final IntegerForm form;
+
+    private final int[][] termCells;
+
+    private final int[][] termDivisors;
+
+    private final int minDigit;
+
+    private final int maxDigit;
+
+    private final int digitMask;
+
+    VectorBatchValidator(CompiledEquation equation) {
+        super(equation);
+        this.form = new IntegerForm(equation);
+        List<Term> terms = equation.getEquation().getTerms();
+        this.termCells = terms.stream().map(Term::cells).toArray(int[][]::new);
+        this.termDivisors = terms.stream().map(Term::divisors).toArray(int[][]::new);
+        int[] digits = equation.getDigits();
+        this.minDigit = digits[0];
+        this.maxDigit = digits[digits.length - 1];
+        this.digitMask = (int) equation.getDigitMask();
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    void validate(int[][] columns, int count, boolean[] results) {
+        int upper = SPECIES.loopBound(count);
+        IntVector[] quotients = new IntVector[form.divisorTerms.length];
+        for (int offset = 0; offset < upper; offset += SPECIES.length()) {
+            check(columns, offset, quotients).intoArray(results, offset);
+        }
+
+        int[] grid = new int[columns.length];
+        for (int i = upper; i < count; i++) {
+            for (int cell = 0; cell < grid.length; cell++) {
+                grid[cell] = columns[cell][i];
+            }
+            results[i] = equation.isSolution(grid);
+        }
+    }
+
+    private VectorMask<Integer> check(int[][] columns, int offset, IntVector[] quotients) {
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        IntVector union = IntVector.zero(SPECIES);
+        IntVector sum = IntVector.zero(SPECIES);
+        VectorMask<Integer> valid = SPECIES.maskAll(true);
+        for (int[] column : columns) {
+            IntVector digit = IntVector.fromArray(SPECIES, column, offset);
+            valid = valid.and(digit.compare(VectorOperators.GE, minDigit))
+                    .and(digit.compare(VectorOperators.LE, maxDigit));
+            IntVector bit = one.lanewise(VectorOperators.LSHL, digit);
+            union = union.or(bit);
+            sum = sum.add(bit);
+        }
+        valid = valid.and(union.compare(VectorOperators.EQ, sum))
+                .and(union.and(~digitMask).compare(VectorOperators.EQ, 0));
+
+        IntVector divisors = one;
+        for (int d = 0; d < quotients.length; d++) {
+            IntVector quotient = one;
+            for (int cell : termDivisors[form.divisorTerms[d]]) {
+                quotient = quotient.mul(IntVector.fromArray(SPECIES, columns[cell], offset));
+            }
+            quotients[d] = quotient;
+            divisors = divisors.mul(quotient);
+        }
+        valid = valid.and(divisors.compare(VectorOperators.NE, 0));
+
+        IntVector left = IntVector.zero(SPECIES);
+        for (int t = 0; t < termCells.length; t++) {
+            IntVector value = IntVector.broadcast(SPECIES, form.coefficients[t]);
+            for (int cell : termCells[t]) {
+                value = value.mul(IntVector.fromArray(SPECIES, columns[cell], offset));
+            }
+            for (int d : form.otherDivisorTerms[t]) {
+                value = value.mul(quotients[d]);
+            }
+            left = left.add(value);
+        }
+        return valid.and(left.compare(VectorOperators.EQ, divisors.mul(form.scaledTarget)));
+    }
+}
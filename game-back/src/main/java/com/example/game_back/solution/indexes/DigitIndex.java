@@ -0,0 +1,288 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.indexes.SolutionQuery.CellConstraint;
+import com.example.game_back.solution.models.PackedNumbers;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Bitmap index of a set of solutions by cell and digit. Every solution gets an ordinal, and for
+ * each (cell, digit) pair a {@link BitSet} holds the ordinals of the solutions with that digit
+ * in that cell: 81 bitsets for 9-cell grids of digits 1-9. A {@link SolutionQuery} is evaluated
+ * with word-wise operations on them, ORing the bitsets of the digits a constraint accepts and
+ * ANDing the constraints of a clause, so its cost depends on the number of solutions divided by
+ * 64 rather than on the grids themselves.
+ * <p>
+ * Ordinals follow the solution ids, so the matches of a query come out in id order. Solutions
+ * are added, changed and removed in place; an id not above the highest one, or many removed
+ * ordinals, make the index renumber its solutions once.
+ * <p>
+ * Grids are held {@linkplain PackedNumbers packed}. Instances are not thread-safe.
+ */
+public final class DigitIndex {
+
+    private static final int DIGITS = PackedNumbers.MAX_VALUE + 1;
+
+    private static final int MIN_COMPACTION = 1024;
+
+    private final int cellCount;
+
+    /**
+     * Ordinals by {@code cell * DIGITS + digit}; null until a solution has that digit there.
+     */
+    private final BitSet[] cells;
+
+    private final BitSet live = new BitSet();
+
+    private final BitSet correct = new BitSet();
+
+    private long[] ids = new long[16];
+
+    private long[] packed = new long[16];
+
+    /**
+     * Number of ordinals handed out, removed ones included.
+     */
+    private int size;
+
+    private int removed;
+
+    /**
+     * @param cellCount Number of cells of the indexed grids, at most {@value PackedNumbers#MAX_LENGTH}
+     */
+    public DigitIndex(int cellCount) {
+        if (cellCount < 1 || cellCount > PackedNumbers.MAX_LENGTH) {
+            throw new IllegalArgumentException("Cannot index grids of " + cellCount + " cells");
+        }
+        this.cellCount = cellCount;
+        this.cells = new BitSet[cellCount * DIGITS];
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Number of solutions in the index.
+     */
+    public int count() {
+        return size - removed;
+    }
+
+    /**
+     * Adds a solution, or replaces the grid and flag of the solution with this id.
+     *
+     * @param id The solution id
+     * @param packedNumbers The grid, {@linkplain PackedNumbers packed}
+     * @param isCorrect The correctness flag
+     */
+    public void put(long id, long packedNumbers, boolean isCorrect) {
+        int length = PackedNumbers.length(packedNumbers);
+        if (length != cellCount) {
+            throw new IllegalArgumentException("Expected a grid of " + cellCount + " cells, got " + length);
+        }
+
+        int ordinal = ordinalOf(id);
+        if (ordinal >= 0) {
+            clearCells(ordinal);
+            set(ordinal, packedNumbers, isCorrect);
+            return;
+        }
+
+        if (size > 0 && id <= ids[size - 1]) {
+            renumber(id, packedNumbers, isCorrect);
+        } else {
+            append(id, packedNumbers, isCorrect);
+        }
+    }
+
+    /**
+     * @return true if the solution was in the index
+     */
+    public boolean remove(long id) {
+        int ordinal = ordinalOf(id);
+        if (ordinal < 0) {
+            return false;
+        }
+        removeOrdinal(ordinal);
+        compactIfSparse();
+        return true;
+    }
+
+    /**
+     * Removes every solution with the given correctness flag.
+     *
+     * @return The number of solutions removed
+     */
+    public int removeIf(boolean isCorrect) {
+        BitSet matching = (BitSet) live.clone();
+        if (isCorrect) {
+            matching.and(correct);
+        } else {
+            matching.andNot(correct);
+        }
+        matching.stream().forEach(this::removeOrdinal);
+        compactIfSparse();
+        return matching.cardinality();
+    }
+
+    public void clear() {
+        Arrays.fill(cells, null);
+        live.clear();
+        correct.clear();
+        size = 0;
+        removed = 0;
+    }
+
+    /**
+     * Evaluates a query.
+     *
+     * @param query The query
+     * @param isCorrect If not null, only solutions with this correctness flag match
+     * @return The ordinals of the matching solutions
+     * @throws IllegalArgumentException if the query constrains a cell past the grids
+     */
+    public BitSet match(SolutionQuery query, Boolean isCorrect) {
+        if (query.getCellCount() > cellCount) {
+            throw new IllegalArgumentException("The grids have no cell n" + query.getCellCount());
+        }
+
+        BitSet matches;
+        if (query.clauses().isEmpty()) {
+            matches = (BitSet) live.clone();
+        } else {
+            matches = new BitSet();
+            for (List<CellConstraint> clause : query.clauses()) {
+                matches.or(matchClause(clause));
+            }
+        }
+        if (isCorrect != null) {
+            if (isCorrect) {
+                matches.and(correct);
+            } else {
+                matches.andNot(correct);
+            }
+        }
+        return matches;
+    }
+
+    private BitSet matchClause(List<CellConstraint> clause) {
+        BitSet matches = (BitSet) live.clone();
+        for (CellConstraint constraint : clause) {
+            BitSet digits = new BitSet();
+            for (int digit = 0; digit < DIGITS; digit++) {
+                BitSet ordinals = cells[constraint.cell() * DIGITS + digit];
+                if ((constraint.digits() >>> digit & 1) != 0 && ordinals != null) {
+                    digits.or(ordinals);
+                }
+            }
+            if (constraint.negated()) {
+                matches.andNot(digits);
+            } else {
+                matches.and(digits);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The first ordinal of a solution with an id greater than {@code id}.
+     */
+    public int firstOrdinalAfter(long id) {
+        int ordinal = Arrays.binarySearch(ids, 0, size, id);
+        return ordinal >= 0 ? ordinal + 1 : -ordinal - 1;
+    }
+
+    public long getId(int ordinal) {
+        return ids[ordinal];
+    }
+
+    public long getPackedNumbers(int ordinal) {
+        return packed[ordinal];
+    }
+
+    public boolean isCorrect(int ordinal) {
+        return correct.get(ordinal);
+    }
+
+    private int ordinalOf(long id) {
+        int ordinal = Arrays.binarySearch(ids, 0, size, id);
+        return ordinal >= 0 && live.get(ordinal) ? ordinal : -1;
+    }
+
+    private void set(int ordinal, long packedNumbers, boolean isCorrect) {
+        packed[ordinal] = packedNumbers;
+        correct.set(ordinal, isCorrect);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int key = cell * DIGITS + digitAt(packedNumbers, cell);
+            if (cells[key] == null) {
+                cells[key] = new BitSet();
+            }
+            cells[key].set(ordinal);
+        }
+    }
+
+    private void clearCells(int ordinal) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            cells[cell * DIGITS + digitAt(packed[ordinal], cell)].clear(ordinal);
+        }
+    }
+
+    private void removeOrdinal(int ordinal) {
+        clearCells(ordinal);
+        live.clear(ordinal);
+        correct.clear(ordinal);
+        removed++;
+    }
+
+    private int digitAt(long packedNumbers, int cell) {
+        return (int) (packedNumbers >>> (4 * (cellCount - 1 - cell))) & 0xF;
+    }
+
+    private void append(long id, long packedNumbers, boolean isCorrect) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            packed = Arrays.copyOf(packed, size * 2);
+        }
+        ids[size] = id;
+        live.set(size);
+        set(size++, packedNumbers, isCorrect);
+    }
+
+    private void compactIfSparse() {
+        if (removed >= MIN_COMPACTION && removed > size / 2) {
+            renumber(Long.MIN_VALUE, 0, false);
+        }
+    }
+
+    /**
+     * Renumbers the solutions in id order, leaving out the removed ones and inserting a new
+     * solution at its place, unless {@code newId} is {@link Long#MIN_VALUE}.
+     */
+    private void renumber(long newId, long newPackedNumbers, boolean newCorrect) {
+        int[] ordinals = live.stream().toArray();
+        long[] oldIds = ids;
+        long[] oldPacked = packed;
+        BitSet oldCorrect = (BitSet) correct.clone();
+
+        clear();
+        ids = new long[Math.max(16, ordinals.length + 1)];
+        packed = new long[ids.length];
+        boolean inserted = newId == Long.MIN_VALUE;
+        for (int ordinal : ordinals) {
+            if (!inserted && newId < oldIds[ordinal]) {
+                append(newId, newPackedNumbers, newCorrect);
+                inserted = true;
+            }
+            append(oldIds[ordinal], oldPacked[ordinal], oldCorrect.get(ordinal));
+        }
+        if (!inserted) {
+            append(newId, newPackedNumbers, newCorrect);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.equations.Puzzle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The grids of a puzzle viewed as permutations: every way to fill its cells with distinct digits
+ * from its digit set. Each grid has a rank (a mixed-radix Lehmer code) in {@code 0..size-1};
+ * ranks follow the lexicographic order of the grids.
+ */
+public final class PermutationSpace {
+
+    /**
+     * Largest space we index; bitmaps over it stay below 64 MB.
+     */
+    static final long MAX_SIZE = 1L << 29;
+
+    private final int cellCount;
+
+    private final int[] digits;
+
+    private final int[] indexOf;
+
+    private final int size;
+
+    public PermutationSpace(int cellCount, int[] digits) {
+        if (digits.length > 63 || cellCount > digits.length) {
+            throw new IllegalArgumentException("Cannot index " + cellCount + " cells over " + digits.length + " digits");
+        }
+
+        long total = 1;
+        for (int i = 0; i < cellCount; i++) {
+            total *= digits.length - i;
+            if (total > MAX_SIZE) {
+                throw new IllegalArgumentException("Permutation space of " + cellCount + " cells over "
+                        + digits.length + " digits is too large to index");
+            }
+        }
+
+        this.cellCount = cellCount;
+        this.digits = digits.clone();
+        Arrays.sort(this.digits);
+        this.indexOf = new int[64];
+        Arrays.fill(indexOf, -1);
+        for (int i = 0; i < this.digits.length; i++) {
+            indexOf[this.digits[i]] = i;
+        }
+        this.size = (int) total;
+    }
+
+    /**
+     * Whether the grids of a puzzle are few enough to be indexed, i.e. whether
+     * {@link #of(Puzzle)} succeeds.
+     */
+    public static boolean isIndexable(Puzzle puzzle) {
+        int digitCount = puzzle.getDigits().length;
+        if (digitCount > 63 || puzzle.getCellCount() > digitCount) {
+            return false;
+        }
+        long total = 1;
+        for (int i = 0; i < puzzle.getCellCount() && total <= MAX_SIZE; i++) {
+            total *= digitCount - i;
+        }
+        return total <= MAX_SIZE;
+    }
+
+    public static PermutationSpace of(Puzzle puzzle) {
+        return new PermutationSpace(puzzle.getCellCount(), puzzle.getDigits());
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Number of distinct grids, i.e. one past the highest rank.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ranks a grid without allocating.
+     *
+     * @param numbers The grid in position order
+     * @return The rank, or -1 if the grid has the wrong size, a digit outside the set or a
+     * repeated digit
+     */
+    public int rank(int[] numbers) {
+        if (numbers.length != cellCount) {
+            return -1;
+        }
+
+        long used = 0;
+        int rank = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int index = indexOf(numbers[i]);
+            if (index < 0 || (used & (1L << index)) != 0) {
+                return -1;
+            }
+            rank = rank * (digits.length - i) + index - Long.bitCount(used & ((1L << index) - 1));
+            used |= 1L << index;
+        }
+        return rank;
+    }
+
+    /**
+     * Ranks a grid given as boxed numbers, as received by the API.
+     *
+     * @return The rank, or -1 if the grid is not in this space (including null entries)
+     */
+    public int rank(List<Integer> numbers) {
+        if (numbers == null || numbers.size() != cellCount) {
+            return -1;
+        }
+
+        long used = 0;
+        int rank = 0;
+        for (int i = 0; i < cellCount; i++) {
+            Integer number = numbers.get(i);
+            int index = number == null ? -1 : indexOf(number);
+            if (index < 0 || (used & (1L << index)) != 0) {
+                return -1;
+            }
+            rank = rank * (digits.length - i) + index - Long.bitCount(used & ((1L << index) - 1));
+            used |= 1L << index;
+        }
+        return rank;
+    }
+
+    /**
+     * Writes the grid with the given rank into {@code numbers}.
+     *
+     * @param rank A rank in {@code 0..size-1}
+     * @param numbers Receives the grid; must have {@link #getCellCount()} entries
+     */
+    public void unrank(int rank, int[] numbers) {
+        for (int i = cellCount - 1; i >= 0; i--) {
+            int radix = digits.length - i;
+            numbers[i] = rank % radix;
+            rank /= radix;
+        }
+
+        long used = 0;
+        for (int i = 0; i < cellCount; i++) {
+            long free = ~used;
+            for (int skip = numbers[i]; skip > 0; skip--) {
+                free &= free - 1;
+            }
+            int index = Long.numberOfTrailingZeros(free);
+            used |= 1L << index;
+            numbers[i] = digits[index];
+        }
+    }
+
+    public int[] unrank(int rank) {
+        int[] numbers = new int[cellCount];
+        unrank(rank, numbers);
+        return numbers;
+    }
+
+    private int indexOf(int digit) {
+        return digit >= 0 && digit < 64 ? indexOf[digit] : -1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.models.PackedNumbers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A query on the digits of solution grids, in disjunctive normal form: clauses separated by
+ * {@code |}, each a conjunction of cell constraints separated by {@code &}. A grid matches when
+ * it satisfies every constraint of at least one clause, and the empty query matches every grid.
+ * <pre>
+ * n5=5 &amp; n1=1           cell 5 holds 5 and cell 1 holds 1
+ * n3=even               cell 3 holds an even digit
+ * n2=1-3,7 | n9!=9      cell 2 holds 1, 2, 3 or 7, or cell 9 does not hold 9
+ * </pre>
+ * Digit sets use the syntax of {@link com.example.game_back.solution.equations.Puzzle#parseDigits},
+ * or the words {@code even} and {@code odd}. Each constraint is kept as a mask of the digits it
+ * accepts, so it is evaluated with one bitset per digit of the mask.
+ *
+ * @param clauses The clauses, any of which must hold; empty for the query matching every grid
+ */
+public record SolutionQuery(List<List<CellConstraint>> clauses) {
+
+    /**
+     * The query matching every grid.
+     */
+    public static final SolutionQuery ALL = new SolutionQuery(List.of());
+
+    private static final int EVEN = 0b0101_0101_0101_0101;
+
+    private static final int ODD = EVEN << 1;
+
+    /**
+     * A constraint on one cell.
+     *
+     * @param cell The cell position, from 0
+     * @param digits Mask of the digits the constraint refers to, bit {@code d} for digit {@code d}
+     * @param negated Whether the cell must hold none of the digits rather than one of them
+     */
+    public record CellConstraint(int cell, int digits, boolean negated) {
+
+        public boolean matches(int digit) {
+            return ((digits >>> digit & 1) != 0) != negated;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("n").append(cell + 1).append(negated ? "!=" : "=");
+            if (digits == EVEN || digits == ODD) {
+                return sb.append(digits == EVEN ? "even" : "odd").toString();
+            }
+            for (int digit = 0; digit <= PackedNumbers.MAX_VALUE; digit++) {
+                if ((digits >>> digit & 1) != 0) {
+                    sb.append(sb.charAt(sb.length() - 1) == '=' ? "" : ",").append(digit);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    public SolutionQuery {
+        clauses = clauses.stream().map(List::copyOf).toList();
+    }
+
+    /**
+     * Parses a query such as {@code n5=5 & n1=1 | n3=even}.
+     *
+     * @param text The query text; blank for the query matching every grid
+     * @return The parsed query
+     * @throws IllegalArgumentException if the text is not a valid query
+     */
+    public static SolutionQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            return ALL;
+        }
+
+        List<List<CellConstraint>> clauses = new ArrayList<>();
+        for (String clause : text.split("\\|", -1)) {
+            List<CellConstraint> constraints = new ArrayList<>();
+            for (String constraint : clause.split("&", -1)) {
+                constraints.add(parseConstraint(constraint.trim()));
+            }
+            clauses.add(constraints);
+        }
+        return new SolutionQuery(clauses);
+    }
+
+    private static CellConstraint parseConstraint(String text) {
+        int equals = text.indexOf('=');
+        if (equals < 0 || text.isEmpty() || text.charAt(0) != 'n') {
+            throw new IllegalArgumentException("Expected a constraint such as n1=5, got '" + text + "'");
+        }
+        boolean negated = text.charAt(equals - 1) == '!';
+        String cellText = text.substring(1, negated ? equals - 1 : equals).trim();
+        String digitsText = text.substring(equals + 1).trim();
+
+        int cell;
+        try {
+            cell = Integer.parseInt(cellText) - 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cell 'n" + cellText + "'", e);
+        }
+        if (cell < 0 || cell >= PackedNumbers.MAX_LENGTH) {
+            throw new IllegalArgumentException("Cells are numbered from n1 to n" + PackedNumbers.MAX_LENGTH);
+        }
+        return new CellConstraint(cell, parseDigits(digitsText), negated);
+    }
+
+    private static int parseDigits(String text) {
+        if (text.equals("even")) {
+            return EVEN;
+        }
+        if (text.equals("odd")) {
+            return ODD;
+        }
+
+        int mask = 0;
+        try {
+            for (String part : text.split(",", -1)) {
+                String[] bounds = part.trim().split("-", 2);
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (from < 0 || to > PackedNumbers.MAX_VALUE || from > to) {
+                    throw new IllegalArgumentException("Invalid digit range '" + part.trim() + "'");
+                }
+                for (int digit = from; digit <= to; digit++) {
+                    mask |= 1 << digit;
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid digit set '" + text + "'", e);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks a grid directly, without an index.
+     *
+     * @param numbers A grid with at least {@link #getCellCount()} cells
+     * @return true if the grid satisfies every constraint of at least one clause
+     */
+    public boolean matches(int[] numbers) {
+        if (clauses.isEmpty()) {
+            return true;
+        }
+        for (List<CellConstraint> clause : clauses) {
+            if (clause.stream().allMatch(constraint -> constraint.matches(numbers[constraint.cell()]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of cells a grid needs for the query to apply: one past the highest constrained cell.
+     */
+    public int getCellCount() {
+        return clauses.stream()
+                .flatMap(List::stream)
+                .mapToInt(constraint -> constraint.cell() + 1)
+                .max()
+                .orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        List<String> texts = clauses.stream()
+                .map(clause -> String.join(" & ", clause.stream().map(CellConstraint::toString).toList()))
+                .toList();
+        return String.join(" | ", texts);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.equations.BatchValidator;
+import com.example.game_back.solution.equations.Puzzle;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * One bit per grid of a puzzle's {@link PermutationSpace}, set for the solutions. Checking a
+ * proposal is a rank computation plus a bit test, and grids that are not permutations of the
+ * digit set fail the rank computation. For the classic puzzle the bitmap holds 9! bits (45 KB).
+ * <p>
+ * Instances are immutable once built and may be shared between threads.
+ */
+public final class ValidityBitmap {
+
+    private final Puzzle puzzle;
+
+    private final PermutationSpace space;
+
+    private final BitSet valid;
+
+    private final int count;
+
+    private ValidityBitmap(Puzzle puzzle, PermutationSpace space, BitSet valid) {
+        this.puzzle = puzzle;
+        this.space = space;
+        this.valid = valid;
+        this.count = valid.cardinality();
+    }
+
+    /**
+     * Builds the bitmap of a puzzle from its complete solution set.
+     *
+     * @param puzzle The puzzle
+     * @param solutions Every solution of the puzzle
+     * @return The bitmap
+     */
+    public static ValidityBitmap build(Puzzle puzzle, List<int[]> solutions) {
+        PermutationSpace space = PermutationSpace.of(puzzle);
+        BatchValidator.Batch batch = puzzle.getValidator().newBatch(solutions.size());
+        solutions.forEach(batch::add);
+        boolean[] correct = batch.validate();
+
+        BitSet valid = new BitSet(space.size());
+        for (int i = 0; i < correct.length; i++) {
+            int rank = space.rank(solutions.get(i));
+            if (rank < 0 || !correct[i]) {
+                throw new IllegalArgumentException("Not a solution of puzzle '" + puzzle.getId() + "'");
+            }
+            valid.set(rank);
+        }
+        return new ValidityBitmap(puzzle, space, valid);
+    }
+
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    public PermutationSpace getSpace() {
+        return space;
+    }
+
+    public boolean isSolution(int[] numbers) {
+        int rank = space.rank(numbers);
+        return rank >= 0 && valid.get(rank);
+    }
+
+    public boolean isSolution(List<Integer> numbers) {
+        int rank = space.rank(numbers);
+        return rank >= 0 && valid.get(rank);
+    }
+
+    public boolean isValidRank(int rank) {
+        return rank >= 0 && valid.get(rank);
+    }
+
+    /**
+     * @param fromRank The first rank to consider
+     * @return The lowest valid rank at or after {@code fromRank}, or -1 if there is none
+     */
+    public int nextValidRank(int fromRank) {
+        return valid.nextSetBit(Math.max(0, fromRank));
+    }
+
+    /**
+     * The valid ranks in ascending order, which is also lexicographic grid order.
+     */
+    public IntStream validRanks() {
+        return valid.stream();
+    }
+
+    /**
+     * Number of solutions.
+     */
+    public int count() {
+        return count;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.game_back.solution.models;
+
+import com.example.game_back.solution.solvers.SearchProgress;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A solution generation running in the background, with its live progress.
+ * <p>
+ * Counters may be read from any thread while the job runs. Status changes are synchronized so
+ * a cancellation cannot be lost between a job being picked up and starting.
+ */
+public class GenerationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+
+    private final String puzzleId;
+
+    private final SearchProgress searchProgress = new SearchProgress();
+
+    private final AtomicLong rowsPersisted = new AtomicLong();
+
+    private Status status = Status.QUEUED;
+
+    private GenerationResult result;
+
+    private String error;
+
+    public GenerationJob(String id, String puzzleId) {
+        this.id = id;
+        this.puzzleId = puzzleId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPuzzleId() {
+        return puzzleId;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public long getNodesVisited() {
+        return searchProgress.getNodesVisited();
+    }
+
+    public long getNodesPruned() {
+        return searchProgress.getNodesPruned();
+    }
+
+    public long getSolutionsFound() {
+        return searchProgress.getSolutionsFound();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    /**
+     * @return The summary of the run, or null until the job has succeeded
+     */
+    public synchronized GenerationResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return Why the job failed, or null unless it has failed
+     */
+    public synchronized String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public SearchProgress getSearchProgress() {
+        return searchProgress;
+    }
+
+    @JsonIgnore
+    public boolean isCancelled() {
+        return searchProgress.isCancelled();
+    }
+
+    public void addRowsPersisted(int rows) {
+        rowsPersisted.addAndGet(rows);
+    }
+
+    /**
+     * Requests cancellation. A queued job is cancelled at once; a running job stops at its next
+     * checkpoint.
+     *
+     * @return false if the job had already finished
+     */
+    public synchronized boolean cancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        searchProgress.cancel();
+        if (status == Status.QUEUED) {
+            status = Status.CANCELLED;
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the job was cancelled while queued and must not run
+     */
+    public synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        return true;
+    }
+
+    public synchronized void markSucceeded(GenerationResult result) {
+        this.result = result;
+        this.status = Status.SUCCEEDED;
+    }
+
+    public synchronized void markCancelled() {
+        this.status = Status.CANCELLED;
+    }
+
+    public synchronized void markFailed(String error) {
+        this.error = error;
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.game_back.solution.models;
+
+/**
+ * Summary of one solution generation run.
+ *
+ * @param puzzleId The puzzle that was solved
+ * @param calculationTimeMs Time spent searching and saving, in milliseconds
+ * @param totalSolutions Number of solutions saved
+ * @param solverTimeMs Time spent searching, in milliseconds
+ * @param persistenceTimeMs Time spent deleting the previous solutions and saving the new ones,
+ *                          in milliseconds. Saving overlaps the search, so the two times may
+ *                          add up to more than {@code calculationTimeMs}
+ */
+public record GenerationResult(String puzzleId, long calculationTimeMs, int totalSolutions,
+                               long solverTimeMs, long persistenceTimeMs) {
+}
@@ -0,0 +1,16 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * What a partially filled grid can still become.
+ *
+ * @param puzzleId The puzzle the grid belongs to
+ * @param completions Number of solutions agreeing with the filled cells
+ * @param viableDigits Per cell, the digits it holds in at least one of those solutions; empty for
+ *                     every cell when there are none
+ * @param firstCompletions The first of those solutions in search order, as many as requested
+ */
+public record Hint(String puzzleId, long completions, List<List<Integer>> viableDigits,
+                   List<List<Integer>> firstCompletions) {
+}
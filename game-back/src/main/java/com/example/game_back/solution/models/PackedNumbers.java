@@ -0,0 +1,97 @@
+package com.example.game_back.solution.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Packs a grid of up to 14 numbers in the range 0..15 into one {@code long}: four bits per
+ * number, the first number in the most significant nibble, and the grid length in bits 56..59.
+ * <p>
+ * Packed values of the same length sort in lexicographic grid order.
+ */
+public final class PackedNumbers {
+
+    public static final int MAX_LENGTH = 14;
+
+    public static final int MAX_VALUE = 15;
+
+    private static final int LENGTH_SHIFT = 56;
+
+    private PackedNumbers() {
+    }
+
+    /**
+     * @return true if every number is present and in range, and there are at most 14 of them
+     */
+    public static boolean isPackable(List<Integer> numbers) {
+        if (numbers == null || numbers.size() > MAX_LENGTH) {
+            return false;
+        }
+        for (Integer number : numbers) {
+            if (number == null || number < 0 || number > MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the numbers are not {@linkplain #isPackable(List) packable}
+     */
+    public static long pack(List<Integer> numbers) {
+        if (!isPackable(numbers)) {
+            throw new IllegalArgumentException("Cannot pack " + numbers);
+        }
+
+        long packed = 0;
+        for (int number : numbers) {
+            packed = (packed << 4) | number;
+        }
+        return packed | ((long) numbers.size() << LENGTH_SHIFT);
+    }
+
+    public static long pack(int[] numbers) {
+        long packed = 0;
+        for (int number : numbers) {
+            if (number < 0 || number > MAX_VALUE) {
+                throw new IllegalArgumentException("Cannot pack " + number);
+            }
+            packed = (packed << 4) | number;
+        }
+        return packed | ((long) numbers.length << LENGTH_SHIFT);
+    }
+
+    public static int length(long packed) {
+        return (int) (packed >>> LENGTH_SHIFT) & 0xF;
+    }
+
+    /**
+     * @param position Zero-based position, below {@link #length(long)}
+     * @return The number at that position
+     */
+    public static int get(long packed, int position) {
+        return (int) (packed >>> (4 * (length(packed) - 1 - position))) & 0xF;
+    }
+
+    /**
+     * @return The numbers as an unmodifiable list
+     */
+    public static List<Integer> unpack(long packed) {
+        int length = length(packed);
+        List<Integer> numbers = new ArrayList<>(length);
+        for (int i = length - 1; i >= 0; i--) {
+            numbers.add((int) (packed >>> (4 * i)) & 0xF);
+        }
+        return Collections.unmodifiableList(numbers);
+    }
+
+    public static int[] unpackToArray(long packed) {
+        int length = length(packed);
+        int[] numbers = new int[length];
+        for (int i = 0; i < length; i++) {
+            numbers[i] = (int) (packed >>> (4 * (length - 1 - i))) & 0xF;
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.game_back.solution.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Stores a solution's numbers in a single {@code BIGINT} column using {@link PackedNumbers}.
+ */
+@Converter
+public class PackedNumbersConverter implements AttributeConverter<List<Integer>, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(List<Integer> numbers) {
+        return numbers == null ? null : PackedNumbers.pack(numbers);
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(Long packed) {
+        return packed == null ? null : PackedNumbers.unpack(packed);
+    }
+}
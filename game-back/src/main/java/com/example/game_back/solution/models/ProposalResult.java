@@ -0,0 +1,21 @@
+package com.example.game_back.solution.models;
+
+/**
+ * Outcome of one proposal of a batch.
+ *
+ * @param id The id of the stored solution holding the proposed numbers
+ * @param correct Whether the proposal solves the puzzle
+ * @param duplicateOf The id of the solution the proposal duplicates, stored before the batch or
+ *                    created for an earlier proposal of the same batch; null if the proposal was
+ *                    stored as a new solution
+ */
+public record ProposalResult(long id, boolean correct, Long duplicateOf) {
+
+    public static ProposalResult created(long id, boolean correct) {
+        return new ProposalResult(id, correct, null);
+    }
+
+    public static ProposalResult duplicate(long id, boolean correct) {
+        return new ProposalResult(id, correct, id);
+    }
+}
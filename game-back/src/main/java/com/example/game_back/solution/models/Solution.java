@@ -1,57 +1,80 @@
 package com.example.game_back.solution.models;
 
+import com.example.game_back.solution.equations.Puzzle;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Solution.KEY_CONSTRAINT,
+        columnNames = {"puzzle_id", "packed_numbers"}))
 @Data
 @NoArgsConstructor
 public class Solution {
+
+    /**
+     * A puzzle stores each grid at most once; the constraint's index also serves duplicate lookups.
+     */
+    public static final String KEY_CONSTRAINT = "uk_solution_puzzle_numbers";
+
+    /**
+     * Ids are reserved {@value #ID_ALLOCATION_SIZE} at a time from {@code solution_seq}, so
+     * Hibernate can batch inserts instead of reading back an identity value per row.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solution_seq")
+    @SequenceGenerator(name = "solution_seq", sequenceName = "solution_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @ElementCollection
-    @OrderColumn
+    @Convert(converter = PackedNumbersConverter.class)
+    @Column(name = "packed_numbers")
     private List<Integer> numbers;
 
     private boolean correct;
 
+    private String puzzleId = Puzzle.CLASSIC_ID;
+
     public Solution(Long id, List<Integer> numbers) {
         this.id = id;
         this.numbers = numbers;
         this.correct = isValid();
     }
 
+    public Solution(Long id, String puzzleId, List<Integer> numbers, boolean correct) {
+        this.id = id;
+        this.puzzleId = puzzleId;
+        this.numbers = numbers;
+        this.correct = correct;
+    }
+
+    /**
+     * Checks the numbers against the classic puzzle equation. Solutions of other puzzles are
+     * validated by the service through their {@link Puzzle}.
+     */
     @JsonIgnore
     public boolean isValid() {
-        if (numbers.size() != 9) {
+        if (numbers.size() != SolutionValidator.SIZE) {
             return false;
         }
 
-        int n1 = numbers.get(0);
-        int n2 = numbers.get(1);
-        int n3 = numbers.get(2);
-        int n4 = numbers.get(3);
-        int n5 = numbers.get(4);
-        int n6 = numbers.get(5);
-        int n7 = numbers.get(6);
-        int n8 = numbers.get(7);
-        int n9 = numbers.get(8);
-
-        // BigDecimal is used to avoid precision issues with float
-        BigDecimal result = BigDecimal.valueOf((n1 + 13.0 * n2 / n3 + n4 + 12 * n5 - n6 + (double)(n7 * n8) / n9));
-        
-        return result.equals(BigDecimal.valueOf(87.0));
+        int[] values = new int[SolutionValidator.SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = numbers.get(i);
+        }
+
+        return SolutionValidator.isValid(values);
     }
 }
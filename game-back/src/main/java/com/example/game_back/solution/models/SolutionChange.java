@@ -0,0 +1,92 @@
+package com.example.game_back.solution.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A change to the solution set, published by the mutating methods of the solution service and
+ * pushed to the subscribers of the change feed. The type is sent as the name of the event, and
+ * only the fields that apply to it are serialized.
+ *
+ * @param type What happened
+ * @param id The id of the created, updated or deleted solution
+ * @param puzzleId The puzzle of the solution, or the generated puzzle
+ * @param numbers The numbers of the created or updated solution
+ * @param correct Whether the created or updated solution is correct; {@code false} for a clearing of
+ *                the incorrect solutions only
+ * @param count Number of solutions cleared, or generated for the puzzle
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SolutionChange(@JsonIgnore Type type, Long id, String puzzleId, List<Integer> numbers,
+                             Boolean correct, Long count) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /**
+         * Every solution, or every incorrect one, was deleted.
+         */
+        CLEARED,
+        /**
+         * The solutions of a puzzle were replaced by a generation; the client reloads that puzzle.
+         */
+        GENERATED,
+        /**
+         * Changes were dropped for this subscriber; the client reloads everything.
+         */
+        RESET;
+
+        public String getEventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static SolutionChange created(Solution solution) {
+        return of(Type.CREATED, solution);
+    }
+
+    public static SolutionChange updated(Solution solution) {
+        return of(Type.UPDATED, solution);
+    }
+
+    public static SolutionChange deleted(long id) {
+        return new SolutionChange(Type.DELETED, id, null, null, null, null);
+    }
+
+    public static SolutionChange cleared(long count) {
+        return new SolutionChange(Type.CLEARED, null, null, null, null, count);
+    }
+
+    public static SolutionChange clearedIncorrect(long count) {
+        return new SolutionChange(Type.CLEARED, null, null, null, false, count);
+    }
+
+    public static SolutionChange generated(String puzzleId, long count) {
+        return new SolutionChange(Type.GENERATED, null, puzzleId, null, null, count);
+    }
+
+    public static SolutionChange reset() {
+        return new SolutionChange(Type.RESET, null, null, null, null, null);
+    }
+
+    private static SolutionChange of(Type type, Solution solution) {
+        return new SolutionChange(type, solution.getId(), solution.getPuzzleId(), List.copyOf(solution.getNumbers()),
+                solution.isCorrect(), null);
+    }
+
+    public SolutionChange withType(Type type) {
+        return new SolutionChange(type, id, puzzleId, numbers, correct, count);
+    }
+
+    /**
+     * Whether every solution was deleted, which makes any earlier change moot.
+     */
+    @JsonIgnore
+    public boolean isFullClear() {
+        return type == Type.CLEARED && correct == null;
+    }
+}
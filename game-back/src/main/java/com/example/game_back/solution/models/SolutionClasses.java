@@ -0,0 +1,15 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * The distinct solutions of a puzzle up to its interchangeable cells: one canonical grid per
+ * class of solutions that only differ by swapping such cells.
+ *
+ * @param puzzleId The puzzle that was solved
+ * @param symmetry The groups of interchangeable cells, e.g. {@code {n1, n4} {n7, n8}}
+ * @param classSize Number of solutions each canonical grid stands for
+ * @param solutions The canonical grids, in lexicographic order
+ */
+public record SolutionClasses(String puzzleId, String symmetry, long classSize, List<List<Integer>> solutions) {
+}
@@ -0,0 +1,12 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * One keyset page of solutions in id order.
+ *
+ * @param solutions The solutions of the page
+ * @param nextCursor The id to continue after, or null if this is the last page
+ */
+public record SolutionPage(List<SolutionView> solutions, Long nextCursor) {
+}
@@ -0,0 +1,16 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * One keyset page of the solutions matching a query, in id order.
+ *
+ * @param puzzleId The puzzle whose solutions were queried
+ * @param query The query, normalised, e.g. {@code n1=1 & n5=5}
+ * @param total Number of solutions matching the query, over all pages
+ * @param solutions The solutions of the page
+ * @param nextCursor The id to continue after, or null if this is the last page
+ */
+public record SolutionQueryPage(String puzzleId, String query, long total, List<SolutionView> solutions,
+                                Long nextCursor) {
+}
@@ -0,0 +1,100 @@
+package com.example.game_back.solution.models;
+
+import java.math.BigInteger;
+
+/**
+ * Exact, allocation-free check of the puzzle equation
+ * {@code n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87}.
+ * <p>
+ * Both fractions are removed by multiplying through with {@code n3*n9}, so the check becomes
+ * {@code (n1 + n4 + 12*n5 - n6)*n3*n9 + 13*n2*n9 + n7*n8*n3 == 87*n3*n9} and runs entirely on
+ * primitive integers.
+ */
+public final class SolutionValidator {
+
+    public static final int SIZE = 9;
+
+    public static final int TARGET = 87;
+
+    /**
+     * Largest operand magnitude for which the cross-multiplied form cannot overflow a {@code long}.
+     */
+    private static final int MAX_FAST_OPERAND = 1 << 16;
+
+    private SolutionValidator() {
+    }
+
+    /**
+     * Checks the equation for the given nine operands.
+     * Operands are expected to stay within {@code ±65536}; a zero divisor is never valid.
+     *
+     * @return true if the operands satisfy the equation exactly
+     */
+    public static boolean isValid(int n1, int n2, int n3, int n4, int n5, int n6, int n7, int n8, int n9) {
+        if (n3 == 0 || n9 == 0) {
+            return false;
+        }
+
+        long denominator = (long) n3 * n9;
+        long numerator = (long) (n1 + n4 + 12 * n5 - n6) * denominator
+                + 13L * n2 * n9
+                + (long) n7 * n8 * n3;
+
+        return numerator == TARGET * denominator;
+    }
+
+    /**
+     * Checks the equation for an array of nine operands, such as the solver's working array.
+     *
+     * @param numbers The operands in grid order
+     * @return true if the array has nine entries that satisfy the equation exactly
+     */
+    public static boolean isValid(int[] numbers) {
+        if (numbers.length != SIZE) {
+            return false;
+        }
+
+        for (int number : numbers) {
+            if (number > MAX_FAST_OPERAND || number < -MAX_FAST_OPERAND) {
+                return isValidUnbounded(numbers);
+            }
+        }
+
+        return isValid(numbers[0], numbers[1], numbers[2], numbers[3], numbers[4],
+                numbers[5], numbers[6], numbers[7], numbers[8]);
+    }
+
+    /**
+     * Checks the equation for a grid packed by {@link PackedNumbers}.
+     *
+     * @param packed The packed grid
+     * @return true if the grid has nine digits that satisfy the equation exactly
+     */
+    public static boolean isValid(long packed) {
+        if (PackedNumbers.length(packed) != SIZE) {
+            return false;
+        }
+        return isValid(PackedNumbers.get(packed, 0), PackedNumbers.get(packed, 1), PackedNumbers.get(packed, 2),
+                PackedNumbers.get(packed, 3), PackedNumbers.get(packed, 4), PackedNumbers.get(packed, 5),
+                PackedNumbers.get(packed, 6), PackedNumbers.get(packed, 7), PackedNumbers.get(packed, 8));
+    }
+
+    private static boolean isValidUnbounded(int[] n) {
+        if (n[2] == 0 || n[8] == 0) {
+            return false;
+        }
+
+        BigInteger n3 = BigInteger.valueOf(n[2]);
+        BigInteger n9 = BigInteger.valueOf(n[8]);
+        BigInteger denominator = n3.multiply(n9);
+        BigInteger integerPart = BigInteger.valueOf(n[0])
+                .add(BigInteger.valueOf(n[3]))
+                .add(BigInteger.valueOf(12L * n[4]))
+                .subtract(BigInteger.valueOf(n[5]));
+        BigInteger numerator = integerPart.multiply(denominator)
+                .add(BigInteger.valueOf(13L * n[1]).multiply(n9))
+                .add(BigInteger.valueOf((long) n[6] * n[7]).multiply(n3));
+
+        return numerator.equals(BigInteger.valueOf(TARGET).multiply(denominator));
+    }
+}
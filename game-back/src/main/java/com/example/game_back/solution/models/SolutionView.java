@@ -0,0 +1,42 @@
+package com.example.game_back.solution.models;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Arrays;
+
+/**
+ * A solution as read by the API, serialized like {@link Solution}. Rows are read straight into
+ * views by {@link com.example.game_back.solution.repositories.SolutionViewRepository}, without
+ * loading or tracking entities. Views are shared by the caches, so the numbers must not be
+ * modified.
+ *
+ * @param id The id of the solution
+ * @param puzzleId The puzzle the solution belongs to
+ * @param numbers The numbers of the grid in position order
+ * @param correct Whether the grid solves the puzzle
+ */
+@JsonPropertyOrder({"id", "numbers", "correct", "puzzleId"})
+public record SolutionView(long id, String puzzleId, int[] numbers, boolean correct) {
+
+    public static SolutionView of(Solution solution) {
+        return new SolutionView(solution.getId(), solution.getPuzzleId(),
+                solution.getNumbers().stream().mapToInt(Integer::intValue).toArray(), solution.isCorrect());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SolutionView other && id == other.id && correct == other.correct
+                && puzzleId.equals(other.puzzleId) && Arrays.equals(numbers, other.numbers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "SolutionView[id=" + id + ", puzzleId=" + puzzleId + ", numbers=" + Arrays.toString(numbers)
+                + ", correct=" + correct + "]";
+    }
+}
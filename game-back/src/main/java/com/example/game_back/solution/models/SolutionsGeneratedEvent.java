@@ -0,0 +1,10 @@
+package com.example.game_back.solution.models;
+
+/**
+ * Published once a generation has replaced the solutions of a puzzle.
+ *
+ * @param puzzleId The puzzle that was solved
+ * @param totalSolutions Number of solutions now served for the puzzle
+ */
+public record SolutionsGeneratedEvent(String puzzleId, int totalSolutions) {
+}
@@ -0,0 +1,25 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * The targets a puzzle's expression reaches over every grid of its digit set, with the number of
+ * grids reaching each, i.e. the number of solutions the puzzle would have with that target.
+ *
+ * @param puzzleId The puzzle whose expression was evaluated
+ * @param expression The expression, the left-hand side of the puzzle's equation
+ * @param grids Number of grids with a value
+ * @param undefined Number of grids with a zero divisor, which reach no target
+ * @param targetCount Number of targets reached, before any limit
+ * @param targets The targets, in ascending order or by decreasing number of solutions
+ */
+public record TargetHistogram(String puzzleId, String expression, long grids, long undefined, int targetCount,
+                              List<Entry> targets) {
+
+    /**
+     * @param target The target, an integer or a reduced fraction such as {@code 173/2}
+     * @param solutions Number of grids reaching it
+     */
+    public record Entry(String target, long solutions) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.game_back.solution.models;
+
+import java.util.List;
+
+/**
+ * One page of the grids on which a puzzle's expression takes a given value: the solutions the
+ * puzzle would have with that target, in lexicographic order.
+ *
+ * @param puzzleId The puzzle whose expression was evaluated
+ * @param expression The expression, the left-hand side of the puzzle's equation
+ * @param target The target, normalised, e.g. {@code 87} or {@code 173/2}
+ * @param total Number of grids reaching the target, over all pages
+ * @param solutions The grids of the page
+ * @param nextCursor The cursor to continue after, or null if this is the last page
+ */
+public record TargetSolutions(String puzzleId, String expression, String target, long total,
+                              List<List<Integer>> solutions, Long nextCursor) {
+}
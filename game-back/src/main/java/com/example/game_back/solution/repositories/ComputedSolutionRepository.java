@@ -0,0 +1,255 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionView;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Read-only source of generated solutions, computed from each generated puzzle's
+ * {@link ValidityBitmap} instead of being stored as rows. A puzzle's solutions are the set ranks
+ * of its bitmap; nothing else is kept, so the 136 classic solutions cost no memory beyond the
+ * bitmap that validates proposals anyway.
+ * <p>
+ * Ids are derived from the rank: {@code ID_BASE + (slot << 32) + rank}, where the slot is the
+ * puzzle's position in the {@link PuzzleRegistry} (0 for the classic puzzle). They are stable
+ * across generations and restarts as long as the configured puzzles keep their order, and all of
+ * them are greater than any id the {@code solution_seq} sequence hands out, so a keyset walk
+ * visits the stored rows first and the computed solutions after them. Ids stay below 2^53, so
+ * JavaScript clients read them exactly.
+ * <p>
+ * Solutions are materialised as detached {@link Solution} objects when they are read. The
+ * repository is thread-safe; publishing a puzzle replaces its index atomically.
+ */
+@Component
+public class ComputedSolutionRepository {
+
+    /**
+     * Lowest computed id.
+     */
+    public static final long ID_BASE = 1L << 52;
+
+    private static final int RANK_BITS = 32;
+
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1;
+
+    private final Map<String, Integer> slots;
+
+    private final AtomicReferenceArray<ValidityBitmap> indexes;
+
+    public ComputedSolutionRepository(PuzzleRegistry puzzleRegistry) {
+        this.slots = new HashMap<>();
+        for (Puzzle puzzle : puzzleRegistry.getAll()) {
+            slots.put(puzzle.getId(), slots.size());
+        }
+        this.indexes = new AtomicReferenceArray<>(slots.size());
+    }
+
+    /**
+     * Whether an id belongs to a computed solution rather than a stored row.
+     */
+    public static boolean isComputedId(long id) {
+        return id >= ID_BASE;
+    }
+
+    /**
+     * Serves the solutions of the index's puzzle from now on, replacing any earlier index of it.
+     *
+     * @param index The validity bitmap of a registered puzzle
+     * @return The number of solutions published
+     * @throws IllegalArgumentException if the puzzle is not registered
+     */
+    public int publish(ValidityBitmap index) {
+        indexes.set(slotOf(index.getPuzzle().getId()), index);
+        return index.count();
+    }
+
+    /**
+     * Stops serving a puzzle's solutions.
+     *
+     * @param puzzleId The puzzle id
+     * @return The number of solutions no longer served
+     */
+    public int remove(String puzzleId) {
+        Integer slot = slots.get(puzzleId);
+        ValidityBitmap removed = slot == null ? null : indexes.getAndSet(slot, null);
+        return removed == null ? 0 : removed.count();
+    }
+
+    /**
+     * Stops serving every puzzle's solutions.
+     *
+     * @return The number of solutions no longer served
+     */
+    public long clear() {
+        long removed = 0;
+        for (int slot = 0; slot < indexes.length(); slot++) {
+            ValidityBitmap index = indexes.getAndSet(slot, null);
+            removed += index == null ? 0 : index.count();
+        }
+        return removed;
+    }
+
+    /**
+     * Whether the solutions of a puzzle are served.
+     */
+    public boolean isPublished(String puzzleId) {
+        Integer slot = slots.get(puzzleId);
+        return slot != null && indexes.get(slot) != null;
+    }
+
+    /**
+     * The indexes of the puzzles whose solutions are served, in slot order.
+     */
+    public List<ValidityBitmap> getPublished() {
+        List<ValidityBitmap> published = new ArrayList<>();
+        for (int slot = 0; slot < indexes.length(); slot++) {
+            ValidityBitmap index = indexes.get(slot);
+            if (index != null) {
+                published.add(index);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * The index of a puzzle, if its solutions are served.
+     */
+    public Optional<ValidityBitmap> getIndex(String puzzleId) {
+        Integer slot = slots.get(puzzleId);
+        return slot == null ? Optional.empty() : Optional.ofNullable(indexes.get(slot));
+    }
+
+    /**
+     * The id of the solution at a rank of a puzzle's index.
+     *
+     * @throws IllegalArgumentException if the puzzle is not registered
+     */
+    public long getId(String puzzleId, int rank) {
+        return idOf(slotOf(puzzleId), rank);
+    }
+
+    /**
+     * Number of solutions served over all puzzles.
+     */
+    public long count() {
+        long count = 0;
+        for (int slot = 0; slot < indexes.length(); slot++) {
+            ValidityBitmap index = indexes.get(slot);
+            count += index == null ? 0 : index.count();
+        }
+        return count;
+    }
+
+    public Optional<Solution> findById(long id) {
+        if (!isComputedId(id)) {
+            return Optional.empty();
+        }
+        long slot = (id - ID_BASE) >>> RANK_BITS;
+        long rank = id & RANK_MASK;
+        if (slot >= indexes.length() || rank > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+
+        ValidityBitmap index = indexes.get((int) slot);
+        return index != null && index.isValidRank((int) rank)
+                ? Optional.of(toSolution(index, (int) slot, (int) rank))
+                : Optional.empty();
+    }
+
+    /**
+     * Looks up a served solution by its grid with one rank computation.
+     *
+     * @param puzzleId The puzzle the solution belongs to
+     * @param numbers The grid
+     * @return The id of the solution, or -1 if the grid is not a served solution of the puzzle
+     */
+    public long findIdByPuzzleIdAndNumbers(String puzzleId, List<Integer> numbers) {
+        Integer slot = slots.get(puzzleId);
+        ValidityBitmap index = slot == null ? null : indexes.get(slot);
+        if (index == null) {
+            return -1;
+        }
+        int rank = index.getSpace().rank(numbers);
+        return index.isValidRank(rank) ? idOf(slot, rank) : -1;
+    }
+
+    public Optional<Solution> findByPuzzleIdAndNumbers(String puzzleId, List<Integer> numbers) {
+        long id = findIdByPuzzleIdAndNumbers(puzzleId, numbers);
+        return id < 0 ? Optional.empty() : findById(id);
+    }
+
+    /**
+     * Keyset page: the first {@code limit} served solutions with an id greater than {@code after},
+     * in id order. The next valid rank is found by scanning the bitmap, so a page costs no more
+     * than its solutions plus the gaps between them.
+     *
+     * @param after Only solutions with a greater id are returned
+     * @param limit The maximum number of solutions to return
+     * @return The solutions in id order
+     */
+    public List<SolutionView> findPage(long after, int limit) {
+        List<SolutionView> page = new ArrayList<>(Math.min(limit, 1024));
+        long from = Math.max(after, ID_BASE - 1) + 1;
+        long startSlot = (from - ID_BASE) >>> RANK_BITS;
+        long startRank = from & RANK_MASK;
+
+        for (long slot = startSlot; slot < indexes.length() && page.size() < limit; slot++) {
+            ValidityBitmap index = indexes.get((int) slot);
+            if (index == null || (slot == startSlot && startRank > Integer.MAX_VALUE)) {
+                continue;
+            }
+            int rank = index.nextValidRank(slot == startSlot ? (int) startRank : 0);
+            while (rank >= 0 && page.size() < limit) {
+                page.add(toView(index, (int) slot, rank));
+                rank = index.nextValidRank(rank + 1);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Passes every served solution to {@code action}, in id order.
+     */
+    public void forEach(Consumer<SolutionView> action) {
+        for (int slot = 0; slot < indexes.length(); slot++) {
+            ValidityBitmap index = indexes.get(slot);
+            if (index != null) {
+                int currentSlot = slot;
+                index.validRanks().forEach(rank -> action.accept(toView(index, currentSlot, rank)));
+            }
+        }
+    }
+
+    private int slotOf(String puzzleId) {
+        Integer slot = slots.get(puzzleId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Unknown puzzle '" + puzzleId + "'");
+        }
+        return slot;
+    }
+
+    private static long idOf(int slot, int rank) {
+        return ID_BASE + ((long) slot << RANK_BITS) + rank;
+    }
+
+    private static Solution toSolution(ValidityBitmap index, int slot, int rank) {
+        List<Integer> numbers = Arrays.stream(index.getSpace().unrank(rank)).boxed().toList();
+        return new Solution(idOf(slot, rank), index.getPuzzle().getId(), numbers, true);
+    }
+
+    private static SolutionView toView(ValidityBitmap index, int slot, int rank) {
+        return new SolutionView(idOf(slot, rank), index.getPuzzle().getId(), index.getSpace().unrank(rank), true);
+    }
+}
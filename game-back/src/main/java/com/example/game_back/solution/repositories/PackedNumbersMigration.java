@@ -0,0 +1,156 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves solutions stored by the former {@code @ElementCollection} mapping (one
+ * {@code solution_numbers} row per number) into the packed {@code solution.packed_numbers}
+ * column, then drops the side table. Does nothing when the side table does not exist.
+ * <p>
+ * If any solution holds a missing number or one that cannot be packed, nothing is migrated and
+ * startup fails, leaving the side table in place. Solutions repeating the grid of the same puzzle
+ * would break the unique key on puzzle and grid, so only the one with the lowest id is kept.
+ */
+@Slf4j
+@Component
+public class PackedNumbersMigration implements ApplicationRunner {
+
+    static final String LEGACY_TABLE = "SOLUTION_NUMBERS";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PackedNumbersMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    /**
+     * @return The number of solutions migrated
+     * @throws IllegalStateException if the numbers of a solution cannot be packed
+     */
+    @Transactional
+    public int migrate() {
+        if (!legacyTableExists()) {
+            return 0;
+        }
+
+        Map<Long, List<Integer>> numbersById = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT solution_id, numbers FROM solution_numbers ORDER BY solution_id, numbers_order",
+                (ResultSet rs) -> {
+                    numbersById.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                            .add(rs.getObject(2, Integer.class));
+                });
+
+        Map<Long, Long> packedById = new LinkedHashMap<>();
+        List<Long> unpackable = new ArrayList<>();
+        numbersById.forEach((id, numbers) -> {
+            if (PackedNumbers.isPackable(numbers)) {
+                packedById.put(id, PackedNumbers.pack(numbers));
+            } else {
+                unpackable.add(id);
+            }
+        });
+        if (!unpackable.isEmpty()) {
+            throw new IllegalStateException("Solutions " + unpackable + " hold missing numbers or numbers outside 0.."
+                    + PackedNumbers.MAX_VALUE + "; fix them in " + LEGACY_TABLE + " before migrating");
+        }
+
+        List<Long> duplicates = findDuplicates(packedById);
+        if (!duplicates.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM solution WHERE id = ?",
+                    duplicates.stream().map(id -> new Object[]{id}).toList());
+            duplicates.forEach(packedById::remove);
+            log.warn("Deleted solutions {}, which repeat the grid of a solution with a lower id", duplicates);
+        }
+
+        List<Object[]> updates = new ArrayList<>(packedById.size());
+        packedById.forEach((id, packed) -> updates.add(new Object[]{packed, id}));
+        jdbcTemplate.batchUpdate("UPDATE solution SET packed_numbers = ? WHERE id = ?", updates);
+        jdbcTemplate.update("UPDATE solution SET puzzle_id = ? WHERE puzzle_id IS NULL", Puzzle.CLASSIC_ID);
+        jdbcTemplate.execute("DROP TABLE solution_numbers");
+        restartIdSequence();
+
+        log.info("Migrated {} solutions to packed numbers", updates.size());
+        return updates.size();
+    }
+
+    /**
+     * Finds the solutions that would break the unique key on puzzle and grid once migrated, with
+     * a legacy solution without a puzzle belonging to the classic one. Of each set of solutions
+     * sharing a grid, whether legacy or already packed, the one with the lowest id is kept.
+     *
+     * @param packedById The packed grids of the legacy solutions
+     * @return The ids of the other solutions of each set, in ascending order
+     */
+    private List<Long> findDuplicates(Map<Long, Long> packedById) {
+        Map<Long, GridKey> keys = new HashMap<>();
+        jdbcTemplate.query("SELECT id, puzzle_id, packed_numbers FROM solution", (ResultSet rs) -> {
+            long id = rs.getLong(1);
+            Long packed = packedById.containsKey(id) ? packedById.get(id) : rs.getObject(3, Long.class);
+            if (packed != null) {
+                String puzzleId = rs.getString(2);
+                keys.put(id, new GridKey(puzzleId == null ? Puzzle.CLASSIC_ID : puzzleId, packed));
+            }
+        });
+
+        Map<GridKey, Long> lowestIds = new HashMap<>();
+        keys.forEach((id, key) -> lowestIds.merge(key, id, Math::min));
+        return keys.entrySet().stream()
+                .filter(entry -> !lowestIds.get(entry.getValue()).equals(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    private record GridKey(String puzzleId, long packedNumbers) {
+    }
+
+    /**
+     * Legacy rows got their ids from an identity column, so the id sequence is moved past them
+     * (leaving room for the block Hibernate reserves on its first call).
+     */
+    private void restartIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM solution", Long.class);
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE solution_seq RESTART WITH "
+                    + (maxId + Solution.ID_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    private boolean legacyTableExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toLowerCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, null)) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
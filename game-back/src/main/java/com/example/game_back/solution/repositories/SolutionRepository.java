@@ -1,9 +1,119 @@
 package com.example.game_back.solution.repositories;
 
+import com.example.game_back.solution.models.PackedNumbers;
 import com.example.game_back.solution.models.Solution;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SolutionRepository extends JpaRepository<Solution, Long> {
+
+    /**
+     * Deletes the solutions of a puzzle with one set-based statement. The persistence context is
+     * flushed before and cleared after, so no stale entity survives the delete.
+     *
+     * @param puzzleId The puzzle whose solutions are deleted
+     * @return The number of rows deleted
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Solution s WHERE s.puzzleId = :puzzleId")
+    int deleteByPuzzleId(@Param("puzzleId") String puzzleId);
+
+    /**
+     * Deletes the correct or incorrect solutions of a puzzle, like {@link #deleteByPuzzleId(String)}.
+     *
+     * @param puzzleId The puzzle whose solutions are deleted
+     * @param correct true to delete correct solutions, false to delete incorrect ones
+     * @return The number of rows deleted
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Solution s WHERE s.puzzleId = :puzzleId AND s.correct = :correct")
+    int deleteByPuzzleIdAndCorrect(@Param("puzzleId") String puzzleId, @Param("correct") boolean correct);
+
+    /**
+     * Deletes the solutions with the given correctness flag, like {@link #deleteByPuzzleId(String)}.
+     *
+     * @param correct true to delete correct solutions, false to delete incorrect ones
+     * @return The number of rows deleted
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Solution s WHERE s.correct = :correct")
+    int deleteByCorrect(@Param("correct") boolean correct);
+
+    /**
+     * Deletes every solution with one set-based statement, unlike {@link #deleteAll()} which
+     * loads and removes the entities one at a time.
+     *
+     * @return The number of rows deleted
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Solution s")
+    int deleteAllInBulk();
+
+    /**
+     * Looks up a solution through the unique {@code (puzzle_id, packed_numbers)} index.
+     *
+     * @param puzzleId The puzzle the solution belongs to
+     * @param packedNumbers The numbers encoded with {@link PackedNumbers#pack(List)}
+     * @return The solution, or empty if none has these numbers
+     */
+    @Query(value = "SELECT * FROM solution WHERE puzzle_id = ?1 AND packed_numbers = ?2", nativeQuery = true)
+    Optional<Solution> findByPuzzleIdAndPackedNumbers(String puzzleId, long packedNumbers);
+
+    /**
+     * Key columns of a stored solution, read without loading the entity.
+     */
+    interface StoredKey {
+
+        long getId();
+
+        long getPackedNumbers();
+
+        boolean getCorrect();
+    }
+
+    /**
+     * Reads the key columns of every stored solution of a puzzle, without loading the entities.
+     *
+     * @param puzzleId The puzzle the solutions belong to
+     * @return The keys in id order
+     */
+    @Query(value = "SELECT id, packed_numbers AS packedNumbers, correct FROM solution WHERE puzzle_id = ?1 "
+            + "ORDER BY id", nativeQuery = true)
+    List<StoredKey> findKeysByPuzzleId(String puzzleId);
+
+    /**
+     * Finds which of many packed grids are already stored, with one query. The grids are bound as
+     * a single array and joined to the table, so each one is an index lookup on the unique key;
+     * H2 matches a long {@code IN} list of parameters row by row instead.
+     *
+     * @param puzzleId The puzzle the solutions belong to
+     * @param packedNumbers The packed grids to look up
+     * @return The keys of the stored solutions, in no particular order
+     */
+    @Query(value = "SELECT s.id AS id, s.packed_numbers AS packedNumbers, s.correct AS correct "
+            + "FROM UNNEST(:packedNumbers) AS k(packed_numbers) "
+            + "JOIN solution s ON s.puzzle_id = :puzzleId AND s.packed_numbers = k.packed_numbers", nativeQuery = true)
+    List<StoredKey> findKeysByPuzzleIdAndPackedNumbersIn(@Param("puzzleId") String puzzleId,
+                                                         @Param("packedNumbers") long[] packedNumbers);
+
+    /**
+     * @param puzzleId The puzzle the solution belongs to
+     * @param numbers The numbers of the solution, which must be {@linkplain PackedNumbers#isPackable packable}
+     * @return The solution, or empty if none has these numbers
+     */
+    default Optional<Solution> findByPuzzleIdAndNumbers(String puzzleId, List<Integer> numbers) {
+        return findByPuzzleIdAndPackedNumbers(puzzleId, PackedNumbers.pack(numbers));
+    }
 }
@@ -0,0 +1,243 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.models.PackedNumbers;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * The solution set written to a binary file, so a restart can serve it without generating and
+ * inserting it again.
+ * <p>
+ * The file starts with a 32-byte header: the magic {@code GSNP}, the format {@link #VERSION} (a
+ * short), two reserved bytes, the number of sections (an int), the payload length (a long) and
+ * the CRC32C of the payload (a long), followed by four reserved bytes. The payload is a list of
+ * sections, each a kind byte, the puzzle id (a length byte and UTF-8 bytes), a record count (an
+ * int) and the records:
+ * <ul>
+ *     <li>a generated section holds one {@linkplain PackedNumbers packed} grid (a long) per
+ *     solution of the puzzle;</li>
+ *     <li>a rows section holds one stored row per record: its id (a long), then its packed grid
+ *     with the correctness flag in the otherwise unused top bit (a long).</li>
+ * </ul>
+ * All numbers are big-endian. The file is read through a memory-mapped {@link FileChannel}: the
+ * checksum and the records are read straight from the mapped pages, without copying the file to
+ * the heap first. It is written to a temporary file that is then moved over the previous one, so
+ * a crash while writing leaves the previous snapshot in place.
+ */
+public final class SolutionSnapshot {
+
+    public static final int MAGIC = 0x47534E50;
+
+    public static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    private static final byte GENERATED = 1;
+
+    private static final byte ROWS = 2;
+
+    private static final long CORRECT_FLAG = 1L << 63;
+
+    private SolutionSnapshot() {
+    }
+
+    /**
+     * A stored row, as kept in the snapshot.
+     *
+     * @param id The row id
+     * @param puzzleId The puzzle the row belongs to
+     * @param packedNumbers The grid, {@linkplain PackedNumbers packed}
+     * @param correct The row's correctness flag
+     */
+    public record Row(long id, String puzzleId, long packedNumbers, boolean correct) {
+    }
+
+    /**
+     * What a snapshot holds.
+     *
+     * @param generated The packed solutions of each generated puzzle, by puzzle id
+     * @param rows The stored rows, in id order
+     */
+    public record Contents(Map<String, long[]> generated, List<Row> rows) {
+    }
+
+    /**
+     * Writes a snapshot, replacing the file atomically where the file system allows it.
+     *
+     * @param path The snapshot file; its directory is created if needed
+     * @param contents The solutions to write
+     * @return The size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(Path path, Contents contents) throws IOException {
+        Map<String, List<Row>> rowsByPuzzle = new LinkedHashMap<>();
+        for (Row row : contents.rows()) {
+            rowsByPuzzle.computeIfAbsent(row.puzzleId(), id -> new ArrayList<>()).add(row);
+        }
+
+        long payloadSize = 0;
+        for (Map.Entry<String, long[]> section : contents.generated().entrySet()) {
+            payloadSize += sectionHeaderSize(section.getKey()) + 8L * section.getValue().length;
+        }
+        for (Map.Entry<String, List<Row>> section : rowsByPuzzle.entrySet()) {
+            payloadSize += sectionHeaderSize(section.getKey()) + 16L * section.getValue().size();
+        }
+        if (HEADER_SIZE + payloadSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + payloadSize + " bytes is too large");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (int) payloadSize);
+        buffer.position(HEADER_SIZE);
+        for (Map.Entry<String, long[]> section : contents.generated().entrySet()) {
+            putSectionHeader(buffer, GENERATED, section.getKey(), section.getValue().length);
+            for (long packed : section.getValue()) {
+                buffer.putLong(packed);
+            }
+        }
+        for (Map.Entry<String, List<Row>> section : rowsByPuzzle.entrySet()) {
+            putSectionHeader(buffer, ROWS, section.getKey(), section.getValue().size());
+            for (Row row : section.getValue()) {
+                buffer.putLong(row.id());
+                buffer.putLong(row.correct() ? row.packedNumbers() | CORRECT_FLAG : row.packedNumbers());
+            }
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.array(), HEADER_SIZE, (int) payloadSize);
+        buffer.putInt(0, MAGIC)
+                .putShort(4, VERSION)
+                .putInt(8, contents.generated().size() + rowsByPuzzle.size())
+                .putLong(12, payloadSize)
+                .putLong(20, checksum.getValue());
+        buffer.position(0);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return buffer.capacity();
+    }
+
+    /**
+     * Reads a snapshot through a memory-mapped channel, checking its header and checksum first.
+     *
+     * @param path The snapshot file
+     * @return The solutions it holds
+     * @throws java.nio.file.NoSuchFileException if the file does not exist
+     * @throws IOException if the file cannot be read, or is not a valid snapshot of this version
+     */
+    public static Contents read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " has an invalid size of " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("File " + path + " is not a solution snapshot");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Snapshot " + path + " has version " + buffer.getShort(4) + ", expected " + VERSION);
+        }
+        int sectionCount = buffer.getInt(8);
+        long payloadSize = buffer.getLong(12);
+        if (payloadSize != buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("Snapshot " + path + " is truncated");
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(HEADER_SIZE, (int) payloadSize));
+        if (checksum.getValue() != buffer.getLong(20)) {
+            throw new IOException("Snapshot " + path + " fails its checksum");
+        }
+
+        try {
+            return readSections(buffer.position(HEADER_SIZE), sectionCount);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot " + path + " has malformed sections", e);
+        }
+    }
+
+    private static Contents readSections(ByteBuffer buffer, int sectionCount) {
+        Map<String, long[]> generated = new LinkedHashMap<>();
+        List<Row> rows = new ArrayList<>();
+        for (int section = 0; section < sectionCount; section++) {
+            byte kind = buffer.get();
+            byte[] id = new byte[buffer.get() & 0xFF];
+            buffer.get(id);
+            String puzzleId = new String(id, StandardCharsets.UTF_8);
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / 8) {
+                throw new IllegalArgumentException("Invalid record count " + count);
+            }
+
+            if (kind == GENERATED) {
+                long[] solutions = new long[count];
+                buffer.asLongBuffer().get(solutions);
+                buffer.position(buffer.position() + 8 * count);
+                generated.put(puzzleId, solutions);
+            } else if (kind == ROWS) {
+                for (int i = 0; i < count; i++) {
+                    long rowId = buffer.getLong();
+                    long packed = buffer.getLong();
+                    rows.add(new Row(rowId, puzzleId, packed & ~CORRECT_FLAG, (packed & CORRECT_FLAG) != 0));
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown section kind " + kind);
+            }
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException(buffer.remaining() + " bytes after the last section");
+        }
+        return new Contents(generated, rows);
+    }
+
+    private static int sectionHeaderSize(String puzzleId) {
+        return 1 + 1 + puzzleIdBytes(puzzleId).length + 4;
+    }
+
+    private static void putSectionHeader(ByteBuffer buffer, byte kind, String puzzleId, int count) {
+        byte[] id = puzzleIdBytes(puzzleId);
+        buffer.put(kind).put((byte) id.length).put(id).putInt(count);
+    }
+
+    private static byte[] puzzleIdBytes(String puzzleId) {
+        byte[] id = puzzleId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > 255) {
+            throw new IllegalArgumentException("Puzzle id '" + puzzleId + "' is too long for a snapshot");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.SolutionView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read path of the stored solutions: each query is a single SQL statement over the
+ * {@code solution} table whose rows are mapped straight to {@link SolutionView}s, unpacking the
+ * numbers into an {@code int} array. No entity is created, so nothing is tracked by the
+ * persistence context, snapshotted for dirty checking or flushed.
+ * <p>
+ * Queries run in read-only transactions, which also switch the Hibernate session of the
+ * transaction, if any, to manual flushing.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SolutionViewRepository {
+
+    /**
+     * Rows fetched per round trip when streaming.
+     */
+    static final int FETCH_SIZE = 500;
+
+    private static final String COLUMNS = "SELECT id, puzzle_id, packed_numbers, correct FROM solution";
+
+    private static final RowMapper<SolutionView> ROW_MAPPER = (rs, rowNum) -> toView(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SolutionViewRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<SolutionView> findById(long id) {
+        return jdbcTemplate.query(COLUMNS + " WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Keyset page: the first {@code limit} solutions with an id greater than {@code after}.
+     *
+     * @param correct If not null, only solutions with this correctness flag are returned
+     */
+    public List<SolutionView> findPage(long after, Boolean correct, int limit) {
+        if (correct == null) {
+            return jdbcTemplate.query(COLUMNS + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    ROW_MAPPER, after, limit);
+        }
+        return jdbcTemplate.query(COLUMNS + " WHERE id > ? AND correct = ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                ROW_MAPPER, after, correct, limit);
+    }
+
+    /**
+     * Passes every solution, in id order, to {@code action} while the rows are read from a
+     * database cursor, {@value #FETCH_SIZE} per round trip.
+     *
+     * @param correct If not null, only solutions with this correctness flag are passed
+     */
+    public void forEach(Boolean correct, Consumer<SolutionView> action) {
+        String sql = COLUMNS + (correct == null ? "" : " WHERE correct = ?") + " ORDER BY id";
+        jdbcTemplate.query(sql, statement -> {
+            statement.setFetchSize(FETCH_SIZE);
+            if (correct != null) {
+                statement.setBoolean(1, correct);
+            }
+        }, (ResultSet rs) -> action.accept(toView(rs)));
+    }
+
+    private static SolutionView toView(ResultSet rs) throws SQLException {
+        return new SolutionView(rs.getLong(1), rs.getString(2), PackedNumbers.unpackToArray(rs.getLong(3)),
+                rs.getBoolean(4));
+    }
+}
@@ -1,156 +1,589 @@
 package com.example.game_back.solution.services;
 
+import com.example.game_back.solution.config.PersistenceProperties;
+import com.example.game_back.solution.equations.BatchValidator;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.PermutationSpace;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.models.GenerationResult;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.ProposalResult;
 import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionChange;
+import com.example.game_back.solution.models.SolutionClasses;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionQueryPage;
+import com.example.game_back.solution.models.SolutionValidator;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
 import com.example.game_back.solution.repositories.SolutionRepository;
+import com.example.game_back.solution.repositories.SolutionRepository.StoredKey;
+import com.example.game_back.solution.repositories.SolutionViewRepository;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import com.example.game_back.solution.solvers.SearchResult;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Timed(value = "game.service", description = "Time spent in the solution service, per method")
 public class GameSolverService {
 
     private final SolutionRepository solutionRepository;
 
-    public GameSolverService(SolutionRepository solutionRepository) {
+    private final ParallelSolver parallelSolver;
+
+    private final PuzzleRegistry puzzleRegistry;
+
+    private final ValidityBitmap validityBitmap;
+
+    private final PersistenceProperties persistenceProperties;
+
+    private final SolutionMetrics metrics;
+
+    private final SolutionCache solutionCache;
+
+    private final ComputedSolutionRepository computedSolutions;
+
+    private final SolutionIndex solutionIndex;
+
+    private final SolutionViewRepository solutionViews;
+
+    private final boolean materializeGenerated;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int defaultPageSize;
+
+    public GameSolverService(SolutionRepository solutionRepository, ParallelSolver parallelSolver,
+                             PuzzleRegistry puzzleRegistry, ValidityBitmap validityBitmap,
+                             PersistenceProperties persistenceProperties, SolutionMetrics metrics,
+                             SolutionCache solutionCache, ComputedSolutionRepository computedSolutions,
+                             SolutionIndex solutionIndex, SolutionViewRepository solutionViews,
+                             @Value("${game.persistence.materialize-generated:false}") boolean materializeGenerated,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${game.api.page-size:50}") int defaultPageSize) {
+        if (defaultPageSize < 1) {
+            throw new IllegalArgumentException("defaultPageSize must be positive, got " + defaultPageSize);
+        }
         this.solutionRepository = solutionRepository;
+        this.parallelSolver = parallelSolver;
+        this.puzzleRegistry = puzzleRegistry;
+        this.validityBitmap = validityBitmap;
+        this.persistenceProperties = persistenceProperties;
+        this.metrics = metrics;
+        this.solutionCache = solutionCache;
+        this.computedSolutions = computedSolutions;
+        this.solutionIndex = solutionIndex;
+        this.solutionViews = solutionViews;
+        this.materializeGenerated = materializeGenerated;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    /**
+     * Replaces the stored solutions of a puzzle with every solution found by the solver.
+     *
+     * @param puzzleId The id of the puzzle to solve
+     * @return The generation summary, or empty if the puzzle is unknown
+     */
+    public Optional<GenerationResult> generateSolutionsEfficient(String puzzleId) {
+        return puzzleRegistry.find(puzzleId)
+                .map(puzzle -> generateSolutions(puzzle, new GenerationJob(null, puzzleId)));
     }
 
-    public long generateSolutionsEfficient() {
-        solutionRepository.deleteAll();
-        List<Solution> validSolutions = new ArrayList<>();
-        long startTime = System.currentTimeMillis();
+    /**
+     * Replaces the generated solutions of a puzzle with every solution found by the solver,
+     * reporting progress to {@code job} and stopping at the next checkpoint once it is cancelled.
+     * <p>
+     * By default the solutions are not saved but served from the
+     * {@link ComputedSolutionRepository}. With {@code game.persistence.materialize-generated}, or
+     * when the puzzle has too many grids to index, they are saved while the search runs, through
+     * a {@link GenerationPipeline}: the stored solutions are deleted first and a cancelled run
+     * keeps the batches already saved. Every saved solution is also put in the
+     * {@link SolutionCache}, warming the lookups by id.
+     * <p>
+     * A {@link SolutionsGeneratedEvent} is published once the new solutions are served.
+     *
+     * @param puzzle The puzzle to solve
+     * @param job Receives the progress of the run
+     * @return The generation summary, with solver and persistence time reported separately
+     * @throws CancellationException if the job was cancelled
+     */
+    public GenerationResult generateSolutions(Puzzle puzzle, GenerationJob job) {
+        if (!materializeGenerated && PermutationSpace.isIndexable(puzzle)) {
+            return publishSolutions(puzzle, job);
+        }
+
+        String puzzleId = puzzle.getId();
+        long startTime = System.nanoTime();
 
-        int[] numbers = new int[9];
-        boolean[] used = new boolean[10];
+        int deletedCount = solutionRepository.deleteByPuzzleId(puzzleId);
+        long deletionTime = System.nanoTime() - startTime;
+        solutionCache.removedPuzzle(puzzleId);
+        solutionIndex.reload(puzzleId);
+        log.debug("Deleted {} stored solutions of puzzle '{}'", deletedCount, puzzleId);
 
-        findSolutions(0, numbers, used, validSolutions);
+        GenerationPipeline pipeline = new GenerationPipeline(solutionRepository, persistenceProperties, metrics,
+                solutionCache, puzzle, job);
+        long nodesVisited;
+        try {
+            nodesVisited = pipeline.run(parallelSolver);
+        } finally {
+            metrics.recordSearch(puzzleId, job.getSearchProgress());
+            solutionIndex.reload(puzzleId);
+        }
+        long totalTime = System.nanoTime() - startTime;
+        log.info("Solver visited {} nodes on {} threads and found {} solutions for puzzle '{}'",
+                nodesVisited, parallelSolver.getParallelism(), job.getSolutionsFound(), puzzleId);
+        eventPublisher.publishEvent(new SolutionsGeneratedEvent(puzzleId, (int) job.getRowsPersisted()));
 
-        solutionRepository.saveAll(validSolutions);
+        return new GenerationResult(puzzleId, toMillis(totalTime), (int) job.getRowsPersisted(),
+                toMillis(pipeline.getSearchNanos()),
+                toMillis(deletionTime + pipeline.getPersistenceNanos()));
+    }
 
-        long endTime = System.currentTimeMillis();
-        return endTime - startTime;
+    /**
+     * Finds the distinct solutions of a puzzle: the canonical grid of every class of solutions
+     * that only differ by swapping interchangeable cells. Nothing is read from or saved to the
+     * database.
+     *
+     * @param puzzleId The id of the puzzle to solve
+     * @return The canonical solutions, or empty if the puzzle is unknown
+     */
+    public Optional<SolutionClasses> findSolutionClasses(String puzzleId) {
+        return puzzleRegistry.find(puzzleId).map(puzzle -> {
+            SearchResult result = parallelSolver.findCanonical(puzzle);
+            log.debug("Solver visited {} nodes and found {} solution classes for puzzle '{}'",
+                    result.nodesVisited(), result.solutions().size(), puzzleId);
+            return new SolutionClasses(puzzleId, puzzle.getSymmetry().toString(),
+                    puzzle.getSymmetry().getClassSize(),
+                    result.solutions().stream().map(GameSolverService::toList).toList());
+        });
     }
 
-    private void findSolutions(int position, int[] numbers, boolean[] used, List<Solution> validSolutions) {
-        if (position == 9) {
-            List<Integer> numbersList = new ArrayList<>();
-            for (int num : numbers) {
-                numbersList.add(num);
-            }
+    /**
+     * Indexes the solutions of a puzzle in a {@link ValidityBitmap} and serves them from the
+     * {@link ComputedSolutionRepository}; the classic puzzle reuses the bitmap built at startup,
+     * so its job visits no nodes and finds the bitmap's solutions at once. The puzzle's stored
+     * correct solutions are deleted, since the index now serves them, while incorrect user
+     * proposals are kept. A job cancelled before that point changes nothing.
+     */
+    private GenerationResult publishSolutions(Puzzle puzzle, GenerationJob job) {
+        String puzzleId = puzzle.getId();
+        long startTime = System.nanoTime();
 
-            Solution solution = new Solution(null, numbersList);
-            if (solution.isValid()) {
-                validSolutions.add(solution);
+        ValidityBitmap index = validityBitmap;
+        if (Puzzle.CLASSIC_ID.equals(puzzleId)) {
+            job.getSearchProgress().addSolutionsFound(index.count());
+        } else {
+            try {
+                index = ValidityBitmap.build(puzzle, parallelSolver.findAll(puzzle, job.getSearchProgress()).solutions());
+            } finally {
+                metrics.recordSearch(puzzleId, job.getSearchProgress());
             }
-            return;
+        }
+        long searchTime = System.nanoTime() - startTime;
+        if (job.isCancelled()) {
+            throw new CancellationException("Generation of puzzle '" + puzzleId + "' cancelled before publishing");
         }
 
-        for (int num = 1; num <= 9; num++) {
-            if (!used[num]) {
-                used[num] = true;
-                numbers[position] = num;
+        int deletedCount = solutionRepository.deleteByPuzzleIdAndCorrect(puzzleId, true);
+        solutionCache.removedPuzzle(puzzleId);
+        solutionIndex.removedCorrect(puzzleId);
+        int published = computedSolutions.publish(index);
+        long totalTime = System.nanoTime() - startTime;
+        log.info("Serving {} computed solutions of puzzle '{}', which replace {} stored rows",
+                published, puzzleId, deletedCount);
+        eventPublisher.publishEvent(new SolutionsGeneratedEvent(puzzleId, published));
 
-                findSolutions(position + 1, numbers, used, validSolutions);
+        return new GenerationResult(puzzleId, toMillis(totalTime), published, toMillis(searchTime),
+                toMillis(totalTime - searchTime));
+    }
 
-                used[num] = false;
-            }
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    static List<Integer> toList(int[] numbers) {
+        List<Integer> numbersList = new ArrayList<>(numbers.length);
+        for (int num : numbers) {
+            numbersList.add(num);
         }
+        return numbersList;
     }
 
-    public List<Solution> getAllSolutions() {
-        return solutionRepository.findAll();
+    /**
+     * Checks whether a grid solves the classic puzzle, without touching the database.
+     * Grids with a repeated or out-of-range digit are not solutions.
+     *
+     * @param numbers A list of 9 numbers
+     * @return true if the grid is a solution
+     */
+    public boolean isSolution(List<Integer> numbers) {
+        return validityBitmap.isSolution(numbers);
+    }
+
+    /**
+     * Returns one keyset page of solutions in id order. One row past the page is read to tell
+     * whether another page follows. Pages of stored rows are served from the
+     * {@link SolutionCache} until a change touches them; computed solutions, whose ids follow
+     * every stored id, are appended once the stored rows run out.
+     *
+     * @param after Only solutions with a greater id are returned; 0 for the first page
+     * @param size The maximum number of solutions to return, or null for the configured default
+     * @param correct If not null, only solutions with this correctness flag are returned
+     * @return The page and the cursor of the next one
+     */
+    public SolutionPage getSolutionPage(long after, Integer size, Boolean correct) {
+        int pageSize = size != null ? size : defaultPageSize;
+        SolutionPage stored = ComputedSolutionRepository.isComputedId(after)
+                ? new SolutionPage(List.of(), null)
+                : solutionCache.getPage(after, pageSize, correct, () -> loadSolutionPage(after, pageSize, correct));
+        if (stored.nextCursor() != null || Boolean.FALSE.equals(correct)) {
+            return stored;
+        }
+
+        int remaining = pageSize - stored.solutions().size();
+        List<SolutionView> computed = computedSolutions.findPage(after, remaining + 1);
+        if (computed.isEmpty()) {
+            return stored;
+        }
+        List<SolutionView> solutions = new ArrayList<>(stored.solutions());
+        solutions.addAll(computed.subList(0, Math.min(remaining, computed.size())));
+        Long nextCursor = computed.size() > remaining ? solutions.get(pageSize - 1).id() : null;
+        return new SolutionPage(solutions, nextCursor);
+    }
+
+    private SolutionPage loadSolutionPage(long after, int pageSize, Boolean correct) {
+        List<SolutionView> solutions = solutionViews.findPage(after, correct, pageSize + 1);
+        if (solutions.size() <= pageSize) {
+            return new SolutionPage(solutions, null);
+        }
+        List<SolutionView> page = solutions.subList(0, pageSize);
+        return new SolutionPage(page, page.get(pageSize - 1).id());
+    }
+
+    /**
+     * Returns one keyset page of the solutions of a puzzle matching a constraint query, stored
+     * rows first and computed solutions after them, evaluated on the {@link SolutionIndex}.
+     *
+     * @param puzzleId The id of the puzzle whose solutions are queried
+     * @param query The constraints on the cells
+     * @param after Only solutions with a greater id are returned; 0 for the first page
+     * @param size The maximum number of solutions to return, or null for the configured default
+     * @param correct If not null, only solutions with this correctness flag are returned
+     * @return The page and the number of matching solutions, or empty if the puzzle is unknown
+     * @throws IllegalArgumentException if the query constrains a cell the puzzle does not have
+     */
+    public Optional<SolutionQueryPage> querySolutions(String puzzleId, SolutionQuery query, long after,
+                                                      Integer size, Boolean correct) {
+        int pageSize = size != null ? size : defaultPageSize;
+        return puzzleRegistry.find(puzzleId)
+                .map(puzzle -> solutionIndex.query(puzzle, query, after, pageSize, correct));
+    }
+
+    /**
+     * Passes every solution, in id order, to {@code action}: the stored rows straight from a
+     * database cursor, then the computed solutions. Rows are read into views rather than
+     * entities, so the heap holds at most one fetch of rows however large the table is.
+     *
+     * @param correct If not null, only solutions with this correctness flag are streamed
+     * @param action Called once per solution, inside a read-only transaction for the stored rows
+     */
+    public void streamSolutions(Boolean correct, Consumer<SolutionView> action) {
+        solutionViews.forEach(correct, action);
+        if (!Boolean.FALSE.equals(correct)) {
+            computedSolutions.forEach(action);
+        }
     }
 
     /**
      * Saves a user-proposed solution to the database if it doesn't already exist.
      * The solution will be validated and the 'correct' flag will be set accordingly.
+     * <p>
+     * The lookup goes through the unique {@code (puzzle_id, packed_numbers)} index. If a
+     * concurrent request inserts the same numbers first, the constraint rejects this insert and
+     * that request's solution is returned instead. A grid served by the
+     * {@link ComputedSolutionRepository} is not saved again; the computed solution is returned.
      * 
      * @param numbers A list of 9 numbers representing the proposed solution
      * @return The saved solution with validation status, or the existing solution if already in database
      */
     public Solution createSolution(List<Integer> numbers) {
-        List<Solution> allSolutions = solutionRepository.findAll();
-        
-        Optional<Solution> existingSolution = allSolutions.stream()
-                .filter(sol -> sol.getNumbers().equals(numbers))
-                .findFirst();
-        
+        Optional<Solution> existingSolution = computedSolutions.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, numbers)
+                .or(() -> solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, numbers));
         if (existingSolution.isPresent()) {
+            metrics.recordDuplicate();
             return existingSolution.get();
         }
-        
-        Solution solution = new Solution(null, numbers);
-        return solutionRepository.save(solution);
+
+        Solution solution = new Solution(null, Puzzle.CLASSIC_ID, numbers, isSolution(numbers));
+        try {
+            Solution saved = solutionRepository.saveAndFlush(solution);
+            solutionCache.added(List.of(saved));
+            solutionIndex.added(List.of(saved));
+            eventPublisher.publishEvent(SolutionChange.created(saved));
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            Solution concurrent = solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, numbers)
+                    .orElseThrow(() -> e);
+            metrics.recordDuplicate();
+            return concurrent;
+        }
+    }
+
+    /**
+     * Saves a batch of user-proposed solutions, skipping the ones already stored. The proposals
+     * are packed in one pass and validated together by the puzzle's {@link BatchValidator},
+     * repeated grids are merged, and the stored ones are found with a single query on the unique
+     * key index. Correct grids served by the {@link ComputedSolutionRepository} are duplicates of
+     * the computed solutions. The new solutions are inserted in one transaction, in JDBC batches.
+     * <p>
+     * If a concurrent request stores one of the grids first, the insert is rolled back and the
+     * batch is looked up and inserted again.
+     *
+     * @param proposals Lists of 9 {@linkplain PackedNumbers#isPackable packable} numbers
+     * @return One result per proposal, in the order of the proposals
+     */
+    public List<ProposalResult> proposeSolutions(List<List<Integer>> proposals) {
+        int count = proposals.size();
+        long[] packed = new long[count];
+        BatchValidator.Batch batch = Puzzle.CLASSIC.getValidator().newBatch(count);
+        int[] grid = new int[SolutionValidator.SIZE];
+        for (int i = 0; i < count; i++) {
+            List<Integer> numbers = proposals.get(i);
+            for (int position = 0; position < grid.length; position++) {
+                grid[position] = numbers.get(position);
+            }
+            packed[i] = PackedNumbers.pack(grid);
+            batch.add(grid);
+        }
+        boolean[] correct = batch.validate();
+
+        Map<Long, Integer> firstProposals = new LinkedHashMap<>(count * 2);
+        long[] distinct = new long[count];
+        int distinctCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (firstProposals.putIfAbsent(packed[i], i) == null) {
+                distinct[distinctCount++] = packed[i];
+            }
+        }
+        distinct = Arrays.copyOf(distinct, distinctCount);
+
+        Map<Long, ProposalResult> stored;
+        try {
+            stored = storeNewProposals(distinct, firstProposals, proposals, correct);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored some of the grids after the lookup
+            stored = storeNewProposals(distinct, firstProposals, proposals, correct);
+        }
+
+        List<ProposalResult> results = new ArrayList<>(count);
+        int duplicates = 0;
+        for (int i = 0; i < count; i++) {
+            ProposalResult result = stored.get(packed[i]);
+            if (result.duplicateOf() == null && firstProposals.get(packed[i]) != i) {
+                result = ProposalResult.duplicate(result.id(), result.correct());
+            }
+            if (result.duplicateOf() != null) {
+                duplicates++;
+            }
+            results.add(result);
+        }
+        metrics.recordDuplicates(duplicates);
+        return results;
+    }
+
+    /**
+     * Looks up which distinct grids are stored or computed and inserts the others.
+     *
+     * @return The result of the first proposal of each grid, by packed grid
+     */
+    private Map<Long, ProposalResult> storeNewProposals(long[] distinct, Map<Long, Integer> firstProposals,
+                                                        List<List<Integer>> proposals, boolean[] correct) {
+        Map<Long, ProposalResult> results = new HashMap<>(distinct.length * 2);
+        for (StoredKey key : solutionRepository.findKeysByPuzzleIdAndPackedNumbersIn(Puzzle.CLASSIC_ID, distinct)) {
+            results.put(key.getPackedNumbers(), ProposalResult.duplicate(key.getId(), key.getCorrect()));
+        }
+        firstProposals.forEach((packed, index) -> {
+            long computedId = correct[index]
+                    ? computedSolutions.findIdByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, proposals.get(index))
+                    : -1;
+            if (computedId >= 0) {
+                results.put(packed, ProposalResult.duplicate(computedId, true));
+            }
+        });
+
+        List<Solution> created = new ArrayList<>(firstProposals.size() - results.size());
+        firstProposals.forEach((packed, index) -> {
+            if (!results.containsKey(packed)) {
+                List<Integer> numbers = List.copyOf(proposals.get(index));
+                created.add(new Solution(null, Puzzle.CLASSIC_ID, numbers, correct[index]));
+            }
+        });
+        if (created.isEmpty()) {
+            return results;
+        }
+
+        List<Solution> saved = solutionRepository.saveAll(created);
+        solutionCache.added(saved);
+        solutionIndex.added(saved);
+        for (Solution solution : saved) {
+            eventPublisher.publishEvent(SolutionChange.created(solution));
+            results.put(PackedNumbers.pack(solution.getNumbers()),
+                    ProposalResult.created(solution.getId(), solution.isCorrect()));
+        }
+        return results;
     }
 
     /**
-     * Retrieves a solution by its ID.
+     * Retrieves a solution by its ID, from the {@link ComputedSolutionRepository} for a computed id.
+     * Stored rows are read as views, without loading the entity.
      * 
      * @param id The ID of the solution to retrieve
      * @return The solution if found, or empty if not found
      */
-    public Optional<Solution> getSolutionById(Long id) {
-        return solutionRepository.findById(id);
+    public Optional<SolutionView> getSolutionById(Long id) {
+        if (ComputedSolutionRepository.isComputedId(id)) {
+            return computedSolutions.findById(id).map(SolutionView::of);
+        }
+        return solutionCache.getSolution(id, () -> solutionViews.findById(id));
     }
 
     /**
-     * Deletes a solution by its ID.
+     * Deletes a stored solution by its ID. Computed solutions are read-only and never deleted.
      * 
      * @param id The ID of the solution to delete
      * @return true if the solution was found and deleted, false if not found
      */
     public boolean deleteSolutionById(Long id) {
-        if (solutionRepository.existsById(id)) {
+        if (!ComputedSolutionRepository.isComputedId(id) && solutionRepository.existsById(id)) {
             solutionRepository.deleteById(id);
+            solutionCache.removed(id);
+            solutionIndex.removed(id);
+            eventPublisher.publishEvent(SolutionChange.deleted(id));
             return true;
         }
         return false;
     }
 
     /**
-     * Deletes all solutions from the database.
+     * Deletes all solutions from the database and stops serving the computed ones, until their
+     * puzzles are generated again.
      * 
      * @return The number of solutions deleted
      */
     public long deleteAllSolutions() {
-        long count = solutionRepository.count();
-        solutionRepository.deleteAll();
-        return count;
+        int deletedCount = solutionRepository.deleteAllInBulk();
+        solutionCache.cleared();
+        solutionIndex.cleared();
+        long totalCount = deletedCount + computedSolutions.clear();
+        eventPublisher.publishEvent(SolutionChange.cleared(totalCount));
+        return totalCount;
+    }
+
+    /**
+     * Deletes every solution flagged as incorrect, such as wrong user proposals.
+     *
+     * @return The number of solutions deleted
+     */
+    public long deleteIncorrectSolutions() {
+        int deletedCount = solutionRepository.deleteByCorrect(false);
+        solutionCache.removedIncorrect();
+        solutionIndex.removedIncorrect();
+        eventPublisher.publishEvent(SolutionChange.clearedIncorrect(deletedCount));
+        return deletedCount;
     }
 
     /**
      * Updates a solution by its ID with new numbers.
-     * If another solution with the same numbers already exists, that solution will be deleted
-     * to avoid duplicates.
+     * If another stored solution with the same numbers already exists, that solution will be
+     * deleted to avoid duplicates. If the numbers are a computed solution, which cannot be
+     * deleted, the stored solution is deleted instead and the computed one returned.
+     * Computed solutions themselves are read-only.
      * 
      * @param id The ID of the solution to update
      * @param newNumbers The new list of numbers for the solution
-     * @return The updated solution if found, or empty if not found
+     * @return The updated solution if found, or empty if not found or computed
      */
     public Optional<Solution> updateSolution(Long id, List<Integer> newNumbers) {
+        if (ComputedSolutionRepository.isComputedId(id)) {
+            return Optional.empty();
+        }
         Optional<Solution> solutionToUpdate = solutionRepository.findById(id);
         
         if (solutionToUpdate.isEmpty()) {
             return Optional.empty();
         }
         
-        List<Solution> allSolutions = solutionRepository.findAll();
-        
-        Optional<Solution> duplicateSolution = allSolutions.stream()
-                .filter(sol -> !sol.getId().equals(id))
-                .filter(sol -> sol.getNumbers().equals(newNumbers))
-                .findFirst();
-        
-        duplicateSolution.ifPresent(solution -> solutionRepository.deleteById(solution.getId()));
-        
         Solution solution = solutionToUpdate.get();
-        solution.setNumbers(newNumbers);
-        solution.setCorrect(solution.isValid());
-        
-        return Optional.of(solutionRepository.save(solution));
+        Optional<Solution> computed = computedSolutions.findByPuzzleIdAndNumbers(solution.getPuzzleId(), newNumbers);
+        if (computed.isPresent()) {
+            solutionRepository.deleteById(id);
+            solutionCache.removed(id);
+            solutionIndex.removed(id);
+            eventPublisher.publishEvent(SolutionChange.deleted(id));
+            return computed;
+        }
+        try {
+            return Optional.of(replaceNumbers(solution, newNumbers));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored the same numbers after the duplicate check
+            return Optional.of(replaceNumbers(solution, newNumbers));
+        }
+    }
+
+    /**
+     * Deletes any other solution of the same puzzle holding {@code numbers}, then saves the
+     * solution with them. The numbers are only set once the duplicate is gone, so the unique
+     * index never sees both rows at once.
+     */
+    private Solution replaceNumbers(Solution solution, List<Integer> numbers) {
+        solutionRepository.findByPuzzleIdAndNumbers(solution.getPuzzleId(), numbers)
+                .filter(duplicate -> !duplicate.getId().equals(solution.getId()))
+                .ifPresent(duplicate -> {
+                    solutionRepository.deleteById(duplicate.getId());
+                    solutionCache.removed(duplicate.getId());
+                    solutionIndex.removed(duplicate.getId());
+                    eventPublisher.publishEvent(SolutionChange.deleted(duplicate.getId()));
+                });
+
+        solution.setNumbers(numbers);
+        solution.setCorrect(isCorrect(solution));
+        Solution saved = solutionRepository.saveAndFlush(solution);
+        solutionCache.updated(saved);
+        solutionIndex.updated(saved);
+        eventPublisher.publishEvent(SolutionChange.updated(saved));
+        return saved;
+    }
+
+    private boolean isCorrect(Solution solution) {
+        if (Puzzle.CLASSIC_ID.equals(solution.getPuzzleId())) {
+            return isSolution(solution.getNumbers());
+        }
+
+        int[] numbers = solution.getNumbers().stream().mapToInt(Integer::intValue).toArray();
+        return puzzleRegistry.find(solution.getPuzzleId())
+                .map(puzzle -> puzzle.isSolution(numbers))
+                .orElse(false);
     }
 }
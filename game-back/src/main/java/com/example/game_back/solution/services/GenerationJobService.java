@@ -0,0 +1,116 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.models.GenerationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs solution generations as background jobs on a dedicated executor, so the request that
+ * starts one returns at once. Jobs are kept in memory; once more than {@code retainedJobs} are
+ * known, the oldest finished ones are forgotten.
+ */
+@Slf4j
+@Service
+public class GenerationJobService {
+
+    private final GameSolverService gameSolverService;
+
+    private final PuzzleRegistry puzzleRegistry;
+
+    private final ExecutorService generationJobExecutor;
+
+    private final int retainedJobs;
+
+    private final Map<String, GenerationJob> jobs = new LinkedHashMap<>();
+
+    public GenerationJobService(GameSolverService gameSolverService, PuzzleRegistry puzzleRegistry,
+                                ExecutorService generationJobExecutor,
+                                @Value("${game.jobs.retained:100}") int retainedJobs) {
+        this.gameSolverService = gameSolverService;
+        this.puzzleRegistry = puzzleRegistry;
+        this.generationJobExecutor = generationJobExecutor;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * Queues the generation of a puzzle's solutions.
+     *
+     * @param puzzleId The id of the puzzle to solve
+     * @return The queued job, or empty if the puzzle is unknown
+     */
+    public Optional<GenerationJob> startJob(String puzzleId) {
+        Optional<Puzzle> puzzle = puzzleRegistry.find(puzzleId);
+        if (puzzle.isEmpty()) {
+            return Optional.empty();
+        }
+
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), puzzleId);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            evictFinishedJobs();
+        }
+
+        generationJobExecutor.execute(() -> run(puzzle.get(), job));
+        return Optional.of(job);
+    }
+
+    public Optional<GenerationJob> getJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    /**
+     * Requests cancellation of a job. A running job stops at its next checkpoint.
+     *
+     * @param jobId The id of the job to cancel
+     * @return The job, or empty if it is unknown
+     */
+    public Optional<GenerationJob> cancelJob(String jobId) {
+        Optional<GenerationJob> job = getJob(jobId);
+        job.ifPresent(GenerationJob::cancel);
+        return job;
+    }
+
+    private void run(Puzzle puzzle, GenerationJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+
+        try {
+            job.markSucceeded(gameSolverService.generateSolutions(puzzle, job));
+        } catch (CancellationException e) {
+            log.info("Generation job {} for puzzle '{}' cancelled after {} rows", job.getId(),
+                    job.getPuzzleId(), job.getRowsPersisted());
+            job.markCancelled();
+        } catch (RuntimeException e) {
+            log.error("Generation job {} for puzzle '{}' failed", job.getId(), job.getPuzzleId(), e);
+            job.markFailed(e.getMessage());
+        } catch (Error e) {
+            // Such as a writer running out of memory, rethrown by the pipeline
+            log.error("Generation job {} for puzzle '{}' failed", job.getId(), job.getPuzzleId(), e);
+            job.markFailed(e.toString());
+            throw e;
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<GenerationJob> iterator = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && iterator.hasNext()) {
+            if (iterator.next().getStatus().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+}
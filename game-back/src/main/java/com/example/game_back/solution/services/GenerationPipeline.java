@@ -0,0 +1,203 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.config.PersistenceProperties;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.repositories.SolutionRepository;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One generation run streamed from the solver to the database: the solver threads push each
+ * solution into a bounded queue while writer threads drain it in transactions of
+ * {@code batchSize} rows, so searching and saving overlap and at most
+ * {@code queueCapacity + writers * batchSize} solutions are held in memory.
+ * <p>
+ * A full queue makes the solver wait. A writer failure cancels the job's search progress, which
+ * stops the solver and the other writers, and is rethrown by {@link #run}. A solver that ends
+ * without queueing the end of the stream, whatever it threw, cancels the progress as well, so
+ * the writers stop instead of polling forever.
+ */
+@Slf4j
+final class GenerationPipeline {
+
+    private static final int[] END = new int[0];
+
+    private static final long WAIT_MS = 50;
+
+    private final SolutionRepository solutionRepository;
+
+    private final PersistenceProperties properties;
+
+    private final SolutionMetrics metrics;
+
+    private final SolutionCache solutionCache;
+
+    private final Puzzle puzzle;
+
+    private final GenerationJob job;
+
+    private final BlockingQueue<int[]> queue;
+
+    private final AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+
+    private final LongAdder persistenceNanos = new LongAdder();
+
+    private long searchNanos;
+
+    GenerationPipeline(SolutionRepository solutionRepository, PersistenceProperties properties,
+                       SolutionMetrics metrics, SolutionCache solutionCache, Puzzle puzzle, GenerationJob job) {
+        this.solutionRepository = solutionRepository;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.solutionCache = solutionCache;
+        this.puzzle = puzzle;
+        this.job = job;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+    }
+
+    /**
+     * Runs the solver and the writers until every solution is saved.
+     *
+     * @param solver The solver producing the solutions
+     * @return The number of nodes the solver visited
+     * @throws CancellationException if the job was cancelled
+     * @throws RuntimeException the first writer failure, if any
+     * @throws Error the first writer error, if any
+     */
+    long run(ParallelSolver solver) {
+        long nodesVisited = 0;
+        RuntimeException searchFailure = null;
+
+        try (ExecutorService writers = Executors.newFixedThreadPool(properties.writers(),
+                Thread.ofPlatform().name("solution-writer-", 1).factory())) {
+            for (int i = 0; i < properties.writers(); i++) {
+                writers.execute(this::drain);
+            }
+
+            long searchStart = System.nanoTime();
+            boolean ended = false;
+            try {
+                nodesVisited = solver.forEach(puzzle, job.getSearchProgress(), this::enqueue);
+                searchNanos = System.nanoTime() - searchStart;
+                for (int i = 0; i < properties.writers(); i++) {
+                    offer(END);
+                }
+                ended = true;
+            } catch (RuntimeException e) {
+                searchFailure = e;
+            } finally {
+                if (!ended) {
+                    job.getSearchProgress().cancel();
+                }
+            }
+        }
+
+        Throwable failure = writerFailure.get();
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        if (searchFailure != null) {
+            throw searchFailure;
+        }
+        if (job.isCancelled()) {
+            throw new CancellationException("Generation cancelled after " + job.getRowsPersisted() + " rows");
+        }
+        return nodesVisited;
+    }
+
+    /**
+     * @return Time from the start of the search until the solver produced its last solution
+     */
+    long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * @return Time the writers spent saving, summed over all writers
+     */
+    long getPersistenceNanos() {
+        return persistenceNanos.sum();
+    }
+
+    private void enqueue(int[] numbers) {
+        offer(numbers.clone());
+    }
+
+    /**
+     * Waits for room in the queue, giving up once the job is cancelled.
+     */
+    private void offer(int[] numbers) {
+        try {
+            while (!queue.offer(numbers, WAIT_MS, TimeUnit.MILLISECONDS)) {
+                if (job.isCancelled()) {
+                    throw new CancellationException("Generation cancelled");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.getSearchProgress().cancel();
+            throw new CancellationException("Interrupted while queueing solutions");
+        }
+    }
+
+    private void drain() {
+        List<Solution> batch = new ArrayList<>(properties.batchSize());
+        boolean ended = false;
+        try {
+            while (!job.isCancelled()) {
+                int[] numbers = queue.poll(WAIT_MS, TimeUnit.MILLISECONDS);
+                if (numbers == END) {
+                    save(batch);
+                    ended = true;
+                    return;
+                }
+                if (numbers != null) {
+                    batch.add(new Solution(null, puzzle.getId(), GameSolverService.toList(numbers), true));
+                    if (batch.size() == properties.batchSize()) {
+                        save(batch);
+                        batch = new ArrayList<>(properties.batchSize());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            log.error("Writer failed while saving solutions of puzzle '{}'", puzzle.getId(), e);
+            writerFailure.compareAndSet(null, e);
+        } finally {
+            if (!ended) {
+                job.getSearchProgress().cancel();
+            }
+        }
+    }
+
+    private void save(List<Solution> batch) {
+        if (batch.isEmpty() || job.isCancelled()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        List<Solution> saved = solutionRepository.saveAll(batch);
+        long elapsed = System.nanoTime() - startTime;
+        persistenceNanos.add(elapsed);
+        metrics.recordBatch(batch.size(), elapsed);
+        solutionCache.added(saved);
+        job.addRowsPersisted(batch.size());
+    }
+}
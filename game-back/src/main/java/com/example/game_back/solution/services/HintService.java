@@ -0,0 +1,123 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.models.Hint;
+import com.example.game_back.solution.solvers.CompletionSearch;
+import com.example.game_back.solution.solvers.CompletionSearch.Node;
+import com.example.game_back.solution.solvers.CompletionSearch.StateKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hints for partially filled grids, computed with a {@link CompletionSearch} from the filled
+ * cells rather than from the generated solutions, so they work for puzzles that were never
+ * generated.
+ * <p>
+ * Each puzzle has a bounded memo of search nodes, shared by all requests and kept for the life
+ * of the application since a puzzle's equation never changes. Its hit and miss counts are
+ * published as the {@code cache.gets} metric of the {@code hint-states:<puzzle id>} cache.
+ * Requests run their own search, so they only contend on the memo.
+ */
+@Slf4j
+@Service
+public class HintService {
+
+    private final PuzzleRegistry puzzleRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long memoSize;
+
+    private final Map<String, Cache<StateKey, Node>> memos = new ConcurrentHashMap<>();
+
+    public HintService(PuzzleRegistry puzzleRegistry, MeterRegistry meterRegistry,
+                       @Value("${game.hints.memo-size:100000}") long memoSize) {
+        this.puzzleRegistry = puzzleRegistry;
+        this.meterRegistry = meterRegistry;
+        this.memoSize = memoSize;
+    }
+
+    /**
+     * Counts the solutions of a puzzle agreeing with the filled cells of a grid, and reports the
+     * digits each cell can still take.
+     *
+     * @param puzzleId The id of the puzzle
+     * @param grid One entry per cell, null for an empty cell
+     * @param limit Number of agreeing solutions to list
+     * @return The hint, or empty if the puzzle is unknown
+     * @throws IllegalArgumentException if the grid does not have one entry per cell, or fills a
+     * cell with a digit the puzzle does not use
+     */
+    public Optional<Hint> hint(String puzzleId, List<Integer> grid, int limit) {
+        Optional<Puzzle> found = puzzleRegistry.find(puzzleId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Puzzle puzzle = found.get();
+        if (grid.size() != puzzle.getCellCount()) {
+            throw new IllegalArgumentException("Expected " + puzzle.getCellCount() + " cells, got " + grid.size());
+        }
+        int[] cells = new int[grid.size()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            Integer digit = grid.get(cell);
+            if (digit != null && Arrays.binarySearch(puzzle.getDigits(), digit) < 0) {
+                throw new IllegalArgumentException("Digit " + digit + " is not used by puzzle '" + puzzleId + "'");
+            }
+            cells[cell] = digit == null ? -1 : digit;
+        }
+
+        CompletionSearch search = new CompletionSearch(puzzle.getCompiled(), memo(puzzleId));
+        CompletionSearch.Result result = search.search(cells, limit);
+        log.debug("Hint search visited {} nodes and found {} completions for puzzle '{}'",
+                search.getNodesVisited(), result.count(), puzzleId);
+
+        List<List<Integer>> viableDigits = new ArrayList<>(cells.length);
+        for (long digits : result.viableDigits()) {
+            List<Integer> cellDigits = new ArrayList<>(Long.bitCount(digits));
+            for (; digits != 0; digits &= digits - 1) {
+                cellDigits.add(Long.numberOfTrailingZeros(digits));
+            }
+            viableDigits.add(cellDigits);
+        }
+        List<List<Integer>> completions = result.completions().stream()
+                .map(numbers -> Arrays.stream(numbers).boxed().toList())
+                .toList();
+        return Optional.of(new Hint(puzzleId, result.count(), viableDigits, completions));
+    }
+
+    private CompletionSearch.Memo memo(String puzzleId) {
+        Cache<StateKey, Node> cache = memos.computeIfAbsent(puzzleId, id -> {
+            Cache<StateKey, Node> memo = Caffeine.newBuilder()
+                    .maximumSize(memoSize)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, memo, "hint-states:" + id);
+            return memo;
+        });
+        return new CompletionSearch.Memo() {
+            @Override
+            public Node get(StateKey key) {
+                return cache.getIfPresent(key);
+            }
+
+            @Override
+            public void put(StateKey key, Node node) {
+                cache.put(key, node);
+            }
+        };
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.config.SnapshotProperties;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
+import com.example.game_back.solution.repositories.SolutionSnapshot;
+import com.example.game_back.solution.repositories.SolutionSnapshot.Contents;
+import com.example.game_back.solution.repositories.SolutionSnapshot.Row;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the solution set in a {@link SolutionSnapshot} file across restarts. The snapshot is
+ * written after every generation, and on shutdown when it includes the stored rows; at startup,
+ * before the application reports ready, it is loaded back: the generated solutions are served
+ * again from the {@link ComputedSolutionRepository} and the rows are inserted with their ids.
+ * When the file is missing, corrupt or no longer matches the configured puzzles, the classic
+ * puzzle is generated instead, which writes a fresh snapshot.
+ * <p>
+ * Loading and saving are timed as {@code game.snapshot.load} and {@code game.snapshot.save}; the
+ * time from JVM start to ready-to-serve is logged, and exported by Spring Boot as
+ * {@code application.ready.time}.
+ */
+@Slf4j
+@Service
+public class SnapshotService implements ApplicationRunner {
+
+    private static final String INSERT_ROW =
+            "INSERT INTO solution (id, puzzle_id, packed_numbers, correct) VALUES (?, ?, ?, ?)";
+
+    private final SnapshotProperties properties;
+
+    private final PuzzleRegistry puzzleRegistry;
+
+    private final ComputedSolutionRepository computedSolutions;
+
+    private final GameSolverService gameSolverService;
+
+    private final SolutionIndex solutionIndex;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Timer loadTimer;
+
+    private final Timer saveTimer;
+
+    private volatile String startupSource = "no snapshot";
+
+    public SnapshotService(SnapshotProperties properties, PuzzleRegistry puzzleRegistry,
+                           ComputedSolutionRepository computedSolutions, GameSolverService gameSolverService,
+                           SolutionIndex solutionIndex, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.puzzleRegistry = puzzleRegistry;
+        this.computedSolutions = computedSolutions;
+        this.gameSolverService = gameSolverService;
+        this.solutionIndex = solutionIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTimer = Timer.builder("game.snapshot.load")
+                .description("Time spent loading the solution snapshot at startup")
+                .register(meterRegistry);
+        this.saveTimer = Timer.builder("game.snapshot.save")
+                .description("Time spent writing the solution snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores the snapshot, or generates the classic puzzle if it cannot be restored. Runs once
+     * the context is refreshed and before the application is ready.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        if (restore()) {
+            startupSource = "snapshot " + properties.file();
+        } else {
+            gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+            startupSource = "generation";
+        }
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Ready to serve {} computed solutions from {}, {} ms after startup",
+                computedSolutions.count(), startupSource, event.getTimeTaken().toMillis());
+    }
+
+    @EventListener
+    public void onGenerated(SolutionsGeneratedEvent event) {
+        if (properties.isEnabled()) {
+            save();
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        if (properties.isEnabled() && properties.proposals()) {
+            save();
+        }
+    }
+
+    /**
+     * Loads the snapshot file and serves its solutions. Nothing is changed unless every section
+     * is valid: the puzzle ids must be registered and every generated grid a solution.
+     *
+     * @return true if the snapshot was restored, false if it is missing or unusable
+     */
+    public boolean restore() {
+        Path file = properties.file();
+        long start = System.nanoTime();
+        Contents contents;
+        try {
+            contents = SolutionSnapshot.read(file);
+        } catch (NoSuchFileException e) {
+            log.info("No solution snapshot at {}", file);
+            return false;
+        } catch (IOException e) {
+            log.warn("Ignoring the solution snapshot: {}", e.getMessage());
+            return false;
+        }
+
+        List<ValidityBitmap> indexes = new ArrayList<>();
+        try {
+            contents.generated().forEach((puzzleId, packed) -> indexes.add(toIndex(puzzleId, packed)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring the solution snapshot {}: {}", file, e.getMessage());
+            return false;
+        }
+        indexes.forEach(computedSolutions::publish);
+        int rows = insertRows(contents.rows());
+
+        long nanos = System.nanoTime() - start;
+        loadTimer.record(nanos, TimeUnit.NANOSECONDS);
+        log.info("Restored {} generated puzzles and {} rows from {} in {} ms", indexes.size(), rows, file,
+                nanos / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Writes the served generated solutions, and the stored rows if configured, to the snapshot
+     * file. A failure is logged and leaves the previous snapshot in place.
+     */
+    public synchronized void save() {
+        Path file = properties.file();
+        long start = System.nanoTime();
+
+        Map<String, long[]> generated = new LinkedHashMap<>();
+        for (ValidityBitmap index : computedSolutions.getPublished()) {
+            int[] grid = new int[index.getSpace().getCellCount()];
+            generated.put(index.getPuzzle().getId(), index.validRanks().mapToLong(rank -> {
+                index.getSpace().unrank(rank, grid);
+                return PackedNumbers.pack(grid);
+            }).toArray());
+        }
+        List<Row> rows = properties.proposals() ? readRows() : List.of();
+
+        try {
+            long size = SolutionSnapshot.write(file, new Contents(generated, rows));
+            long nanos = System.nanoTime() - start;
+            saveTimer.record(nanos, TimeUnit.NANOSECONDS);
+            log.info("Wrote {} generated puzzles and {} rows to {} ({} bytes) in {} ms", generated.size(),
+                    rows.size(), file, size, nanos / 1_000_000);
+        } catch (IOException e) {
+            log.error("Could not write the solution snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Rebuilds a puzzle's validity bitmap from its packed solutions.
+     *
+     * @throws IllegalArgumentException if the puzzle is unknown or a grid is not one of its solutions
+     */
+    private ValidityBitmap toIndex(String puzzleId, long[] packed) {
+        Optional<Puzzle> puzzle = puzzleRegistry.find(puzzleId);
+        if (puzzle.isEmpty()) {
+            throw new IllegalArgumentException("Unknown puzzle '" + puzzleId + "'");
+        }
+        List<int[]> solutions = new ArrayList<>(packed.length);
+        for (long grid : packed) {
+            solutions.add(PackedNumbers.unpackToArray(grid));
+        }
+        return ValidityBitmap.build(puzzle.get(), solutions);
+    }
+
+    /**
+     * Inserts the rows with their ids into an empty table, then moves the id sequence past them.
+     *
+     * @return The number of rows inserted
+     */
+    private int insertRows(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM solution", Long.class);
+        if (stored != null && stored > 0) {
+            log.warn("Not restoring {} snapshot rows into a table that already holds {} rows", rows.size(), stored);
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ROW, rows, 500, (statement, row) -> {
+            statement.setLong(1, row.id());
+            statement.setString(2, row.puzzleId());
+            statement.setLong(3, row.packedNumbers());
+            statement.setBoolean(4, row.correct());
+        });
+        long maxId = rows.stream().mapToLong(Row::id).max().orElse(0);
+        jdbcTemplate.execute("ALTER SEQUENCE solution_seq RESTART WITH "
+                + (maxId + 2L * Solution.ID_ALLOCATION_SIZE));
+        rows.stream().map(Row::puzzleId).distinct().forEach(solutionIndex::reload);
+        return rows.size();
+    }
+
+    private List<Row> readRows() {
+        return jdbcTemplate.query("SELECT id, puzzle_id, packed_numbers, correct FROM solution ORDER BY id",
+                (resultSet, rowNumber) -> new Row(resultSet.getLong(1), resultSet.getString(2),
+                        resultSet.getLong(3), resultSet.getBoolean(4)));
+    }
+}
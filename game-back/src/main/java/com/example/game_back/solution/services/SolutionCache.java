@@ -0,0 +1,168 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.config.SolutionCacheProperties;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of solutions by id and of keyset pages, bounded in size and age. Hit and
+ * miss counts are published as the {@code cache.gets} metric of the {@code solutions} and
+ * {@code solution-pages} caches.
+ * <p>
+ * Writers report each change after it is committed, and only the entries it can affect are
+ * evicted: a page covers the ids from its cursor up to its last solution, or every greater id
+ * when it is the last page. A load that overlaps a change is not kept, so a page read before a
+ * write never outlives it. Solutions are cached as {@link SolutionView}s shared between requests.
+ */
+@Component
+public class SolutionCache {
+
+    /**
+     * Identifies one page of {@link GameSolverService#getSolutionPage}.
+     */
+    record PageKey(long after, int size, Boolean correct) {
+    }
+
+    private final Cache<Long, SolutionView> solutions;
+
+    private final Cache<PageKey, SolutionPage> pages;
+
+    /**
+     * Bumped before each eviction; a load that saw another version may be stale.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public SolutionCache(SolutionCacheProperties properties, MeterRegistry meterRegistry) {
+        this.solutions = Caffeine.newBuilder()
+                .maximumSize(properties.solutions())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.pages())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, solutions, "solutions");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "solution-pages");
+    }
+
+    /**
+     * @param loader Reads the solution when it is not cached; a missing solution is not cached
+     */
+    public Optional<SolutionView> getSolution(long id, Supplier<Optional<SolutionView>> loader) {
+        SolutionView cached = solutions.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long seen = version.get();
+        Optional<SolutionView> solution = loader.get();
+        solution.ifPresent(loaded -> keep(solutions, id, loaded, seen));
+        return solution;
+    }
+
+    /**
+     * @param loader Reads the page when it is not cached
+     */
+    public SolutionPage getPage(long after, int size, Boolean correct, Supplier<SolutionPage> loader) {
+        PageKey key = new PageKey(after, size, correct);
+        SolutionPage cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long seen = version.get();
+        SolutionPage page = loader.get();
+        keep(pages, key, page, seen);
+        return page;
+    }
+
+    private <K, V> void keep(Cache<K, V> cache, K key, V value, long seen) {
+        cache.put(key, value);
+        if (version.get() != seen) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Caches newly stored solutions, which also warms the by-id lookups after a generation, and
+     * evicts the pages their ids fall into.
+     */
+    public void added(Collection<Solution> stored) {
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Solution solution : stored) {
+            min = Math.min(min, solution.getId());
+            max = Math.max(max, solution.getId());
+        }
+        long first = min;
+        long last = max;
+        version.incrementAndGet();
+        evictPages((key, page) -> key.after() < last && (page.nextCursor() == null || page.nextCursor() >= first));
+        stored.forEach(solution -> solutions.put(solution.getId(), SolutionView.of(solution)));
+    }
+
+    /**
+     * Replaces the cached solution and evicts the pages holding it, since its correctness may
+     * have changed.
+     */
+    public void updated(Solution solution) {
+        removed(solution.getId());
+        solutions.put(solution.getId(), SolutionView.of(solution));
+    }
+
+    public void removed(long id) {
+        version.incrementAndGet();
+        solutions.invalidate(id);
+        evictPages((key, page) -> key.after() < id && (page.nextCursor() == null || page.nextCursor() >= id));
+    }
+
+    /**
+     * Evicts the incorrect solutions and the pages listing any of them.
+     */
+    public void removedIncorrect() {
+        removedWhere(solution -> !solution.correct());
+    }
+
+    /**
+     * Evicts the solutions of a puzzle whose stored solutions were deleted, and the pages listing
+     * any of them.
+     */
+    public void removedPuzzle(String puzzleId) {
+        removedWhere(solution -> puzzleId.equals(solution.puzzleId()));
+    }
+
+    public void cleared() {
+        version.incrementAndGet();
+        solutions.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private void removedWhere(Predicate<SolutionView> removed) {
+        version.incrementAndGet();
+        solutions.asMap().values().removeIf(removed);
+        evictPages((key, page) -> page.solutions().stream().anyMatch(removed));
+    }
+
+    private void evictPages(BiPredicate<PageKey, SolutionPage> affected) {
+        pages.asMap().entrySet().removeIf(entry -> affected.test(entry.getKey(), entry.getValue()));
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.models.SolutionChange;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes {@link SolutionChange}s to server-sent event subscribers.
+ * <p>
+ * Every change gets the next number of a sequence; the event id sent with it also names this
+ * instance, so an id from before a restart is recognized. The last {@code game.feed.history}
+ * changes are kept, so a client reconnecting with the id of the last event it received gets the
+ * changes it missed instead of reloading everything. When they are no longer kept, or the id is
+ * unknown, it gets a {@code reset} event instead.
+ * <p>
+ * Changes are queued per subscriber and sent by one virtual thread per busy subscriber, so a slow
+ * client never delays the publisher or the others. While a change waits, a later change of the
+ * same solution replaces it (a creation followed by a deletion cancels out), a later clearing of
+ * every solution drops everything before it, and a later generation of the same puzzle replaces
+ * the earlier one. A subscriber with more than {@code game.feed.buffer} distinct changes waiting
+ * gets a single {@code reset} in their place, counted by the {@code game.feed.resets} metric.
+ */
+@Slf4j
+@Service
+public class SolutionChangeFeed {
+
+    /**
+     * Delivers the events of one subscriber, one at a time.
+     */
+    interface Sink {
+
+        void send(String eventId, SolutionChange change) throws IOException;
+
+        void close();
+    }
+
+    private record Event(long sequence, SolutionChange change) {
+    }
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final int history;
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final Executor senders;
+
+    private final Counter resets;
+
+    private final ArrayDeque<Event> recent = new ArrayDeque<>();
+
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    private long sequence;
+
+    @Autowired
+    public SolutionChangeFeed(MeterRegistry meterRegistry, @Value("${game.feed.history:1000}") int history,
+                              @Value("${game.feed.buffer:256}") int bufferSize,
+                              @Value("${game.feed.timeout:30m}") Duration timeout) {
+        this(meterRegistry, history, bufferSize, timeout, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    SolutionChangeFeed(MeterRegistry meterRegistry, int history, int bufferSize, Duration timeout,
+                       Executor senders) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive, got " + bufferSize);
+        }
+        this.history = history;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.senders = senders;
+        this.resets = Counter.builder("game.feed.resets")
+                .description("Subscribers sent a reset because they fell too far behind")
+                .register(meterRegistry);
+        Gauge.builder("game.feed.subscribers", this, SolutionChangeFeed::getSubscriberCount)
+                .description("Clients subscribed to the solution change feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes a client to the changes.
+     *
+     * @param lastEventId The id of the last event the client received, to resume from; null for
+     *                    only the changes from now on
+     * @return The emitter sending the events
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = subscribe(lastEventId, new Sink() {
+            @Override
+            public void send(String eventId, SolutionChange change) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(eventId)
+                        .name(change.type().getEventName())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    Subscriber subscribe(String lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (this) {
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                replay(lastEventId, subscriber);
+            }
+        }
+        return subscriber;
+    }
+
+    /**
+     * Queues the changes a resuming subscriber missed, or a reset if they are not all kept.
+     */
+    private void replay(String lastEventId, Subscriber subscriber) {
+        long last = parseSequence(lastEventId);
+        if (last == sequence) {
+            return;
+        }
+        if (last < 0 || last > sequence || recent.isEmpty() || recent.peekFirst().sequence() > last + 1) {
+            log.debug("Cannot resume the change feed from event '{}', sending a reset", lastEventId);
+            subscriber.offer(new Event(sequence, SolutionChange.reset()));
+            return;
+        }
+        for (Event event : recent) {
+            if (event.sequence() > last) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * @return The sequence number of an event id of this instance, or -1
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(instance)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return instance + "-" + sequence;
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Numbers a change, keeps it for resuming subscribers and queues it for every subscriber.
+     */
+    @EventListener
+    public synchronized void publish(SolutionChange change) {
+        Event event = new Event(++sequence, change);
+        recent.addLast(event);
+        if (recent.size() > history) {
+            recent.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @EventListener
+    public void onGenerated(SolutionsGeneratedEvent event) {
+        publish(SolutionChange.generated(event.puzzleId(), event.totalSolutions()));
+    }
+
+    @PreDestroy
+    public void close() {
+        List<Subscriber> closing;
+        synchronized (this) {
+            closing = List.copyOf(subscribers);
+            subscribers.clear();
+        }
+        closing.forEach(Subscriber::close);
+        if (senders instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * The changes waiting to be sent to one client, coalesced while it is behind.
+     */
+    final class Subscriber {
+
+        private static final Object RESET_KEY = new Object();
+
+        private final Sink sink;
+
+        /**
+         * Waiting events by what they are about, in sequence order.
+         */
+        private final Map<Object, Event> pending = new LinkedHashMap<>();
+
+        private boolean sending;
+
+        private boolean closed;
+
+        private Subscriber(Sink sink) {
+            this.sink = sink;
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                SolutionChange change = event.change();
+                if (change.isFullClear()) {
+                    pending.clear();
+                }
+                Object key = key(change);
+                Event merged = merge(pending.remove(key), event);
+                if (merged != null) {
+                    pending.put(key, merged);
+                }
+                if (pending.size() > bufferSize) {
+                    pending.clear();
+                    pending.put(RESET_KEY, new Event(event.sequence(), SolutionChange.reset()));
+                    resets.increment();
+                }
+                if (sending || pending.isEmpty()) {
+                    return;
+                }
+                sending = true;
+            }
+            senders.execute(this::send);
+        }
+
+        private Object key(SolutionChange change) {
+            return switch (change.type()) {
+                case CREATED, UPDATED, DELETED -> change.id();
+                case CLEARED -> change.type().name() + ":" + change.correct();
+                case GENERATED -> change.type().name() + ":" + change.puzzleId();
+                case RESET -> RESET_KEY;
+            };
+        }
+
+        /**
+         * @return The event telling the client both changes, or null if they cancel out
+         */
+        private Event merge(Event previous, Event next) {
+            if (previous == null || previous.change().type() != SolutionChange.Type.CREATED) {
+                return next;
+            }
+            return switch (next.change().type()) {
+                case DELETED -> null;
+                case UPDATED -> new Event(next.sequence(), next.change().withType(SolutionChange.Type.CREATED));
+                default -> next;
+            };
+        }
+
+        private void send() {
+            while (true) {
+                List<Event> events;
+                synchronized (this) {
+                    if (closed || pending.isEmpty()) {
+                        sending = false;
+                        return;
+                    }
+                    events = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                for (Event event : events) {
+                    try {
+                        sink.send(eventId(event.sequence()), event.change());
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Dropping a change feed subscriber: {}", e.toString());
+                        unsubscribe(this);
+                        close();
+                        return;
+                    }
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            sink.close();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.indexes.DigitIndex;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionQueryPage;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
+import com.example.game_back.solution.repositories.SolutionRepository;
+import com.example.game_back.solution.repositories.SolutionRepository.StoredKey;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers {@link SolutionQuery} constraint queries from {@link DigitIndex} bitmaps, without
+ * reading the database. Each puzzle has two segments, searched in id order like the pages of
+ * {@link GameSolverService#getSolutionPage}: its stored rows, then its computed solutions.
+ * <p>
+ * The stored segment of a puzzle is read from the database by the first query on it, then kept
+ * up to date by writers, which report each change after it is committed, as they do to the
+ * {@link SolutionCache}. Changes to a puzzle that is not indexed yet are ignored, since the first
+ * query reads them. The computed segment is built from the puzzle's {@link ValidityBitmap} and
+ * rebuilt when another bitmap is published.
+ * <p>
+ * Queries share a read lock, so they run concurrently; writers take the write lock. Segments are
+ * built without holding either: a stored segment is only kept if no change was reported while its
+ * rows were read, since that change may be missing from them, otherwise it only serves the query
+ * that read it.
+ */
+@Component
+public class SolutionIndex {
+
+    /**
+     * The computed segment of a puzzle and the bitmap it was built from.
+     */
+    private record ComputedSegment(ValidityBitmap source, DigitIndex index) {
+    }
+
+    private final SolutionRepository solutionRepository;
+
+    private final ComputedSolutionRepository computedSolutions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private final Map<String, DigitIndex> stored = new HashMap<>();
+
+    private final Map<String, ComputedSegment> computed = new ConcurrentHashMap<>();
+
+    /**
+     * Number of changes reported, incremented under the write lock.
+     */
+    private volatile long changes;
+
+    public SolutionIndex(SolutionRepository solutionRepository, ComputedSolutionRepository computedSolutions) {
+        this.solutionRepository = solutionRepository;
+        this.computedSolutions = computedSolutions;
+    }
+
+    /**
+     * Returns one keyset page of the solutions of a puzzle matching a query.
+     *
+     * @param puzzle The puzzle
+     * @param query The query
+     * @param after Only solutions with a greater id are returned; 0 for the first page
+     * @param size The maximum number of solutions to return
+     * @param correct If not null, only solutions with this correctness flag match
+     * @return The page, the number of matching solutions and the cursor of the next page
+     * @throws IllegalArgumentException if the query constrains a cell the puzzle does not have,
+     * or the puzzle's grids cannot be {@linkplain PackedNumbers packed}
+     */
+    public SolutionQueryPage query(Puzzle puzzle, SolutionQuery query, long after, int size, Boolean correct) {
+        List<DigitIndex> segments = new ArrayList<>(2);
+        segments.add(storedSegment(puzzle));
+        DigitIndex computedSegment = computedSegment(puzzle);
+        if (computedSegment != null) {
+            segments.add(computedSegment);
+        }
+
+        lock.readLock().lock();
+        try {
+            return query(puzzle, segments, query, after, size, correct);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static SolutionQueryPage query(Puzzle puzzle, List<DigitIndex> segments, SolutionQuery query, long after,
+                                           int size, Boolean correct) {
+        long total = 0;
+        List<SolutionView> solutions = new ArrayList<>(Math.min(size, 1024));
+        boolean more = false;
+        for (DigitIndex segment : segments) {
+            BitSet matches = segment.match(query, correct);
+            total += matches.cardinality();
+            int ordinal = matches.nextSetBit(segment.firstOrdinalAfter(after));
+            for (; ordinal >= 0 && !more; ordinal = matches.nextSetBit(ordinal + 1)) {
+                if (solutions.size() == size) {
+                    more = true;
+                } else {
+                    int[] numbers = PackedNumbers.unpackToArray(segment.getPackedNumbers(ordinal));
+                    solutions.add(new SolutionView(segment.getId(ordinal), puzzle.getId(), numbers,
+                            segment.isCorrect(ordinal)));
+                }
+            }
+        }
+
+        Long nextCursor = more ? solutions.get(size - 1).id() : null;
+        return new SolutionQueryPage(puzzle.getId(), query.toString(), total, solutions, nextCursor);
+    }
+
+    private DigitIndex storedSegment(Puzzle puzzle) {
+        lock.readLock().lock();
+        try {
+            DigitIndex segment = stored.get(puzzle.getId());
+            if (segment != null) {
+                return segment;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long changesBefore = changes;
+        DigitIndex segment = new DigitIndex(puzzle.getCellCount());
+        for (StoredKey key : solutionRepository.findKeysByPuzzleId(puzzle.getId())) {
+            segment.put(key.getId(), key.getPackedNumbers(), key.getCorrect());
+        }
+
+        lock.writeLock().lock();
+        try {
+            DigitIndex current = stored.get(puzzle.getId());
+            if (current != null) {
+                return current;
+            }
+            if (changes == changesBefore) {
+                stored.put(puzzle.getId(), segment);
+            }
+            return segment;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Computed segments are never changed once built, so they are read and swapped without the lock.
+     */
+    private DigitIndex computedSegment(Puzzle puzzle) {
+        ValidityBitmap source = computedSolutions.getIndex(puzzle.getId()).orElse(null);
+        if (source == null) {
+            computed.remove(puzzle.getId());
+            return null;
+        }
+
+        ComputedSegment current = computed.get(puzzle.getId());
+        if (current != null && current.source() == source) {
+            return current.index();
+        }
+
+        DigitIndex index = new DigitIndex(puzzle.getCellCount());
+        int[] grid = new int[source.getSpace().getCellCount()];
+        source.validRanks().forEach(rank -> {
+            source.getSpace().unrank(rank, grid);
+            index.put(computedSolutions.getId(puzzle.getId(), rank), PackedNumbers.pack(grid), true);
+        });
+        ComputedSegment segment = new ComputedSegment(source, index);
+        if (current == null) {
+            computed.putIfAbsent(puzzle.getId(), segment);
+        } else {
+            computed.replace(puzzle.getId(), current, segment);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes newly stored solutions.
+     */
+    public void added(Collection<Solution> solutions) {
+        change(() -> solutions.forEach(this::put));
+    }
+
+    /**
+     * Indexes the new numbers and correctness of a stored solution.
+     */
+    public void updated(Solution solution) {
+        change(() -> put(solution));
+    }
+
+    public void removed(long id) {
+        change(() -> stored.values().forEach(segment -> segment.remove(id)));
+    }
+
+    /**
+     * Removes the incorrect stored solutions of every puzzle.
+     */
+    public void removedIncorrect() {
+        change(() -> stored.values().forEach(segment -> segment.removeIf(false)));
+    }
+
+    /**
+     * Removes the correct stored solutions of a puzzle, once its computed solutions replace them.
+     */
+    public void removedCorrect(String puzzleId) {
+        change(() -> {
+            DigitIndex segment = stored.get(puzzleId);
+            if (segment != null) {
+                segment.removeIf(true);
+            }
+        });
+    }
+
+    /**
+     * Forgets the stored solutions of a puzzle after a bulk change, such as a generation saving
+     * them; the next query reads them again.
+     */
+    public void reload(String puzzleId) {
+        change(() -> stored.remove(puzzleId));
+    }
+
+    public void cleared() {
+        change(() -> stored.values().forEach(DigitIndex::clear));
+    }
+
+    private void put(Solution solution) {
+        DigitIndex segment = stored.get(solution.getPuzzleId());
+        if (segment != null) {
+            segment.put(solution.getId(), PackedNumbers.pack(solution.getNumbers()), solution.isCorrect());
+        }
+    }
+
+    /**
+     * Applies a change under the write lock and counts it, so a segment read meanwhile is not kept.
+     */
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            changes++;
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
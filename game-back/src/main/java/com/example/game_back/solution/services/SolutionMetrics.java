@@ -0,0 +1,72 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.repositories.SolutionRepository;
+import com.example.game_back.solution.solvers.SearchProgress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters of the solution service, on top of the request and method timers.
+ * <p>
+ * Search counters are recorded once per generation run from its {@link SearchProgress}, and
+ * persistence meters once per saved batch, so the solver loop itself is never instrumented.
+ */
+@Component
+public class SolutionMetrics {
+
+    static final String PUZZLE_TAG = "puzzle";
+
+    private final MeterRegistry registry;
+
+    private final Counter duplicates;
+
+    private final DistributionSummary batchSizes;
+
+    private final Timer batchTimer;
+
+    public SolutionMetrics(MeterRegistry registry, SolutionRepository solutionRepository) {
+        this.registry = registry;
+        this.duplicates = Counter.builder("game.solutions.duplicates")
+                .description("Proposed solutions that were already stored")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("game.persistence.batch.size")
+                .description("Solutions saved per batch while generating")
+                .baseUnit("rows")
+                .register(registry);
+        this.batchTimer = Timer.builder("game.persistence.batch")
+                .description("Time to save one batch of generated solutions")
+                .register(registry);
+        Gauge.builder("game.solutions.stored", solutionRepository, SolutionRepository::count)
+                .description("Solutions in the database")
+                .baseUnit("rows")
+                .register(registry);
+    }
+
+    /**
+     * Adds the counters of a finished, cancelled or failed search to the puzzle's totals.
+     */
+    public void recordSearch(String puzzleId, SearchProgress progress) {
+        registry.counter("game.solver.nodes.visited", PUZZLE_TAG, puzzleId).increment(progress.getNodesVisited());
+        registry.counter("game.solver.nodes.pruned", PUZZLE_TAG, puzzleId).increment(progress.getNodesPruned());
+        registry.counter("game.solver.solutions.found", PUZZLE_TAG, puzzleId).increment(progress.getSolutionsFound());
+    }
+
+    public void recordBatch(int size, long nanos) {
+        batchSizes.record(size);
+        batchTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDuplicate() {
+        duplicates.increment();
+    }
+
+    public void recordDuplicates(int count) {
+        duplicates.increment(count);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.equations.Term;
+import com.example.game_back.solution.indexes.PermutationSpace;
+import com.example.game_back.solution.indexes.ValueIndex;
+import com.example.game_back.solution.models.TargetHistogram;
+import com.example.game_back.solution.models.TargetSolutions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Solutions of a puzzle for any target, from {@link ValueIndex}es of the puzzle expressions.
+ * <p>
+ * An index is built on the first request for an expression and digit set, and kept in a cache
+ * bounded by the memory of the indexes ({@code game.values.max-size}). It is keyed by the
+ * expression rather than the puzzle, so puzzles that only differ by their target share it, and a
+ * puzzle whose expression is redefined gets a new one. Concurrent requests for an index being
+ * built wait for it. Hit and miss counts are published as the {@code cache.gets} metric of the
+ * {@code value-indexes} cache.
+ */
+@Slf4j
+@Service
+public class ValueIndexService {
+
+    /**
+     * Identifies the index of an expression over a digit set.
+     */
+    record IndexKey(List<Term> terms, int cellCount, List<Integer> digits) {
+
+        static IndexKey of(Puzzle puzzle) {
+            return new IndexKey(puzzle.getEquation().getTerms(), puzzle.getCellCount(),
+                    Arrays.stream(puzzle.getDigits()).boxed().toList());
+        }
+    }
+
+    private final PuzzleRegistry puzzleRegistry;
+
+    private final long maxBytes;
+
+    private final int defaultPageSize;
+
+    private final Cache<IndexKey, ValueIndex> indexes;
+
+    public ValueIndexService(PuzzleRegistry puzzleRegistry, MeterRegistry meterRegistry,
+                             @Value("${game.values.max-size:64MB}") DataSize maxSize,
+                             @Value("${game.api.page-size:50}") int defaultPageSize) {
+        this.puzzleRegistry = puzzleRegistry;
+        this.maxBytes = maxSize.toBytes();
+        this.defaultPageSize = defaultPageSize;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, maxBytes / 1024))
+                .weigher((IndexKey key, ValueIndex index) -> (int) Math.min(Integer.MAX_VALUE,
+                        index.getMemorySize() / 1024 + 1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "value-indexes");
+    }
+
+    /**
+     * Counts the grids of a puzzle reaching each target.
+     *
+     * @param puzzleId The id of the puzzle
+     * @param integral Whether to only report integer targets, the ones an equation can have
+     * @param top If not null, only report this many targets, those with the most solutions first
+     * @return The histogram, or empty if the puzzle is unknown
+     * @throws IllegalArgumentException if the puzzle has too many grids to index
+     */
+    public Optional<TargetHistogram> histogram(String puzzleId, boolean integral, Integer top) {
+        return puzzleRegistry.find(puzzleId).map(puzzle -> {
+            ValueIndex index = index(puzzle);
+            IntStream values = IntStream.range(0, index.size()).filter(value -> !integral || index.isInteger(value));
+
+            int[] selected;
+            int targetCount;
+            if (top == null) {
+                selected = values.toArray();
+                targetCount = selected.length;
+            } else {
+                int[] all = values.toArray();
+                targetCount = all.length;
+                selected = Arrays.stream(all).boxed()
+                        .sorted(Comparator.comparingInt(index::count).reversed())
+                        .limit(top)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+
+            List<TargetHistogram.Entry> targets = new ArrayList<>(selected.length);
+            for (int value : selected) {
+                targets.add(new TargetHistogram.Entry(
+                        format(index.getNumerator(value), index.getDenominator(value)), index.count(value)));
+            }
+            return new TargetHistogram(puzzleId, puzzle.getEquation().getExpression(), index.getDefinedCount(),
+                    index.getUndefinedCount(), targetCount, targets);
+        });
+    }
+
+    /**
+     * Returns one page of the grids of a puzzle reaching a target, in lexicographic order.
+     *
+     * @param puzzleId The id of the puzzle
+     * @param target The target, an integer or a fraction such as {@code 173/2}
+     * @param after Only grids after this cursor are returned; null for the first page
+     * @param size The maximum number of grids to return; null for the configured default
+     * @return The page, or empty if the puzzle is unknown
+     * @throws IllegalArgumentException if the target is not a number, or the puzzle has too many
+     * grids to index
+     */
+    public Optional<TargetSolutions> solutions(String puzzleId, String target, Long after, Integer size) {
+        long[] fraction = parseTarget(target);
+        int pageSize = size == null ? defaultPageSize : size;
+        return puzzleRegistry.find(puzzleId).map(puzzle -> {
+            ValueIndex index = index(puzzle);
+            String expression = puzzle.getEquation().getExpression();
+            String normalized = format(fraction[0], fraction[1]);
+            int value = index.find(fraction[0], fraction[1]);
+            if (value < 0) {
+                return new TargetSolutions(puzzleId, expression, normalized, 0, List.of(), null);
+            }
+
+            int count = index.count(value);
+            int from = after == null ? 0 : index.indexAfter(value, after);
+            int to = Math.min(count, from + pageSize);
+            List<List<Integer>> solutions = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                solutions.add(Arrays.stream(index.getSpace().unrank(index.getRank(value, i))).boxed().toList());
+            }
+            Long nextCursor = to < count ? (long) index.getRank(value, to - 1) : null;
+            return new TargetSolutions(puzzleId, expression, normalized, count, solutions, nextCursor);
+        });
+    }
+
+    private ValueIndex index(Puzzle puzzle) {
+        if (!PermutationSpace.isIndexable(puzzle)
+                || 4L * PermutationSpace.of(puzzle).size() > maxBytes) {
+            throw new IllegalArgumentException("Puzzle '" + puzzle.getId()
+                    + "' has too many grids to index within " + DataSize.ofBytes(maxBytes));
+        }
+
+        return indexes.get(IndexKey.of(puzzle), key -> {
+            long startTime = System.nanoTime();
+            ValueIndex index = ValueIndex.build(puzzle);
+            log.info("Indexed {} values of '{}' over {} grids in {} ms", index.size(),
+                    puzzle.getEquation().getExpression(), index.getSpace().size(),
+                    (System.nanoTime() - startTime) / 1_000_000);
+            return index;
+        });
+    }
+
+    /**
+     * Parses a target written as an integer or a fraction.
+     *
+     * @return The reduced numerator and positive denominator
+     */
+    static long[] parseTarget(String text) {
+        String[] parts = text.trim().split("/", 2);
+        try {
+            long numerator = Long.parseLong(parts[0].trim());
+            long denominator = parts.length == 2 ? Long.parseLong(parts[1].trim()) : 1;
+            if (denominator <= 0) {
+                throw new IllegalArgumentException("The denominator of a target must be positive, got '" + text + "'");
+            }
+            long gcd = gcd(Math.abs(numerator), denominator);
+            return new long[]{numerator / gcd, denominator / gcd};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid target '" + text + "'", e);
+        }
+    }
+
+    static String format(long numerator, long denominator) {
+        return denominator == 1 ? Long.toString(numerator) : numerator + "/" + denominator;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.CompiledEquation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the completions of a partially filled grid, with the pruning of {@link EquationSolver}:
+ * cells are assigned in {@link CompiledEquation#getOrder()}, a filled cell only takes its own
+ * digit, and the digits of filled cells are kept out of the empty ones. Besides the count, the
+ * search reports which digits each empty cell takes in at least one completion, and can list the
+ * first completions in search order.
+ * <p>
+ * Once the divisor cells are assigned, the completions below a node only depend on the scaled
+ * remainder of the equation, the known factor of every incomplete term (its multiplier times its
+ * assigned cells), the digits still free and the filled cells left. Nodes are memoized under that
+ * key in a {@link Memo} shared between searches of the same equation, so grids that reach the same
+ * remainder by different assignments, and later hints on the same game, reuse the subtree.
+ * <p>
+ * The memo must be thread-safe when shared; a search instance keeps its own scratch state
+ * and is not thread-safe.
+ */
+public final class CompletionSearch {
+
+    /**
+     * The completions below a node.
+     *
+     * @param count Number of completions
+     * @param viable Per remaining depth, from the node's depth on, the digits taken in at least
+     *               one completion
+     */
+    public record Node(long count, long[] viable) {
+
+        static final Node LEAF = new Node(1, new long[0]);
+    }
+
+    /**
+     * Memo key of a node: its depth, free digits, scaled remainder, known term factors and the
+     * digits of the filled cells left.
+     */
+    public record StateKey(long[] values) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+
+    /**
+     * Where counted nodes are kept between searches.
+     */
+    public interface Memo {
+
+        /**
+         * @return The node counted under this key, or null
+         */
+        Node get(StateKey key);
+
+        void put(StateKey key, Node node);
+
+        static Memo of(Map<StateKey, Node> map) {
+            return new Memo() {
+                @Override
+                public Node get(StateKey key) {
+                    return map.get(key);
+                }
+
+                @Override
+                public void put(StateKey key, Node node) {
+                    map.put(key, node);
+                }
+            };
+        }
+    }
+
+    /**
+     * Result of a search.
+     *
+     * @param count Number of completions of the grid
+     * @param viableDigits Per cell in position order, the digits it holds in at least one completion
+     * @param completions The first completions in search order
+     */
+    public record Result(long count, long[] viableDigits, List<int[]> completions) {
+    }
+
+    private final CompiledEquation equation;
+
+    private final Memo memo;
+
+    private final int cellCount;
+
+    private final int[] order;
+
+    private final int denominatorDepth;
+
+    private final int[] numbers;
+
+    private final int[] filled;
+
+    private final long[] partials;
+
+    private final long[] multipliers;
+
+    private final long[] gcds;
+
+    private long scaledTarget;
+
+    private long nodesVisited;
+
+    /**
+     * @param equation The compiled equation
+     * @param memo Nodes already counted for this equation; receives the new ones
+     */
+    public CompletionSearch(CompiledEquation equation, Memo memo) {
+        this.equation = equation;
+        this.memo = memo;
+        this.cellCount = equation.getCellCount();
+        this.order = equation.getOrder();
+        this.denominatorDepth = equation.getDenominatorDepth();
+        this.numbers = new int[cellCount];
+        this.filled = new int[cellCount];
+        this.partials = new long[cellCount + 1];
+        this.multipliers = new long[equation.getTermCount()];
+        this.gcds = new long[cellCount + 1];
+    }
+
+    /**
+     * Searches the completions of a grid.
+     *
+     * @param grid The grid in position order, -1 for an empty cell
+     * @param limit The maximum number of completions to list
+     * @return The completions; none if the filled cells repeat a digit or use one outside the digit set
+     * @throws IllegalArgumentException if the grid does not have one entry per cell
+     */
+    public Result search(int[] grid, int limit) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " cells, got " + grid.length);
+        }
+        long[] viableDigits = new long[cellCount];
+        Result none = new Result(0, viableDigits, List.of());
+
+        long available = equation.getDigitMask();
+        for (int cell = 0; cell < cellCount; cell++) {
+            filled[cell] = grid[cell];
+            if (grid[cell] >= 0) {
+                long bit = grid[cell] < 64 ? 1L << grid[cell] : 0;
+                if ((available & bit) == 0) {
+                    return none;
+                }
+                available &= ~bit;
+            }
+        }
+        if (denominatorDepth == 0 && !prepareScale(0)) {
+            return none;
+        }
+
+        Node root = explore(0, available, reservedFrom(0));
+        for (int depth = 0; depth < root.viable().length; depth++) {
+            viableDigits[order[depth]] = root.viable()[depth];
+        }
+
+        List<int[]> completions = new ArrayList<>(Math.min(limit, 64));
+        if (root.count() > 0 && limit > 0) {
+            collect(0, available, reservedFrom(0), limit, completions);
+        }
+        return new Result(root.count(), viableDigits, completions);
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Digits of the filled cells at {@code depth} and after in the assignment order.
+     */
+    private long reservedFrom(int depth) {
+        long reserved = 0;
+        for (int d = depth; d < cellCount; d++) {
+            if (filled[order[d]] >= 0) {
+                reserved |= 1L << filled[order[d]];
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Counts the completions below the node at {@code depth}, positions before it being assigned.
+     *
+     * @param available Digits free for the empty cells
+     * @param reserved Digits of the filled cells not yet assigned
+     */
+    private Node explore(int depth, long available, long reserved) {
+        if (depth == cellCount) {
+            return Node.LEAF;
+        }
+        StateKey key = depth >= denominatorDepth ? stateKey(depth, available) : null;
+        if (key != null) {
+            Node known = memo.get(key);
+            if (known != null) {
+                return known;
+            }
+        }
+
+        long count = 0;
+        long[] viable = new long[cellCount - depth];
+        int fixed = filled[order[depth]];
+        long candidates = fixed >= 0 ? 1L << fixed : available;
+        for (; candidates != 0; candidates &= candidates - 1) {
+            int digit = Long.numberOfTrailingZeros(candidates);
+            long bit = 1L << digit;
+            long nextAvailable = fixed >= 0 ? available : available & ~bit;
+            long nextReserved = fixed >= 0 ? reserved & ~bit : reserved;
+            nodesVisited++;
+            if (!place(depth, digit, nextAvailable | nextReserved)) {
+                continue;
+            }
+
+            Node child = explore(depth + 1, nextAvailable, nextReserved);
+            if (child.count() > 0) {
+                count += child.count();
+                viable[0] |= bit;
+                for (int i = 0; i < child.viable().length; i++) {
+                    viable[i + 1] |= child.viable()[i];
+                }
+            }
+        }
+
+        Node node = new Node(count, viable);
+        if (key != null) {
+            memo.put(key, node);
+        }
+        return node;
+    }
+
+    /**
+     * Lists completions below the node at {@code depth} in search order, entering only the
+     * branches the memo reports as having some.
+     */
+    private void collect(int depth, long available, long reserved, int limit, List<int[]> completions) {
+        if (depth == cellCount) {
+            completions.add(numbers.clone());
+            return;
+        }
+
+        int fixed = filled[order[depth]];
+        long candidates = fixed >= 0 ? 1L << fixed : available;
+        for (; candidates != 0 && completions.size() < limit; candidates &= candidates - 1) {
+            int digit = Long.numberOfTrailingZeros(candidates);
+            long bit = 1L << digit;
+            long nextAvailable = fixed >= 0 ? available : available & ~bit;
+            long nextReserved = fixed >= 0 ? reserved & ~bit : reserved;
+            if (place(depth, digit, nextAvailable | nextReserved)
+                    && explore(depth + 1, nextAvailable, nextReserved).count() > 0) {
+                collect(depth + 1, nextAvailable, nextReserved, limit, completions);
+            }
+        }
+    }
+
+    private StateKey stateKey(int depth, long available) {
+        int entries = equation.boundStart(depth + 1) - equation.boundStart(depth);
+        long[] values = new long[3 + entries + cellCount - depth];
+        int i = 0;
+        values[i++] = depth;
+        values[i++] = available;
+        values[i++] = scaledTarget - partials[depth];
+        for (int entry = equation.boundStart(depth); entry < equation.boundStart(depth + 1); entry++) {
+            long known = multipliers[equation.getBoundTerm(entry)];
+            for (int c = equation.boundAssignedStart(entry); c < equation.boundAssignedStart(entry + 1); c++) {
+                known *= numbers[equation.getBoundAssignedCell(c)];
+            }
+            values[i++] = known;
+        }
+        for (int d = depth; d < cellCount; d++) {
+            values[i++] = filled[order[d]];
+        }
+        return new StateKey(values);
+    }
+
+    /**
+     * Assigns {@code digit} to the position at {@code depth}, records the partial sum for the
+     * next depth and reports whether the branch is still feasible.
+     *
+     * @param pool Digits left for the positions after {@code depth}, filled ones included
+     */
+    private boolean place(int depth, int digit, long pool) {
+        numbers[order[depth]] = digit;
+        int next = depth + 1;
+        if (next < denominatorDepth) {
+            return true;
+        }
+        if (next == denominatorDepth && !prepareScale(next)) {
+            return false;
+        }
+
+        long partial = next == denominatorDepth ? 0 : partials[depth];
+        for (int i = equation.completionStart(next); i < equation.completionStart(next + 1); i++) {
+            int term = equation.getCompletionTerm(i);
+            long value = multipliers[term];
+            for (int c = equation.cellStart(term); c < equation.cellStart(term + 1); c++) {
+                value *= numbers[equation.cell(c)];
+            }
+            partial += value;
+        }
+        partials[next] = partial;
+
+        return isFeasible(next, pool, partial);
+    }
+
+    /**
+     * Computes the term multipliers and per-depth gcds once every divisor cell has a value.
+     *
+     * @return false if a divisor is zero
+     */
+    private boolean prepareScale(int depth) {
+        long scale = equation.computeMultipliers(numbers, multipliers);
+        if (scale == 0) {
+            return false;
+        }
+        scaledTarget = equation.getTarget() * scale;
+
+        for (int d = depth; d < cellCount; d++) {
+            long gcd = 0;
+            for (int entry = equation.boundStart(d); entry < equation.boundStart(d + 1); entry++) {
+                gcd = gcd(gcd, Math.abs(multipliers[equation.getBoundTerm(entry)]));
+            }
+            gcds[d] = gcd;
+        }
+        partials[depth] = 0;
+        return true;
+    }
+
+    private boolean isFeasible(int depth, long pool, long partial) {
+        long gap = scaledTarget - partial;
+        if (depth == cellCount) {
+            return gap == 0;
+        }
+        if (pool == 0) {
+            return false;
+        }
+
+        long gcd = gcds[depth];
+        if (gcd == 0) {
+            return gap == 0;
+        }
+        if (gap % gcd != 0) {
+            return false;
+        }
+
+        long lo = Long.numberOfTrailingZeros(pool);
+        long hi = 63 - Long.numberOfLeadingZeros(pool);
+        long min = 0;
+        long max = 0;
+
+        for (int entry = equation.boundStart(depth); entry < equation.boundStart(depth + 1); entry++) {
+            long known = multipliers[equation.getBoundTerm(entry)];
+            for (int i = equation.boundAssignedStart(entry); i < equation.boundAssignedStart(entry + 1); i++) {
+                known *= numbers[equation.getBoundAssignedCell(i)];
+            }
+
+            long low = known;
+            long high = known;
+            for (int p = equation.getBoundPower(entry); p > 0; p--) {
+                low *= lo;
+                high *= hi;
+            }
+
+            if (known >= 0) {
+                min += low;
+                max += high;
+            } else {
+                min += high;
+                max += low;
+            }
+        }
+
+        return min <= gap && gap <= max;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
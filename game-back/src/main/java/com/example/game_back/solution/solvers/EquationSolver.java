@@ -0,0 +1,281 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.CellSymmetry;
+import com.example.game_back.solution.equations.CompiledEquation;
+
+import java.util.Arrays;
+
+/**
+ * Depth-first search for the grids of any {@link CompiledEquation}, with the same pruning as
+ * {@link PruningSolver} derived from the compiled search plan instead of being written by hand.
+ * <p>
+ * Cells are assigned in {@link CompiledEquation#getOrder()}: divisor cells first, after which
+ * every term has an integer multiplier and the equation is tracked scaled by the product of all
+ * denominators. A branch is cut when the scaled remainder is not a multiple of the gcd of the
+ * incomplete terms' multipliers, or lies outside the range the incomplete terms can reach with
+ * the smallest and largest digits left.
+ * <p>
+ * Given a {@link CellSymmetry}, the solver only visits canonical grids: a cell of a group of
+ * interchangeable cells is only given digits above the previous cell of its group and below the
+ * next one, whichever of them is already assigned. Each canonical grid stands for
+ * {@link CellSymmetry#getClassSize()} solutions, which the sink can expand with
+ * {@link CellSymmetry#forEachVariant(int[], SolutionSink)}.
+ * <p>
+ * A solver instance keeps its own scratch state and is not thread-safe.
+ */
+public final class EquationSolver implements Solver {
+
+    private final CompiledEquation equation;
+
+    private final SolutionSink sink;
+
+    private final int cellCount;
+
+    private final int[] order;
+
+    private final int denominatorDepth;
+
+    private final int[] numbers;
+
+    private final long[] partials;
+
+    private final long[] multipliers;
+
+    private final long[] gcds;
+
+    /**
+     * Per depth, the already assigned cell whose digit must be smaller in a canonical grid, or -1.
+     */
+    private final int[] lowerCells;
+
+    /**
+     * Per depth, the already assigned cell whose digit must be larger in a canonical grid, or -1.
+     */
+    private final int[] upperCells;
+
+    private long scaledTarget;
+
+    private long nodesVisited;
+
+    private long nodesPruned;
+
+    public EquationSolver(CompiledEquation equation, SolutionSink sink) {
+        this(equation, null, sink);
+    }
+
+    /**
+     * Creates a solver that only reports the canonical grids of {@code symmetry}'s classes.
+     *
+     * @param equation The compiled equation
+     * @param symmetry Interchangeable cells of the equation, or null to report every grid
+     * @param sink Receives each solution found
+     */
+    public EquationSolver(CompiledEquation equation, CellSymmetry symmetry, SolutionSink sink) {
+        this.equation = equation;
+        this.sink = sink;
+        this.cellCount = equation.getCellCount();
+        this.order = equation.getOrder();
+        this.denominatorDepth = equation.getDenominatorDepth();
+        this.numbers = new int[cellCount];
+        this.partials = new long[cellCount + 1];
+        this.multipliers = new long[equation.getTermCount()];
+        this.gcds = new long[cellCount + 1];
+        this.lowerCells = new int[cellCount];
+        this.upperCells = new int[cellCount];
+        Arrays.fill(lowerCells, -1);
+        Arrays.fill(upperCells, -1);
+
+        if (symmetry != null) {
+            int[] depthOf = new int[cellCount];
+            for (int depth = 0; depth < cellCount; depth++) {
+                depthOf[order[depth]] = depth;
+            }
+            for (int depth = 0; depth < cellCount; depth++) {
+                int previous = symmetry.previousCell(order[depth]);
+                int next = symmetry.nextCell(order[depth]);
+                lowerCells[depth] = previous >= 0 && depthOf[previous] < depth ? previous : -1;
+                upperCells[depth] = next >= 0 && depthOf[next] < depth ? next : -1;
+            }
+        }
+    }
+
+    @Override
+    public void search(int... prefix) {
+        if (prefix.length > cellCount) {
+            return;
+        }
+        if (denominatorDepth == 0 && !prepareScale(0)) {
+            return;
+        }
+
+        long available = equation.getDigitMask();
+        for (int depth = 0; depth < prefix.length; depth++) {
+            int digit = prefix[depth];
+            long bit = digit >= 0 && digit < 64 ? 1L << digit : 0;
+            if ((available & bit & canonicalDigits(depth)) == 0) {
+                return;
+            }
+
+            available &= ~bit;
+            if (!place(depth, digit, available)) {
+                return;
+            }
+        }
+
+        assign(prefix.length, available);
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public long getNodesPruned() {
+        return nodesPruned;
+    }
+
+    private void assign(int depth, long available) {
+        if (depth == cellCount) {
+            sink.accept(numbers);
+            return;
+        }
+
+        for (long candidates = available & canonicalDigits(depth); candidates != 0; candidates &= candidates - 1) {
+            int digit = Long.numberOfTrailingZeros(candidates);
+            nodesVisited++;
+
+            long remaining = available & ~(1L << digit);
+            if (place(depth, digit, remaining)) {
+                assign(depth + 1, remaining);
+            } else {
+                nodesPruned++;
+            }
+        }
+    }
+
+    /**
+     * Digits allowed at {@code depth} by the ordering of its group's assigned cells; every digit
+     * when the solver reports all grids.
+     */
+    private long canonicalDigits(int depth) {
+        long mask = -1L;
+        int lower = lowerCells[depth];
+        if (lower >= 0) {
+            mask &= -(2L << numbers[lower]);
+        }
+        int upper = upperCells[depth];
+        if (upper >= 0) {
+            mask &= (1L << numbers[upper]) - 1;
+        }
+        return mask;
+    }
+
+    /**
+     * Assigns {@code digit} to the position at {@code depth}, records the partial sum for the
+     * next depth and reports whether the branch is still feasible.
+     */
+    private boolean place(int depth, int digit, long available) {
+        numbers[order[depth]] = digit;
+        int next = depth + 1;
+        if (next < denominatorDepth) {
+            return true;
+        }
+        if (next == denominatorDepth && !prepareScale(next)) {
+            return false;
+        }
+
+        long partial = next == denominatorDepth ? 0 : partials[depth];
+        for (int i = equation.completionStart(next); i < equation.completionStart(next + 1); i++) {
+            int term = equation.getCompletionTerm(i);
+            long value = multipliers[term];
+            for (int c = equation.cellStart(term); c < equation.cellStart(term + 1); c++) {
+                value *= numbers[equation.cell(c)];
+            }
+            partial += value;
+        }
+        partials[next] = partial;
+
+        return isFeasible(next, available, partial);
+    }
+
+    /**
+     * Computes the term multipliers and per-depth gcds once every divisor cell has a value.
+     *
+     * @return false if a divisor is zero
+     */
+    private boolean prepareScale(int depth) {
+        long scale = equation.computeMultipliers(numbers, multipliers);
+        if (scale == 0) {
+            return false;
+        }
+        scaledTarget = equation.getTarget() * scale;
+
+        for (int d = depth; d < cellCount; d++) {
+            long gcd = 0;
+            for (int entry = equation.boundStart(d); entry < equation.boundStart(d + 1); entry++) {
+                gcd = gcd(gcd, Math.abs(multipliers[equation.getBoundTerm(entry)]));
+            }
+            gcds[d] = gcd;
+        }
+        partials[depth] = 0;
+        return true;
+    }
+
+    private boolean isFeasible(int depth, long available, long partial) {
+        long gap = scaledTarget - partial;
+        if (depth == cellCount) {
+            return gap == 0;
+        }
+
+        if (available == 0) {
+            return false;
+        }
+
+        long gcd = gcds[depth];
+        if (gcd == 0) {
+            return gap == 0;
+        }
+        if (gap % gcd != 0) {
+            return false;
+        }
+
+        long lo = Long.numberOfTrailingZeros(available);
+        long hi = 63 - Long.numberOfLeadingZeros(available);
+        long min = 0;
+        long max = 0;
+
+        for (int entry = equation.boundStart(depth); entry < equation.boundStart(depth + 1); entry++) {
+            long known = multipliers[equation.getBoundTerm(entry)];
+            for (int i = equation.boundAssignedStart(entry); i < equation.boundAssignedStart(entry + 1); i++) {
+                known *= numbers[equation.getBoundAssignedCell(i)];
+            }
+
+            long low = known;
+            long high = known;
+            for (int p = equation.getBoundPower(entry); p > 0; p--) {
+                low *= lo;
+                high *= hi;
+            }
+
+            if (known >= 0) {
+                min += low;
+                max += high;
+            } else {
+                min += high;
+                max += low;
+            }
+        }
+
+        return min <= gap && gap <= max;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
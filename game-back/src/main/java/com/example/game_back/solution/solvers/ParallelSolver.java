@@ -0,0 +1,274 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.CellSymmetry;
+import com.example.game_back.solution.equations.Puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs a puzzle's {@link Solver} on a {@link ForkJoinPool}, split into one task per assignment
+ * of the first {@code splitDepth} positions (9 tasks at depth 1, 72 at depth 2 for the classic
+ * puzzle).
+ * <p>
+ * Each leaf task owns its solver, scratch arrays and result list. Results are merged by joining
+ * the subtasks in digit order, so no collection is ever shared between threads and the final,
+ * sorted result is identical to the sequential search. With a parallelism of 1 the same tasks
+ * run one after another on the calling thread.
+ * <p>
+ * With symmetry reduction, each task only searches the canonical grids of the puzzle's
+ * {@link CellSymmetry} and expands every one found into its whole class, so the solutions are
+ * the same while the search visits proportionally fewer nodes. {@link #findCanonical(Puzzle)}
+ * returns the canonical grids without expanding them.
+ */
+public final class ParallelSolver implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    private final int splitDepth;
+
+    private final boolean symmetryReduction;
+
+    /**
+     * @param parallelism Worker threads to use; 0 means one per available processor, and 1 runs
+     *                    the search on the calling thread
+     * @param splitDepth Number of leading positions (1 or 2) to split the search tree on
+     */
+    public ParallelSolver(int parallelism, int splitDepth) {
+        this(parallelism, splitDepth, false);
+    }
+
+    /**
+     * @param parallelism Worker threads to use; 0 means one per available processor, and 1 runs
+     *                    the search on the calling thread
+     * @param splitDepth Number of leading positions (1 or 2) to split the search tree on
+     * @param symmetryReduction Whether to search canonical grids only and expand them into their
+     *                          classes
+     */
+    public ParallelSolver(int parallelism, int splitDepth, boolean symmetryReduction) {
+        if (splitDepth < 1 || splitDepth > 2) {
+            throw new IllegalArgumentException("splitDepth must be 1 or 2, got " + splitDepth);
+        }
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        this.splitDepth = splitDepth;
+        this.symmetryReduction = symmetryReduction;
+    }
+
+    /**
+     * Finds every solution of a puzzle, sorted in lexicographic grid order.
+     *
+     * @param puzzle The puzzle to solve
+     * @return The solutions and the number of nodes visited
+     */
+    public SearchResult findAll(Puzzle puzzle) {
+        return findAll(puzzle, new SearchProgress());
+    }
+
+    /**
+     * Finds every solution of a puzzle, reporting progress as search tasks finish.
+     *
+     * @param puzzle The puzzle to solve
+     * @param progress Receives the node and solution counts, and cancels the search when
+     *                 {@linkplain SearchProgress#cancel() cancelled}
+     * @return The solutions, sorted in lexicographic grid order, and the number of nodes visited
+     * @throws CancellationException if the search was cancelled before it finished
+     */
+    public SearchResult findAll(Puzzle puzzle, SearchProgress progress) {
+        return collect(puzzle, progress, defaultEnumeration());
+    }
+
+    /**
+     * Finds one solution per class of grids that only differ by swapping interchangeable cells:
+     * the canonical grid, whose values increase with the position inside every group of
+     * {@link Puzzle#getSymmetry()}. Each stands for {@code getClassSize()} solutions.
+     *
+     * @param puzzle The puzzle to solve
+     * @return The canonical solutions, sorted in lexicographic grid order, and the number of
+     *         nodes visited
+     */
+    public SearchResult findCanonical(Puzzle puzzle) {
+        return collect(puzzle, new SearchProgress(), Enumeration.CANONICAL);
+    }
+
+    private SearchResult collect(Puzzle puzzle, SearchProgress progress, Enumeration enumeration) {
+        PrefixTask root = new PrefixTask(puzzle, enumeration, progress, null, new int[0],
+                Math.min(splitDepth, puzzle.getCellCount()));
+        SearchResult result = pool == null ? root.invoke() : pool.invoke(root);
+        if (progress.isCancelled()) {
+            throw new CancellationException("Search cancelled for puzzle '" + puzzle.getId() + "'");
+        }
+
+        result.solutions().sort(Arrays::compare);
+        return result;
+    }
+
+    /**
+     * Passes every solution of a puzzle to {@code sink} as it is found, without collecting them.
+     * The sink is called from the worker threads concurrently and in no particular order; the
+     * array it receives is reused after the call returns.
+     * <p>
+     * If the sink throws, the progress is cancelled so the remaining tasks are skipped, and the
+     * exception is rethrown.
+     *
+     * @param puzzle The puzzle to solve
+     * @param progress Receives the node and solution counts, and cancels the search when
+     *                 {@linkplain SearchProgress#cancel() cancelled}
+     * @param sink Thread-safe receiver of the solutions
+     * @return The number of nodes visited
+     * @throws CancellationException if the search was cancelled before it finished
+     */
+    public long forEach(Puzzle puzzle, SearchProgress progress, SolutionSink sink) {
+        PrefixTask root = new PrefixTask(puzzle, defaultEnumeration(), progress, sink, new int[0],
+                Math.min(splitDepth, puzzle.getCellCount()));
+        SearchResult result = pool == null ? root.invoke() : pool.invoke(root);
+        if (progress.isCancelled()) {
+            throw new CancellationException("Search cancelled for puzzle '" + puzzle.getId() + "'");
+        }
+        return result.nodesVisited();
+    }
+
+    private Enumeration defaultEnumeration() {
+        return symmetryReduction ? Enumeration.EXPANDED : Enumeration.ALL;
+    }
+
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    public boolean isSymmetryReduction() {
+        return symmetryReduction;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Which grids a search reports.
+     */
+    private enum Enumeration {
+
+        /**
+         * Every solution, each searched on its own.
+         */
+        ALL,
+
+        /**
+         * Every solution, expanded from the canonical ones.
+         */
+        EXPANDED,
+
+        /**
+         * The canonical solutions only.
+         */
+        CANONICAL
+    }
+
+    private static final class PrefixTask extends RecursiveTask<SearchResult> {
+
+        private final Puzzle puzzle;
+
+        private final Enumeration enumeration;
+
+        private final SearchProgress progress;
+
+        /**
+         * Shared receiver of the solutions, or null to collect them in the task's result.
+         */
+        private final SolutionSink sink;
+
+        private final int[] prefix;
+
+        private final int splitDepth;
+
+        private PrefixTask(Puzzle puzzle, Enumeration enumeration, SearchProgress progress, SolutionSink sink,
+                           int[] prefix, int splitDepth) {
+            this.puzzle = puzzle;
+            this.enumeration = enumeration;
+            this.progress = progress;
+            this.sink = sink;
+            this.prefix = prefix;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected SearchResult compute() {
+            if (progress.isCancelled()) {
+                return new SearchResult(new ArrayList<>(), 0);
+            }
+            if (prefix.length == splitDepth) {
+                return search();
+            }
+
+            List<PrefixTask> subtasks = new ArrayList<>();
+            for (int digit : puzzle.getDigits()) {
+                if (!contains(prefix, digit)) {
+                    int[] child = Arrays.copyOf(prefix, prefix.length + 1);
+                    child[prefix.length] = digit;
+                    subtasks.add(new PrefixTask(puzzle, enumeration, progress, sink, child, splitDepth));
+                }
+            }
+            if (inForkJoinPool()) {
+                invokeAll(subtasks);
+            } else {
+                subtasks.forEach(PrefixTask::invoke);
+            }
+
+            List<int[]> solutions = new ArrayList<>();
+            long nodesVisited = subtasks.size();
+            progress.add(subtasks.size(), 0, 0);
+            for (PrefixTask subtask : subtasks) {
+                SearchResult partial = subtask.join();
+                solutions.addAll(partial.solutions());
+                nodesVisited += partial.nodesVisited();
+            }
+            return new SearchResult(solutions, nodesVisited);
+        }
+
+        private SearchResult search() {
+            List<int[]> solutions = new ArrayList<>();
+            int[] found = new int[1];
+            SolutionSink target = sink == null
+                    ? numbers -> solutions.add(numbers.clone())
+                    : numbers -> {
+                        found[0]++;
+                        sink.accept(numbers);
+                    };
+            CellSymmetry symmetry = puzzle.getSymmetry();
+            Solver solver = symmetry.isTrivial() ? puzzle.newSolver(target) : switch (enumeration) {
+                case ALL -> puzzle.newSolver(target);
+                case EXPANDED -> puzzle.newCanonicalSolver(
+                        numbers -> symmetry.forEachVariant(numbers, target));
+                case CANONICAL -> puzzle.newCanonicalSolver(target);
+            };
+
+            try {
+                solver.search(prefix);
+            } catch (RuntimeException e) {
+                progress.cancel();
+                throw e;
+            }
+            progress.add(solver.getNodesVisited(), solver.getNodesPruned(),
+                    sink == null ? solutions.size() : found[0]);
+            return new SearchResult(solutions, solver.getNodesVisited());
+        }
+
+        private static boolean contains(int[] digits, int digit) {
+            for (int d : digits) {
+                if (d == digit) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
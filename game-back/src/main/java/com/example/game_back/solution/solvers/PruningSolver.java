@@ -0,0 +1,191 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.models.SolutionValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-first search over the digits 1..9 for grids satisfying
+ * {@code n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87}.
+ * <p>
+ * Positions are assigned divisors first ({@code n3}, {@code n9}), then the large terms
+ * ({@code n2}, {@code n5}), then the product {@code n7*n8} and finally the unit terms.
+ * Once both divisors are known, the equation is tracked scaled by {@code n3*n9} so every partial
+ * sum is an exact integer. A branch is cut when the scaled remainder falls outside the range the
+ * unassigned terms can still reach, or when the fractional terms are complete and the remainder
+ * is not a whole multiple of {@code n3*n9}.
+ * <p>
+ * A solver instance keeps its own scratch state and is not thread-safe.
+ */
+public final class PruningSolver implements Solver {
+
+    /**
+     * Grid positions (zero-based) in the order they are assigned.
+     */
+    static final int[] ORDER = {2, 8, 1, 4, 6, 7, 0, 3, 5};
+
+    /**
+     * Bits 1..9 set: every digit is still available.
+     */
+    static final int ALL_DIGITS = 0b11_1111_1110;
+
+    private static final int FRACTIONS_ASSIGNED = 6;
+
+    private final SolutionSink sink;
+
+    private final int[] numbers = new int[SolutionValidator.SIZE];
+
+    private long denominator;
+
+    private long target;
+
+    private long nodesVisited;
+
+    private long nodesPruned;
+
+    public PruningSolver(SolutionSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * {@inheritDoc} The assignment order starts with {@code n3}, then {@code n9}.
+     */
+    @Override
+    public void search(int... prefix) {
+        int available = ALL_DIGITS;
+        long partial = 0;
+
+        for (int depth = 0; depth < prefix.length; depth++) {
+            int digit = prefix[depth];
+            if (digit < 1 || digit > 9 || (available & (1 << digit)) == 0) {
+                return;
+            }
+
+            numbers[ORDER[depth]] = digit;
+            available &= ~(1 << digit);
+            partial += contribution(ORDER[depth], digit);
+            if (!isFeasible(depth + 1, available, partial)) {
+                return;
+            }
+        }
+
+        assign(prefix.length, available, partial);
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public long getNodesPruned() {
+        return nodesPruned;
+    }
+
+    /**
+     * Finds every solution, sorted in lexicographic grid order.
+     *
+     * @return The solutions and the number of nodes visited
+     */
+    public static SearchResult findAll() {
+        List<int[]> solutions = new ArrayList<>();
+        PruningSolver solver = new PruningSolver(numbers -> solutions.add(numbers.clone()));
+        solver.search();
+        solutions.sort(Arrays::compare);
+        return new SearchResult(solutions, solver.getNodesVisited());
+    }
+
+    private void assign(int depth, int available, long partial) {
+        if (depth == ORDER.length) {
+            sink.accept(numbers);
+            return;
+        }
+
+        int position = ORDER[depth];
+        for (int candidates = available; candidates != 0; candidates &= candidates - 1) {
+            int digit = Integer.numberOfTrailingZeros(candidates);
+            nodesVisited++;
+            numbers[position] = digit;
+
+            int remaining = available & ~(1 << digit);
+            long next = partial + contribution(position, digit);
+            if (isFeasible(depth + 1, remaining, next)) {
+                assign(depth + 1, remaining, next);
+            } else {
+                nodesPruned++;
+            }
+        }
+    }
+
+    /**
+     * Scaled contribution of the term completed by assigning {@code digit} at {@code position}.
+     */
+    private long contribution(int position, int digit) {
+        switch (position) {
+            case 8:
+                denominator = (long) numbers[2] * digit;
+                target = SolutionValidator.TARGET * denominator;
+                return 0;
+            case 1:
+                return 13L * digit * numbers[8];
+            case 4:
+                return 12L * digit * denominator;
+            case 7:
+                return (long) numbers[6] * digit * numbers[2];
+            case 0:
+            case 3:
+                return digit * denominator;
+            case 5:
+                return -digit * denominator;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks whether the terms not yet assigned after {@code depth} positions can still close the
+     * gap between {@code partial} and the target.
+     */
+    private boolean isFeasible(int depth, int available, long partial) {
+        if (depth < 2) {
+            return true;
+        }
+
+        long gap = target - partial;
+        if (depth == ORDER.length) {
+            return gap == 0;
+        }
+        if (depth >= FRACTIONS_ASSIGNED && gap % denominator != 0) {
+            return false;
+        }
+
+        long lo = Integer.numberOfTrailingZeros(available);
+        long hi = 31 - Integer.numberOfLeadingZeros(available);
+        long min = 0;
+        long max = 0;
+
+        if (depth <= 2) {
+            min += 13 * lo * numbers[8];
+            max += 13 * hi * numbers[8];
+        }
+        if (depth <= 3) {
+            min += 12 * lo * denominator;
+            max += 12 * hi * denominator;
+        }
+        if (depth <= 4) {
+            min += lo * lo * numbers[2];
+            max += hi * hi * numbers[2];
+        } else if (depth == 5) {
+            min += lo * numbers[6] * numbers[2];
+            max += hi * numbers[6] * numbers[2];
+        }
+
+        long positiveUnits = Math.min(2, ORDER.length - 1 - depth);
+        min += (positiveUnits * lo - hi) * denominator;
+        max += (positiveUnits * hi - lo) * denominator;
+
+        return min <= gap && gap <= max;
+    }
+}
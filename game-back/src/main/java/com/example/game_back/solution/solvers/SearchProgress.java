@@ -0,0 +1,55 @@
+package com.example.game_back.solution.solvers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of a running {@link ParallelSolver#findAll(com.example.game_back.solution.equations.Puzzle, SearchProgress)}
+ * call, and the flag used to cancel it.
+ * <p>
+ * Counters are updated once per finished search task rather than per node, so reading them
+ * costs the search nothing. Cancellation is cooperative: tasks not yet started are skipped, and
+ * tasks already searching run to completion.
+ */
+public final class SearchProgress {
+
+    private final LongAdder nodesVisited = new LongAdder();
+
+    private final LongAdder nodesPruned = new LongAdder();
+
+    private final LongAdder solutionsFound = new LongAdder();
+
+    private volatile boolean cancelled;
+
+    public long getNodesVisited() {
+        return nodesVisited.sum();
+    }
+
+    public long getNodesPruned() {
+        return nodesPruned.sum();
+    }
+
+    public long getSolutionsFound() {
+        return solutionsFound.sum();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Counts solutions obtained without searching, such as those of an index built earlier.
+     */
+    public void addSolutionsFound(long solutions) {
+        solutionsFound.add(solutions);
+    }
+
+    void add(long nodes, long pruned, int solutions) {
+        nodesVisited.add(nodes);
+        nodesPruned.add(pruned);
+        solutionsFound.add(solutions);
+    }
+}
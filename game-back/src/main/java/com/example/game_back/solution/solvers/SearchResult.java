@@ -0,0 +1,12 @@
+package com.example.game_back.solution.solvers;
+
+import java.util.List;
+
+/**
+ * Outcome of a solver run.
+ *
+ * @param solutions The solutions found, each one a grid in position order
+ * @param nodesVisited The number of search-tree nodes (digit assignments) the solver tried
+ */
+public record SearchResult(List<int[]> solutions, long nodesVisited) {
+}
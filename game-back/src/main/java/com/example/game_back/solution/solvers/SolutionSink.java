@@ -0,0 +1,11 @@
+package com.example.game_back.solution.solvers;
+
+/**
+ * Receives every solution found by a {@link Solver}. The array is the solver's working grid and
+ * is overwritten as the search continues, so it must be copied to be kept.
+ */
+@FunctionalInterface
+public interface SolutionSink {
+
+    void accept(int[] numbers);
+}
@@ -0,0 +1,24 @@
+package com.example.game_back.solution.solvers;
+
+/**
+ * A single-threaded search for the solutions of one puzzle. Solutions are passed to the
+ * {@link SolutionSink} the solver was created with.
+ */
+public interface Solver {
+
+    /**
+     * Runs the part of the search below a fixed prefix. The prefix holds the digits of the first
+     * positions in the solver's assignment order, and its own assignments are not counted as
+     * visited nodes. An empty prefix runs the complete search.
+     *
+     * @param prefix The digits already chosen for the leading positions
+     */
+    void search(int... prefix);
+
+    long getNodesVisited();
+
+    /**
+     * @return The visited nodes whose branch was cut because it could no longer reach the target
+     */
+    long getNodesPruned();
+}
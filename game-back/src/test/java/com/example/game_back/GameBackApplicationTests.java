@@ -1,13 +1,35 @@
 package com.example.game_back;
 
+import com.example.game_back.solution.services.GameSolverService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "game.snapshot.path=")
 class GameBackApplicationTests {
 
+	@Autowired
+	private GameSolverService gameSolverService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void serviceMethods_shouldBeTimed() {
+		gameSolverService.isSolution(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+		assertEquals(1, meterRegistry.get("game.service").tag("method", "isSolution").timer().count());
+		assertNotNull(meterRegistry.get("game.solutions.stored").gauge());
+	}
+
 }
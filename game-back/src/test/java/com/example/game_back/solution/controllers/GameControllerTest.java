@@ -1,23 +1,46 @@
 package com.example.game_back.solution.controllers;
 
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.models.GenerationResult;
+import com.example.game_back.solution.models.Hint;
+import com.example.game_back.solution.models.ProposalResult;
 import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionChange;
+import com.example.game_back.solution.models.SolutionClasses;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionQueryPage;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.models.TargetHistogram;
+import com.example.game_back.solution.models.TargetSolutions;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
 import com.example.game_back.solution.services.GameSolverService;
+import com.example.game_back.solution.services.HintService;
+import com.example.game_back.solution.services.SolutionChangeFeed;
+import com.example.game_back.solution.services.ValueIndexService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,11 +50,21 @@ class GameControllerTest {
 
     private MockMvc mockMvc;
 
-    private ObjectMapper objectMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
     private GameSolverService gameSolverService;
 
+    @Mock
+    private HintService hintService;
+
+    @Mock
+    private ValueIndexService valueIndexService;
+
+    @Mock
+    private SolutionChangeFeed changeFeed;
+
     @InjectMocks
     private GameController gameController;
 
@@ -40,7 +73,6 @@ class GameControllerTest {
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
         mockMvc = MockMvcBuilders.standaloneSetup(gameController).build();
         
         testNumbers = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9);
@@ -49,24 +81,241 @@ class GameControllerTest {
     }
 
     @Test
-    void getAllSolutions_shouldReturnAllSolutions() throws Exception {
-        List<Solution> solutions = Collections.singletonList(testSolution);
-        when(gameSolverService.getAllSolutions()).thenReturn(solutions);
+    void getSolutions_shouldReturnFirstPageWithDefaultSize() throws Exception {
+        List<SolutionView> solutions = Collections.singletonList(SolutionView.of(testSolution));
+        when(gameSolverService.getSolutionPage(0, null, null)).thenReturn(new SolutionPage(solutions, null));
 
         mockMvc.perform(get("/api/game/solutions")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(GameController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].numbers", is(testNumbers)))
-                .andExpect(jsonPath("$[0].correct", is(false)));
+                .andExpect(jsonPath("$[0].correct", is(false)))
+                .andExpect(jsonPath("$[0].puzzleId", is(Puzzle.CLASSIC_ID)));
+
+        verify(gameSolverService).getSolutionPage(0, null, null);
+    }
+
+    @Test
+    void getSolutions_whenMoreSolutionsFollow_shouldReturnNextCursor() throws Exception {
+        Solution second = new Solution(7L, Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8));
+        when(gameSolverService.getSolutionPage(0, 2, true))
+                .thenReturn(new SolutionPage(List.of(SolutionView.of(testSolution), SolutionView.of(second)), 7L));
 
-        verify(gameSolverService).getAllSolutions();
+        mockMvc.perform(get("/api/game/solutions?after=0&size=2&correct=true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(GameController.NEXT_CURSOR_HEADER, "7"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void getSolutions_withPageSizeOutOfRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/game/solutions?size=0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/game/solutions?size=" + (GameController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(gameSolverService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamSolutions_shouldWriteOneJsonObjectPerLine() throws Exception {
+        Solution second = new Solution(7L, Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8));
+        doAnswer(invocation -> {
+            Consumer<SolutionView> action = invocation.getArgument(1);
+            action.accept(SolutionView.of(testSolution));
+            action.accept(SolutionView.of(second));
+            return null;
+        }).when(gameSolverService).streamSolutions(eq(null), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/game/solutions/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readTree(lines[0]).get("id").asInt());
+        assertEquals(7, objectMapper.readTree(lines[1]).get("id").asInt());
+    }
+
+    @Test
+    void followChanges_shouldResumeFromTheLastEventIdAndSendNamedEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(changeFeed.subscribe("abc-4")).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/game/solutions/changes").header("Last-Event-ID", "abc-4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("abc-5").name("deleted")
+                .data(SolutionChange.deleted(3), MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        assertEquals("id:abc-5\nevent:deleted\ndata:{\"id\":3}\n\n", result.getResponse().getContentAsString());
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    void getSolutionClasses_shouldReturnCanonicalSolutions() throws Exception {
+        SolutionClasses classes = new SolutionClasses(Puzzle.CLASSIC_ID, "{n1, n4} {n7, n8}", 4,
+                List.of(Arrays.asList(5, 1, 2, 9, 6, 7, 3, 4, 8)));
+        when(gameSolverService.findSolutionClasses(Puzzle.CLASSIC_ID)).thenReturn(Optional.of(classes));
+
+        mockMvc.perform(get("/api/game/solutions/classes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.puzzleId", is(Puzzle.CLASSIC_ID)))
+                .andExpect(jsonPath("$.symmetry", is("{n1, n4} {n7, n8}")))
+                .andExpect(jsonPath("$.classSize", is(4)))
+                .andExpect(jsonPath("$.solutions", hasSize(1)))
+                .andExpect(jsonPath("$.solutions[0][3]", is(9)));
+    }
+
+    @Test
+    void getSolutionClasses_withUnknownPuzzle_shouldReturnNotFound() throws Exception {
+        when(gameSolverService.findSolutionClasses("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/game/solutions/classes?puzzleId=unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void querySolutions_shouldReturnTheMatchingPageAndCount() throws Exception {
+        SolutionView match = new SolutionView(7L, Puzzle.CLASSIC_ID, new int[] {1, 3, 2, 4, 5, 8, 7, 9, 6}, true);
+        SolutionQuery query = SolutionQuery.parse("n1=1 & n5=5");
+        SolutionQueryPage page = new SolutionQueryPage(Puzzle.CLASSIC_ID, query.toString(), 3, List.of(match), 7L);
+        when(gameSolverService.querySolutions(Puzzle.CLASSIC_ID, query, 0, 1, true)).thenReturn(Optional.of(page));
+
+        mockMvc.perform(get("/api/game/solutions/query")
+                        .param("where", "n1=1 & n5=5")
+                        .param("size", "1")
+                        .param("correct", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query", is("n1=1 & n5=5")))
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.solutions", hasSize(1)))
+                .andExpect(jsonPath("$.solutions[0].id", is(7)))
+                .andExpect(jsonPath("$.solutions[0].numbers[0]", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is(7)));
+    }
+
+    @Test
+    void querySolutions_withInvalidQueryOrUnknownPuzzle_shouldBeRejected() throws Exception {
+        when(gameSolverService.querySolutions(eq(Puzzle.CLASSIC_ID), any(), eq(0L), isNull(), isNull()))
+                .thenThrow(new IllegalArgumentException("The grids have no cell n12"));
+        when(gameSolverService.querySolutions(eq("unknown"), any(), eq(0L), isNull(), isNull()))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/game/solutions/query").param("where", "n1=="))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/game/solutions/query").param("where", "n12=1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/game/solutions/query").param("puzzleId", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getHint_shouldReturnTheCompletionsOfThePartialGrid() throws Exception {
+        List<Integer> grid = Arrays.asList(null, 3, 2, null, 5, 8, 7, 9, null);
+        List<Integer> completion = List.of(1, 3, 2, 4, 5, 8, 7, 9, 6);
+        Hint hint = new Hint(Puzzle.CLASSIC_ID, 2, List.of(List.of(1, 4), List.of(3), List.of(2), List.of(1, 4),
+                List.of(5), List.of(8), List.of(7), List.of(9), List.of(6)), List.of(completion));
+        when(hintService.hint(Puzzle.CLASSIC_ID, grid, 1)).thenReturn(Optional.of(hint));
+
+        mockMvc.perform(post("/api/game/solutions/hint")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null, 3, 2, null, 5, 8, 7, 9, null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completions", is(2)))
+                .andExpect(jsonPath("$.viableDigits[0]", contains(1, 4)))
+                .andExpect(jsonPath("$.firstCompletions", hasSize(1)));
+    }
+
+    @Test
+    void getHint_withInvalidGridOrUnknownPuzzle_shouldBeRejected() throws Exception {
+        when(hintService.hint(eq(Puzzle.CLASSIC_ID), any(), eq(0)))
+                .thenThrow(new IllegalArgumentException("Expected 9 cells, got 2"));
+        when(hintService.hint(eq("unknown"), any(), eq(0))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/game/solutions/hint").contentType(MediaType.APPLICATION_JSON).content("[1, null]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/game/solutions/hint").param("limit", "-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("[1, null]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/game/solutions/hint").param("puzzleId", "unknown")
+                        .contentType(MediaType.APPLICATION_JSON).content("[1, null]"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getTargets_shouldReturnTheHistogram() throws Exception {
+        TargetHistogram histogram = new TargetHistogram(Puzzle.CLASSIC_ID, "n1 + n2", 362_880, 0, 500,
+                List.of(new TargetHistogram.Entry("87", 136)));
+        when(valueIndexService.histogram(Puzzle.CLASSIC_ID, true, 1)).thenReturn(Optional.of(histogram));
+
+        mockMvc.perform(get("/api/game/solutions/targets").param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.targetCount", is(500)))
+                .andExpect(jsonPath("$.targets[0].target", is("87")))
+                .andExpect(jsonPath("$.targets[0].solutions", is(136)));
+        mockMvc.perform(get("/api/game/solutions/targets").param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTargetSolutions_shouldReturnThePageOrRejectInvalidTargets() throws Exception {
+        TargetSolutions page = new TargetSolutions(Puzzle.CLASSIC_ID, "n1 + n2", "173/2", 40,
+                List.of(List.of(1, 2, 6, 4, 7, 8, 3, 5, 9)), 1234L);
+        when(valueIndexService.solutions(Puzzle.CLASSIC_ID, "173/2", null, 1)).thenReturn(Optional.of(page));
+        when(valueIndexService.solutions(Puzzle.CLASSIC_ID, "x", null, null))
+                .thenThrow(new IllegalArgumentException("Invalid target 'x'"));
+        when(valueIndexService.solutions("unknown", "87", null, null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/game/solutions/targets/solutions").param("target", "173/2").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(40)))
+                .andExpect(jsonPath("$.solutions", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is(1234)));
+        mockMvc.perform(get("/api/game/solutions/targets/solutions").param("target", "x"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/game/solutions/targets/solutions").param("target", "87").param("puzzleId", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getSolutionById_withComputedId_shouldReturnTheComputedSolution() throws Exception {
+        long id = ComputedSolutionRepository.ID_BASE + 42;
+        Solution computed = new Solution(id, Puzzle.CLASSIC_ID, Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8), true);
+        when(gameSolverService.getSolutionById(id)).thenReturn(Optional.of(SolutionView.of(computed)));
+
+        mockMvc.perform(get("/api/game/solutions/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(id)))
+                .andExpect(jsonPath("$.correct", is(true)));
+    }
+
+    @Test
+    void deleteAndUpdate_withComputedId_shouldReturnMethodNotAllowed() throws Exception {
+        long id = ComputedSolutionRepository.ID_BASE + 42;
+
+        mockMvc.perform(delete("/api/game/solutions/" + id))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(put("/api/game/solutions/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testNumbers)))
+                .andExpect(status().isMethodNotAllowed());
+        verifyNoInteractions(gameSolverService);
     }
 
     @Test
     void getSolutionById_whenSolutionExists_shouldReturnSolution() throws Exception {
-        when(gameSolverService.getSolutionById(1L)).thenReturn(Optional.of(testSolution));
+        when(gameSolverService.getSolutionById(1L)).thenReturn(Optional.of(SolutionView.of(testSolution)));
 
         mockMvc.perform(get("/api/game/solutions/1")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -116,6 +365,79 @@ class GameControllerTest {
         verify(gameSolverService, never()).createSolution(any());
     }
 
+    @Test
+    void createSolution_withNumbersOutsideTheStoredRange_shouldReturnBadRequest() throws Exception {
+        List<Integer> invalidNumbers = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 16);
+
+        mockMvc.perform(post("/api/game/solutions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidNumbers)))
+                .andExpect(status().isBadRequest());
+
+        verify(gameSolverService, never()).createSolution(any());
+    }
+
+    @Test
+    void createSolutions_shouldReturnOneResultPerProposal() throws Exception {
+        List<List<Integer>> proposals = List.of(testNumbers, List.of(9, 1, 2, 5, 6, 7, 3, 4, 8), testNumbers);
+        when(gameSolverService.proposeSolutions(proposals)).thenReturn(List.of(
+                ProposalResult.created(7L, false),
+                ProposalResult.duplicate(3L, true),
+                ProposalResult.duplicate(7L, false)));
+
+        mockMvc.perform(post("/api/game/solutions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(proposals)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(jsonPath("$[0].correct", is(false)))
+                .andExpect(jsonPath("$[0].duplicateOf", nullValue()))
+                .andExpect(jsonPath("$[1].duplicateOf", is(3)))
+                .andExpect(jsonPath("$[1].correct", is(true)))
+                .andExpect(jsonPath("$[2].duplicateOf", is(7)));
+    }
+
+    @Test
+    void createSolutions_withAnyMalformedProposal_shouldReturnBadRequest() throws Exception {
+        List<List<Integer>> proposals = List.of(testNumbers, List.of(1, 2, 3));
+
+        mockMvc.perform(post("/api/game/solutions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(proposals)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/game/solutions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(gameSolverService, never()).proposeSolutions(any());
+    }
+
+    @Test
+    void validateSolution_shouldReturnCorrectnessWithoutSaving() throws Exception {
+        when(gameSolverService.isSolution(testNumbers)).thenReturn(false);
+
+        mockMvc.perform(post("/api/game/solutions/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testNumbers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correct", is(false)));
+
+        verify(gameSolverService).isSolution(testNumbers);
+        verify(gameSolverService, never()).createSolution(any());
+    }
+
+    @Test
+    void validateSolution_withInvalidNumbers_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/game/solutions/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(1, 2, 3))))
+                .andExpect(status().isBadRequest());
+
+        verify(gameSolverService, never()).isSolution(any());
+    }
+
     @Test
     void deleteSolutionById_whenSolutionExists_shouldReturnNoContent() throws Exception {
         when(gameSolverService.deleteSolutionById(1L)).thenReturn(true);
@@ -150,19 +472,58 @@ class GameControllerTest {
         verify(gameSolverService).deleteAllSolutions();
     }
 
+    @Test
+    void deleteIncorrectSolutions_shouldReturnDeletedCount() throws Exception {
+        when(gameSolverService.deleteIncorrectSolutions()).thenReturn(2L);
+
+        mockMvc.perform(delete("/api/game/solutions/incorrect")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedCount", is(2)));
+
+        verify(gameSolverService).deleteIncorrectSolutions();
+        verify(gameSolverService, never()).deleteSolutionById(anyLong());
+    }
+
     @Test
     void generateSolutions_shouldReturnGenerationStats() throws Exception {
-        when(gameSolverService.generateSolutionsEfficient()).thenReturn(100L);
-        when(gameSolverService.getAllSolutions()).thenReturn(Collections.singletonList(testSolution));
+        when(gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID))
+                .thenReturn(Optional.of(new GenerationResult(Puzzle.CLASSIC_ID, 100L, 1, 60L, 40L)));
 
         mockMvc.perform(get("/api/game/solutions/generate")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.puzzleId", is(Puzzle.CLASSIC_ID)))
                 .andExpect(jsonPath("$.calculationTimeMs", is(100)))
+                .andExpect(jsonPath("$.solverTimeMs", is(60)))
+                .andExpect(jsonPath("$.persistenceTimeMs", is(40)))
                 .andExpect(jsonPath("$.totalSolutions", is(1)));
 
-        verify(gameSolverService).generateSolutionsEfficient();
-        verify(gameSolverService).getAllSolutions();
+        verify(gameSolverService).generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        verify(gameSolverService, never()).getSolutionPage(anyLong(), any(), any());
+    }
+
+    @Test
+    void generateSolutions_withPuzzleId_shouldSolveThatPuzzle() throws Exception {
+        when(gameSolverService.generateSolutionsEfficient("ten-cells"))
+                .thenReturn(Optional.of(new GenerationResult("ten-cells", 5L, 1668, 3L, 2L)));
+
+        mockMvc.perform(get("/api/game/solutions/generate")
+                .param("puzzleId", "ten-cells")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.puzzleId", is("ten-cells")))
+                .andExpect(jsonPath("$.totalSolutions", is(1668)));
+    }
+
+    @Test
+    void generateSolutions_withUnknownPuzzle_shouldReturnNotFound() throws Exception {
+        when(gameSolverService.generateSolutionsEfficient("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/game/solutions/generate")
+                .param("puzzleId", "unknown")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
     }
 
     @Test
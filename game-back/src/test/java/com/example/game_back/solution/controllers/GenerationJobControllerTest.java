@@ -0,0 +1,95 @@
+package com.example.game_back.solution.controllers;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.models.GenerationResult;
+import com.example.game_back.solution.services.GenerationJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationJobControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private GenerationJobService generationJobService;
+
+    @InjectMocks
+    private GenerationJobController generationJobController;
+
+    private GenerationJob job;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(generationJobController).build();
+        job = new GenerationJob("job-1", Puzzle.CLASSIC_ID);
+    }
+
+    @Test
+    void startJob_shouldReturnAcceptedWithJobLocation() throws Exception {
+        when(generationJobService.startJob(Puzzle.CLASSIC_ID)).thenReturn(Optional.of(job));
+
+        mockMvc.perform(post("/api/game/solutions/jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/game/solutions/jobs/job-1")))
+                .andExpect(jsonPath("$.id", is("job-1")))
+                .andExpect(jsonPath("$.status", is("QUEUED")))
+                .andExpect(jsonPath("$.nodesVisited", is(0)))
+                .andExpect(jsonPath("$.rowsPersisted", is(0)));
+    }
+
+    @Test
+    void startJob_whenPuzzleIsUnknown_shouldReturnNotFound() throws Exception {
+        when(generationJobService.startJob("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/game/solutions/jobs?puzzleId=unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getJob_shouldReturnProgressAndResult() throws Exception {
+        job.markRunning();
+        job.addRowsPersisted(136);
+        job.markSucceeded(new GenerationResult(Puzzle.CLASSIC_ID, 12L, 136, 2L, 10L));
+        when(generationJobService.getJob("job-1")).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/game/solutions/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("SUCCEEDED")))
+                .andExpect(jsonPath("$.rowsPersisted", is(136)))
+                .andExpect(jsonPath("$.result.solverTimeMs", is(2)))
+                .andExpect(jsonPath("$.result.persistenceTimeMs", is(10)));
+    }
+
+    @Test
+    void cancelJob_shouldReturnCancelledJob() throws Exception {
+        job.cancel();
+        when(generationJobService.cancelJob("job-1")).thenReturn(Optional.of(job));
+
+        mockMvc.perform(delete("/api/game/solutions/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CANCELLED")));
+    }
+
+    @Test
+    void getJob_whenUnknown_shouldReturnNotFound() throws Exception {
+        when(generationJobService.getJob("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/game/solutions/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
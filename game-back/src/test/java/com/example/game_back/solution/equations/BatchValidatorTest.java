@@ -0,0 +1,95 @@
+package com.example.game_back.solution.equations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchValidatorTest {
+
+    @Test
+    void of_shouldUseTheVectorApiWhenTheModuleIsPresent() {
+        boolean present = ModuleLayer.boot().findModule(BatchValidator.VECTOR_MODULE).isPresent();
+
+        assertEquals(present, Puzzle.CLASSIC.getValidator().isVectorized());
+        assertFalse(BatchValidator.scalar(Puzzle.CLASSIC.getCompiled()).isVectorized());
+    }
+
+    @Test
+    void validate_shouldAgreeWithIsSolutionOnEveryPermutation() {
+        CompiledEquation compiled = Puzzle.CLASSIC.getCompiled();
+        List<int[]> grids = new ArrayList<>();
+        int[] numbers = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        do {
+            grids.add(numbers.clone());
+        } while (CompiledEquationTest.nextPermutation(numbers));
+
+        boolean[] results = validate(Puzzle.CLASSIC.getValidator(), grids);
+
+        int solutions = 0;
+        for (int i = 0; i < grids.size(); i++) {
+            assertEquals(compiled.isSolution(grids.get(i)), results[i], Arrays.toString(grids.get(i)));
+            solutions += results[i] ? 1 : 0;
+        }
+        assertEquals(136, solutions);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87; 1-9",
+            "n1*n2/n3 - n4 + 2*n5/n6 = 5; 0-6",
+            "n1/(n2*n3) + n4/n5 - n6 = -4; 1-7",
+            "3*n1 - n2*n2/n3 + n4/2 = 7; 0-5",
+            "n1 + n2 = 9; 1-9",
+    })
+    void validate_shouldRejectInvalidGridsLikeIsSolution(String expression, String digits) {
+        Puzzle puzzle = new Puzzle("variant", Equation.parse(expression), Puzzle.parseDigits(digits));
+        List<int[]> grids = new ArrayList<>();
+        puzzle.newSolver(numbers -> grids.add(numbers.clone())).search();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            int[] grid = new int[puzzle.getCellCount()];
+            for (int cell = 0; cell < grid.length; cell++) {
+                grid[cell] = random.nextInt(12) - 1;
+            }
+            grids.add(grid);
+        }
+
+        for (BatchValidator validator : List.of(puzzle.getValidator(), BatchValidator.scalar(puzzle.getCompiled()))) {
+            boolean[] results = validate(validator, grids);
+            for (int i = 0; i < grids.size(); i++) {
+                assertEquals(puzzle.isSolution(grids.get(i)), results[i], validator + " " + Arrays.toString(grids.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void batch_shouldTreatMalformedGridsAsInvalid() {
+        BatchValidator.Batch batch = Puzzle.CLASSIC.getValidator().newBatch(4);
+        batch.add(Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8));
+        batch.add(Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, null));
+        batch.add(List.of(9, 1, 2));
+        batch.add(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8, 10});
+
+        assertArrayEquals(new boolean[]{true, false, false, false}, batch.validate());
+    }
+
+    @Test
+    void of_withEquationTooLargeForIntLanes_shouldFallBackToScalar() {
+        Puzzle puzzle = new Puzzle("large", Equation.parse("100000*n1*n2*n3*n4 = 5"), Puzzle.parseDigits("1-20"));
+
+        assertFalse(puzzle.getValidator().isVectorized());
+    }
+
+    private static boolean[] validate(BatchValidator validator, List<int[]> grids) {
+        BatchValidator.Batch batch = validator.newBatch(grids.size());
+        grids.forEach(batch::add);
+        return batch.validate();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.game_back.solution.equations;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellSymmetryTest {
+
+    @Test
+    void of_shouldDetectClassicInterchangeableCells() {
+        CellSymmetry symmetry = Puzzle.CLASSIC.getSymmetry();
+
+        assertEquals(2, symmetry.getGroups().size());
+        assertArrayEquals(new int[]{0, 3}, symmetry.getGroups().get(0));
+        assertArrayEquals(new int[]{6, 7}, symmetry.getGroups().get(1));
+        assertEquals(4, symmetry.getClassSize());
+        assertEquals("{n1, n4} {n7, n8}", symmetry.toString());
+        assertEquals(-1, symmetry.previousCell(0));
+        assertEquals(3, symmetry.nextCell(0));
+        assertEquals(6, symmetry.previousCell(7));
+    }
+
+    @Test
+    void of_shouldGroupMoreThanTwoCellsAndUnreferencedCells() {
+        CellSymmetry symmetry = CellSymmetry.of(Equation.parse("2*n1 + n2*n4/n3 + n5*n2*n4 + 2*n6 + 2*n7 - n8 = 11"));
+
+        assertEquals(2, symmetry.getGroups().size());
+        assertArrayEquals(new int[]{0, 5, 6}, symmetry.getGroups().get(0));
+        assertArrayEquals(new int[]{1, 3}, symmetry.getGroups().get(1));
+        assertEquals(12, symmetry.getClassSize());
+
+        Equation unreferenced = Equation.builder().cells(4).add(Term.of(1, 0)).equalTo(3);
+        assertArrayEquals(new int[]{1, 2, 3}, CellSymmetry.of(unreferenced).getGroups().get(0));
+    }
+
+    @Test
+    void of_whenNoCellsCanBeSwapped_shouldBeTrivial() {
+        CellSymmetry symmetry = CellSymmetry.of(Equation.parse("n1 + 2*n2 - n3/n4 = 5"));
+
+        assertTrue(symmetry.isTrivial());
+        assertEquals(1, symmetry.getClassSize());
+        assertEquals("{}", symmetry.toString());
+    }
+
+    @Test
+    void canonicalize_shouldSortValuesWithinGroups() {
+        CellSymmetry symmetry = Puzzle.CLASSIC.getSymmetry();
+        int[] grid = {9, 1, 2, 5, 6, 7, 4, 3, 8};
+
+        assertFalse(symmetry.isCanonical(grid));
+        int[] canonical = symmetry.canonicalize(grid);
+        assertArrayEquals(new int[]{5, 1, 2, 9, 6, 7, 3, 4, 8}, canonical);
+        assertTrue(symmetry.isCanonical(canonical));
+        assertArrayEquals(new int[]{9, 1, 2, 5, 6, 7, 4, 3, 8}, grid);
+    }
+
+    @Test
+    void forEachVariant_shouldPassEveryGridOfTheClassOnce() {
+        CellSymmetry symmetry = Puzzle.CLASSIC.getSymmetry();
+        int[] canonical = {5, 1, 2, 9, 6, 7, 3, 4, 8};
+        List<int[]> variants = new ArrayList<>();
+
+        symmetry.forEachVariant(canonical, numbers -> variants.add(numbers.clone()));
+
+        variants.sort(Arrays::compare);
+        assertEquals(4, variants.size());
+        assertArrayEquals(new int[]{5, 1, 2, 9, 6, 7, 3, 4, 8}, variants.get(0));
+        assertArrayEquals(new int[]{5, 1, 2, 9, 6, 7, 4, 3, 8}, variants.get(1));
+        assertArrayEquals(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8}, variants.get(2));
+        assertArrayEquals(new int[]{9, 1, 2, 5, 6, 7, 4, 3, 8}, variants.get(3));
+        assertArrayEquals(new int[]{5, 1, 2, 9, 6, 7, 3, 4, 8}, canonical);
+    }
+}
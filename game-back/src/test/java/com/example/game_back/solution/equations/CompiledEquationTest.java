@@ -0,0 +1,109 @@
+package com.example.game_back.solution.equations;
+
+import com.example.game_back.solution.models.SolutionValidator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledEquationTest {
+
+    @Test
+    void isSolution_shouldAgreeWithHandWrittenValidatorOnEveryPermutation() {
+        CompiledEquation compiled = Puzzle.CLASSIC.getCompiled();
+        int[] numbers = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        int count = 0;
+
+        do {
+            boolean expected = SolutionValidator.isValid(numbers);
+            assertEquals(expected, compiled.isSolution(numbers));
+            assertEquals(expected, compiled.satisfies(numbers));
+            count++;
+        } while (nextPermutation(numbers));
+
+        assertEquals(362_880, count);
+    }
+
+    @Test
+    void isSolution_shouldRejectRepeatedAndOutOfRangeDigits() {
+        CompiledEquation compiled = Puzzle.CLASSIC.getCompiled();
+
+        assertTrue(compiled.isSolution(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8}));
+        assertFalse(compiled.isSolution(new int[]{9, 1, 2, 5, 6, 7, 3, 4}));
+        assertFalse(compiled.isSolution(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 10}));
+        assertFalse(compiled.isSolution(new int[]{9, 1, 2, 5, 6, 7, 3, 4, -8}));
+        assertFalse(compiled.isSolution(new int[]{9, 1, 2, 5, 6, 7, 3, 3, 8}));
+    }
+
+    @Test
+    void satisfies_shouldTreatZeroDivisorAsInvalid() {
+        CompiledEquation compiled = Equation.parse("n1 / n2 = 0").compile(Puzzle.parseDigits("0-3"));
+
+        assertFalse(compiled.satisfies(new int[]{0, 0}));
+        assertTrue(compiled.satisfies(new int[]{0, 3}));
+    }
+
+    @Test
+    void evaluate_shouldReturnTheReducedValueOfTheExpression() {
+        long[] fraction = new long[2];
+
+        assertTrue(Puzzle.CLASSIC.getCompiled().evaluate(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8}, fraction));
+        assertArrayEquals(new long[]{87, 1}, fraction);
+        assertTrue(Puzzle.CLASSIC.getCompiled().evaluate(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, fraction));
+        assertArrayEquals(new long[]{665, 9}, fraction);
+
+        CompiledEquation compiled = Equation.parse("n1 / n2 = 0").compile(Puzzle.parseDigits("0-3"));
+        assertFalse(compiled.evaluate(new int[]{1, 0}, fraction));
+        assertArrayEquals(new long[]{665, 9}, fraction);
+        assertTrue(compiled.evaluate(new int[]{0, 3}, fraction));
+        assertArrayEquals(new long[]{0, 1}, fraction);
+    }
+
+    @Test
+    void compile_shouldPlaceDivisorsFirstThenHeaviestTerms() {
+        CompiledEquation compiled = Puzzle.CLASSIC.getCompiled();
+
+        assertArrayEquals(new int[]{2, 8, 1, 4, 6, 7, 0, 3, 5}, compiled.getOrder());
+        assertEquals(2, compiled.getDenominatorDepth());
+    }
+
+    @Test
+    void compile_shouldRejectEquationsThatMayOverflow() {
+        Equation equation = Equation.parse("n1*n2*n3*n4*n5*n6*n7*n8*n9*n10*n11*n12 / (n13*n14*n15*n16) = 1");
+
+        assertThrows(IllegalArgumentException.class, () -> equation.compile(Puzzle.parseDigits("1-63")));
+    }
+
+    @Test
+    void compile_shouldRejectInvalidDigitSets() {
+        Equation equation = Equation.parse(Puzzle.CLASSIC_EQUATION);
+
+        assertThrows(IllegalArgumentException.class, () -> equation.compile(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> equation.compile(new int[]{1, 2, 2}));
+        assertThrows(IllegalArgumentException.class, () -> equation.compile(new int[]{1, 64}));
+    }
+
+    static boolean nextPermutation(int[] a) {
+        int i = a.length - 2;
+        while (i >= 0 && a[i] >= a[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = a.length - 1;
+        while (a[j] <= a[i]) {
+            j--;
+        }
+        swap(a, i, j);
+        for (int l = i + 1, r = a.length - 1; l < r; l++, r--) {
+            swap(a, l, r);
+        }
+        return true;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.game_back.solution.equations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationTest {
+
+    @Test
+    void parse_shouldMatchBuilder() {
+        Equation built = Equation.builder()
+                .add(Term.of(1, 0))
+                .add(Term.of(13, 1).dividedByCells(2))
+                .add(Term.of(1, 3))
+                .add(Term.of(12, 4))
+                .subtract(Term.of(1, 5))
+                .add(Term.of(1, 6, 7).dividedByCells(8))
+                .equalTo(87);
+
+        Equation parsed = Equation.parse(Puzzle.CLASSIC_EQUATION);
+
+        assertEquals(built, parsed);
+        assertEquals(9, parsed.getCellCount());
+        assertEquals(87, parsed.getTarget());
+        assertEquals(Puzzle.CLASSIC_EQUATION, parsed.toString());
+    }
+
+    @Test
+    void parse_shouldHandleParenthesesAndRationalCoefficients() {
+        Equation equation = Equation.parse("-n1 / (2 * n2) + 3*n3/6 = -4");
+
+        Term first = equation.getTerms().get(0);
+        assertEquals(-1, first.numerator());
+        assertEquals(2, first.denominator());
+        assertArrayEquals(new int[]{0}, first.cells());
+        assertArrayEquals(new int[]{1}, first.divisors());
+
+        Term second = equation.getTerms().get(1);
+        assertEquals(1, second.numerator());
+        assertEquals(2, second.denominator());
+        assertEquals(-4, equation.getTarget());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "n1 + n2",
+            "n1 + = 3",
+            "n1 + 5 = 3",
+            "n0 = 3",
+            "n1 / 0 = 3",
+            "n1 = 3 + n2",
+            "n1 * (n2 = 3",
+    })
+    void parse_shouldRejectInvalidEquations(String expression) {
+        assertThrows(IllegalArgumentException.class, () -> Equation.parse(expression));
+    }
+}
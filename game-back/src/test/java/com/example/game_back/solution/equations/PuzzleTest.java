@@ -0,0 +1,36 @@
+package com.example.game_back.solution.equations;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleTest {
+
+    @Test
+    void parseDigits_shouldAcceptRangesAndLists() {
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, Puzzle.parseDigits("1-9"));
+        assertArrayEquals(new int[]{0, 2, 4, 5, 6, 7}, Puzzle.parseDigits("0, 2, 4-7"));
+        assertThrows(IllegalArgumentException.class, () -> Puzzle.parseDigits("1-x"));
+    }
+
+    @Test
+    void registry_shouldAlwaysContainClassicPuzzle() {
+        Puzzle variant = new Puzzle("target-66", Equation.parse("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 66"),
+                Puzzle.parseDigits("1-9"));
+        PuzzleRegistry registry = new PuzzleRegistry(List.of(variant));
+
+        assertSame(Puzzle.CLASSIC, registry.find(Puzzle.CLASSIC_ID).orElseThrow());
+        assertSame(variant, registry.find("target-66").orElseThrow());
+        assertTrue(registry.find("unknown").isEmpty());
+        assertEquals(2, registry.getAll().size());
+    }
+
+    @Test
+    void registry_shouldRejectDuplicateIds() {
+        Puzzle duplicate = new Puzzle(Puzzle.CLASSIC_ID, Equation.parse("n1 = 1"), Puzzle.parseDigits("1-9"));
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleRegistry(List.of(duplicate)));
+    }
+}
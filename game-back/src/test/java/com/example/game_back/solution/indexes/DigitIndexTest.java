@@ -0,0 +1,110 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.solvers.PruningSolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigitIndexTest {
+
+    private static final List<int[]> CLASSIC_SOLUTIONS = PruningSolver.findAll().solutions();
+
+    private static final long WRONG_GRID = PackedNumbers.pack(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+    private DigitIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DigitIndex(9);
+        for (int i = 0; i < CLASSIC_SOLUTIONS.size(); i++) {
+            index.put(10L * (i + 1), PackedNumbers.pack(CLASSIC_SOLUTIONS.get(i)), true);
+        }
+    }
+
+    /**
+     * The ids of the solutions matching a query, checked one grid at a time.
+     */
+    private static List<Long> scan(SolutionQuery query) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < CLASSIC_SOLUTIONS.size(); i++) {
+            if (query.matches(CLASSIC_SOLUTIONS.get(i))) {
+                ids.add(10L * (i + 1));
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> ids(BitSet ordinals) {
+        return ordinals.stream().mapToObj(index::getId).toList();
+    }
+
+    @Test
+    void match_shouldAgreeWithAScanOfTheGrids() {
+        for (String text : List.of("", "n5=5 & n1=1", "n5=5", "n3=even", "n9!=1-8", "n1=1 & n2=2 | n9=9",
+                "n1=9 & n1!=9", "n2=odd & n4=2,4 | n6=7 & n7!=even | n8=1")) {
+            SolutionQuery query = SolutionQuery.parse(text);
+            assertEquals(scan(query), ids(index.match(query, null)), text);
+        }
+        assertFalse(scan(SolutionQuery.parse("n5=5 & n1=1")).isEmpty());
+    }
+
+    @Test
+    void match_withCellPastTheGrids_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> index.match(SolutionQuery.parse("n10=1"), null));
+    }
+
+    @Test
+    void putAndRemove_shouldUpdateTheBitsetsInPlace() {
+        SolutionQuery firstIsOne = SolutionQuery.parse("n1=1");
+        int matching = index.match(firstIsOne, null).cardinality();
+
+        index.put(5, WRONG_GRID, false);
+        assertEquals(5, index.getId(index.match(firstIsOne, false).nextSetBit(0)));
+        assertEquals(matching, index.match(firstIsOne, true).cardinality());
+
+        index.put(5, PackedNumbers.pack(new int[]{2, 1, 3, 4, 5, 6, 7, 8, 9}), false);
+        assertTrue(index.match(firstIsOne, false).isEmpty());
+        assertEquals(CLASSIC_SOLUTIONS.size() + 1, index.count());
+
+        assertTrue(index.remove(10));
+        assertFalse(index.remove(10));
+        assertEquals(CLASSIC_SOLUTIONS.size(), index.count());
+        assertEquals(CLASSIC_SOLUTIONS.size() - 1, index.removeIf(true));
+        assertEquals(List.of(5L), ids(index.match(SolutionQuery.ALL, null)));
+    }
+
+    @Test
+    void put_withLowerId_shouldKeepTheOrdinalsInIdOrder() {
+        index.put(15, WRONG_GRID, false);
+        index.remove(20);
+        index.put(20, WRONG_GRID, true);
+
+        List<Long> ids = ids(index.match(SolutionQuery.ALL, null));
+        assertEquals(List.of(10L, 15L, 20L, 30L), ids.subList(0, 4));
+        assertEquals(CLASSIC_SOLUTIONS.size() + 1, ids.size());
+        assertEquals(2, index.firstOrdinalAfter(15));
+    }
+
+    @Test
+    void remove_ofMostSolutions_shouldCompactTheIndex() {
+        DigitIndex large = new DigitIndex(9);
+        for (int i = 0; i < 3000; i++) {
+            large.put(i, PackedNumbers.pack(CLASSIC_SOLUTIONS.get(i % CLASSIC_SOLUTIONS.size())), i % 2 == 0);
+        }
+        for (int i = 0; i < 2900; i++) {
+            large.remove(i);
+        }
+
+        assertEquals(100, large.count());
+        BitSet all = large.match(SolutionQuery.ALL, null);
+        assertEquals(2900, large.getId(all.nextSetBit(0)));
+        assertTrue(all.length() < 1024);
+        assertEquals(50, large.match(SolutionQuery.ALL, true).cardinality());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.equations.Puzzle;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermutationSpaceTest {
+
+    @Test
+    void rank_shouldFollowLexicographicOrderAndRoundTrip() {
+        PermutationSpace space = PermutationSpace.of(Puzzle.CLASSIC);
+        int[] previous = null;
+
+        assertEquals(362_880, space.size());
+        for (int rank = 0; rank < space.size(); rank++) {
+            int[] numbers = space.unrank(rank);
+            assertEquals(rank, space.rank(numbers));
+            if (previous != null) {
+                assertTrue(Arrays.compare(previous, numbers) < 0);
+            }
+            previous = numbers;
+        }
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, space.unrank(0));
+        assertArrayEquals(new int[]{9, 8, 7, 6, 5, 4, 3, 2, 1}, space.unrank(space.size() - 1));
+    }
+
+    @Test
+    void rank_shouldCoverPartialPermutationsOfWiderDigitSets() {
+        PermutationSpace space = new PermutationSpace(3, new int[]{0, 2, 4, 6});
+        boolean[] seen = new boolean[space.size()];
+
+        assertEquals(24, space.size());
+        for (int rank = 0; rank < space.size(); rank++) {
+            int[] numbers = space.unrank(rank);
+            assertEquals(rank, space.rank(numbers));
+            seen[space.rank(numbers)] = true;
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+
+    @Test
+    void rank_shouldRejectGridsOutsideTheSpace() {
+        PermutationSpace space = PermutationSpace.of(Puzzle.CLASSIC);
+
+        assertEquals(-1, space.rank(new int[]{1, 2, 3, 4, 5, 6, 7, 8}));
+        assertEquals(-1, space.rank(new int[]{1, 1, 3, 4, 5, 6, 7, 8, 9}));
+        assertEquals(-1, space.rank(new int[]{0, 2, 3, 4, 5, 6, 7, 8, 9}));
+        assertEquals(-1, space.rank(new int[]{10, 2, 3, 4, 5, 6, 7, 8, 9}));
+        assertEquals(-1, space.rank(new int[]{-1, 2, 3, 4, 5, 6, 7, 8, 9}));
+        assertEquals(-1, space.rank(Arrays.asList(1, 2, 3, 4, null, 6, 7, 8, 9)));
+        assertEquals(0, space.rank(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+    }
+
+    @Test
+    void constructor_shouldRejectSpacesTooLargeToIndex() {
+        assertThrows(IllegalArgumentException.class, () -> new PermutationSpace(13, Puzzle.parseDigits("1-13")));
+        assertThrows(IllegalArgumentException.class, () -> new PermutationSpace(10, Puzzle.parseDigits("1-9")));
+    }
+}
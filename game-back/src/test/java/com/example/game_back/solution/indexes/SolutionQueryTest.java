@@ -0,0 +1,51 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.indexes.SolutionQuery.CellConstraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionQueryTest {
+
+    @Test
+    void parse_shouldReadClausesOfConstraints() {
+        SolutionQuery query = SolutionQuery.parse(" n5=5 & n1 = 1 | n3=even | n2!=1-3,7 ");
+
+        assertEquals(3, query.clauses().size());
+        assertEquals(List.of(new CellConstraint(4, 1 << 5, false), new CellConstraint(0, 1 << 1, false)),
+                query.clauses().get(0));
+        assertEquals(0b0101_0101_0101_0101, query.clauses().get(1).get(0).digits());
+        assertEquals(new CellConstraint(1, 0b1000_1110, true), query.clauses().get(2).get(0));
+        assertEquals("n5=5 & n1=1 | n3=even | n2!=1,2,3,7", query.toString());
+        assertEquals(5, query.getCellCount());
+    }
+
+    @Test
+    void parse_withBlankText_shouldMatchEveryGrid() {
+        assertSame(SolutionQuery.ALL, SolutionQuery.parse(" "));
+        assertTrue(SolutionQuery.ALL.matches(new int[]{1, 2, 3}));
+        assertEquals(0, SolutionQuery.ALL.getCellCount());
+    }
+
+    @Test
+    void parse_withInvalidText_shouldThrow() {
+        for (String text : List.of("n1", "5=5", "n0=1", "n15=1", "nx=1", "n1=", "n1=16", "n1=3-2", "n1=1 &",
+                "n1=1 | ", "n1=one")) {
+            assertThrows(IllegalArgumentException.class, () -> SolutionQuery.parse(text), text);
+        }
+    }
+
+    @Test
+    void matches_shouldHoldWhenAnyClauseHolds() {
+        SolutionQuery query = SolutionQuery.parse("n1=1 & n2=2 | n3!=odd");
+        int[] grid = {1, 2, 3};
+
+        assertTrue(query.matches(grid));
+        grid[1] = 4;
+        assertFalse(query.matches(grid));
+        grid[2] = 6;
+        assertTrue(query.matches(grid));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.SolutionValidator;
+import com.example.game_back.solution.solvers.PruningSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidityBitmapTest {
+
+    private final List<int[]> solutions = PruningSolver.findAll().solutions();
+
+    private final ValidityBitmap bitmap = ValidityBitmap.build(Puzzle.CLASSIC, solutions);
+
+    @Test
+    void isSolution_shouldAgreeWithValidatorOnEveryPermutation() {
+        PermutationSpace space = bitmap.getSpace();
+        int[] numbers = new int[9];
+
+        for (int rank = 0; rank < space.size(); rank++) {
+            space.unrank(rank, numbers);
+            assertEquals(SolutionValidator.isValid(numbers), bitmap.isSolution(numbers));
+            assertEquals(SolutionValidator.isValid(numbers), bitmap.isValidRank(rank));
+        }
+        assertEquals(solutions.size(), bitmap.count());
+    }
+
+    @Test
+    void isSolution_shouldRejectRepeatedAndOutOfRangeDigits() {
+        assertTrue(bitmap.isSolution(List.of(9, 1, 2, 5, 6, 7, 3, 4, 8)));
+        assertFalse(bitmap.isSolution(List.of(9, 1, 2, 5, 6, 7, 3, 4, 4)));
+        assertFalse(bitmap.isSolution(List.of(9, 1, 2, 5, 6, 7, 3, 4, 80)));
+        assertFalse(bitmap.isSolution(List.of(9, 1, 2, 5, 6, 7, 3, 4)));
+    }
+
+    @Test
+    void validRanks_shouldIterateSolutionsInLexicographicOrder() {
+        PermutationSpace space = bitmap.getSpace();
+
+        int[] fromStream = bitmap.validRanks().toArray();
+        assertEquals(solutions.size(), fromStream.length);
+        for (int i = 0; i < fromStream.length; i++) {
+            assertArrayEquals(solutions.get(i), space.unrank(fromStream[i]));
+        }
+
+        int i = 0;
+        for (int rank = bitmap.nextValidRank(0); rank >= 0; rank = bitmap.nextValidRank(rank + 1)) {
+            assertEquals(fromStream[i++], rank);
+        }
+        assertEquals(fromStream.length, i);
+    }
+
+    @Test
+    void build_shouldRejectNonSolutions() {
+        List<int[]> invalid = List.of(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertThrows(IllegalArgumentException.class, () -> ValidityBitmap.build(Puzzle.CLASSIC, invalid));
+        assertTrue(Arrays.stream(bitmap.validRanks().toArray()).allMatch(bitmap::isValidRank));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.game_back.solution.indexes;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.solvers.PruningSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueIndexTest {
+
+    private static final ValueIndex CLASSIC = ValueIndex.build(Puzzle.CLASSIC);
+
+    @Test
+    void build_shouldGroupTheSolutionsOfEveryTarget() {
+        ValidityBitmap bitmap = ValidityBitmap.build(Puzzle.CLASSIC, PruningSolver.findAll().solutions());
+        int value = CLASSIC.find(87, 1);
+
+        assertEquals(136, CLASSIC.count(value));
+        for (int i = 0; i < CLASSIC.count(value); i++) {
+            assertTrue(bitmap.isValidRank(CLASSIC.getRank(value, i)));
+            assertTrue(i == 0 || CLASSIC.getRank(value, i - 1) < CLASSIC.getRank(value, i));
+        }
+        assertEquals(362_880, CLASSIC.getDefinedCount());
+        assertEquals(0, CLASSIC.getUndefinedCount());
+    }
+
+    @Test
+    void build_shouldMatchTheSolverForAnotherTarget() {
+        Puzzle variant = new Puzzle("target-66", Equation.parse("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 66"),
+                Puzzle.parseDigits("1-9"));
+        List<int[]> expected = new ArrayList<>();
+        variant.newSolver(numbers -> expected.add(numbers.clone())).search();
+        int value = CLASSIC.find(66, 1);
+
+        assertEquals(expected.size(), CLASSIC.count(value));
+        expected.forEach(numbers -> {
+            int rank = CLASSIC.getSpace().rank(numbers);
+            int index = CLASSIC.indexAfter(value, rank - 1);
+            assertEquals(rank, CLASSIC.getRank(value, index));
+        });
+    }
+
+    @Test
+    void build_shouldSortValuesAndCountZeroDivisors() {
+        Puzzle puzzle = new Puzzle("ratio", Equation.parse("n1 / n2 - n3 = 0"), Puzzle.parseDigits("0-3"));
+
+        ValueIndex index = ValueIndex.build(puzzle);
+
+        assertEquals(6, index.getUndefinedCount());
+        assertEquals(18, index.getDefinedCount());
+        long total = 0;
+        for (int value = 0; value < index.size(); value++) {
+            total += index.count(value);
+            assertTrue(value == 0 || ValueIndex.compare(index.getNumerator(value - 1), index.getDenominator(value - 1),
+                    index.getNumerator(value), index.getDenominator(value)) < 0);
+        }
+        assertEquals(18, total);
+        assertEquals(-1, index.find(99, 1));
+        assertTrue(index.find(-5, 2) >= 0);
+        assertEquals(index.find(-5, 2), index.find(-10, 4));
+    }
+
+    @Test
+    void compare_shouldNotOverflow() {
+        assertTrue(ValueIndex.compare(Long.MAX_VALUE / 2, 3, Long.MAX_VALUE / 2 - 1, 3) > 0);
+        assertTrue(ValueIndex.compare(Long.MIN_VALUE / 2, 7, Long.MAX_VALUE / 2, 5) < 0);
+        assertEquals(0, ValueIndex.compare(-4_000_000_000_000L, 3_000_000_000_000L, -4, 3));
+    }
+}
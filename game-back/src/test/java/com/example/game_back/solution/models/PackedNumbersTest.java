@@ -0,0 +1,78 @@
+package com.example.game_back.solution.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedNumbersTest {
+
+    private final PackedNumbersConverter converter = new PackedNumbersConverter();
+
+    @Test
+    void pack_shouldRoundTripGridsOfEveryLength() {
+        for (int length = 0; length <= PackedNumbers.MAX_LENGTH; length++) {
+            Integer[] numbers = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                numbers[i] = (i * 7) % 16;
+            }
+
+            long packed = PackedNumbers.pack(Arrays.asList(numbers));
+
+            assertEquals(length, PackedNumbers.length(packed));
+            assertEquals(Arrays.asList(numbers), PackedNumbers.unpack(packed));
+        }
+    }
+
+    @Test
+    void pack_shouldKeepTrailingZerosDistinctFromShorterGrids() {
+        assertNotEquals(PackedNumbers.pack(List.of(1, 2)), PackedNumbers.pack(List.of(1, 2, 0)));
+        assertEquals(List.of(0, 0, 0), PackedNumbers.unpack(PackedNumbers.pack(List.of(0, 0, 0))));
+    }
+
+    @Test
+    void pack_shouldPutTheFirstNumberInTheHighestNibble() {
+        int[] numbers = {9, 1, 8, 2, 7, 3, 6, 4, 5};
+
+        long packed = PackedNumbers.pack(numbers);
+
+        assertEquals(0x0900_0009_1827_3645L, packed);
+        assertArrayEquals(numbers, PackedNumbers.unpackToArray(packed));
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(numbers[i], PackedNumbers.get(packed, i));
+        }
+    }
+
+    @Test
+    void pack_shouldPreserveLexicographicOrderForEqualLengths() {
+        long smaller = PackedNumbers.pack(List.of(1, 2, 9, 3, 4, 5, 6, 7, 8));
+        long larger = PackedNumbers.pack(List.of(1, 3, 2, 4, 5, 6, 7, 8, 9));
+
+        assertTrue(smaller < larger);
+    }
+
+    @Test
+    void isPackable_shouldRejectNullsAndOutOfRangeNumbers() {
+        assertFalse(PackedNumbers.isPackable(null));
+        assertFalse(PackedNumbers.isPackable(Arrays.asList(1, null, 3)));
+        assertFalse(PackedNumbers.isPackable(List.of(1, 16)));
+        assertFalse(PackedNumbers.isPackable(List.of(-1, 2)));
+        assertFalse(PackedNumbers.isPackable(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 1, 2, 3, 4, 5, 6)));
+        assertThrows(IllegalArgumentException.class, () -> PackedNumbers.pack(List.of(1, 16)));
+    }
+
+    @Test
+    void converter_shouldMapNullToNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void converter_shouldRoundTrip() {
+        List<Integer> numbers = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        assertEquals(numbers, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(numbers)));
+    }
+}
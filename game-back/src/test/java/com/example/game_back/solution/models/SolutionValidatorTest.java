@@ -0,0 +1,61 @@
+package com.example.game_back.solution.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionValidatorTest {
+
+    @Test
+    void testValidSolution() {
+        int[] numbers = {9, 1, 2, 5, 6, 7, 3, 4, 8};
+
+        assertTrue(SolutionValidator.isValid(numbers));
+        assertTrue(new Solution(null, Arrays.stream(numbers).boxed().toList()).isCorrect());
+    }
+
+    @Test
+    void testValidSolutionMissedByFloatingPoint() {
+        // 1 + 104/3 + 7 + 48 - 5 + 12/9 is exactly 87, but the double sum rounds to 86.99999999999999
+        int[] numbers = {1, 8, 3, 7, 4, 5, 2, 6, 9};
+
+        assertTrue(SolutionValidator.isValid(numbers));
+    }
+
+    @Test
+    void testInvalidSolution() {
+        assertFalse(SolutionValidator.isValid(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    void testInvalidSolutionWithWrongSize() {
+        assertFalse(SolutionValidator.isValid(new int[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    void testZeroDivisorIsInvalid() {
+        assertFalse(SolutionValidator.isValid(new int[]{87, 0, 0, 0, 0, 0, 0, 0, 1}));
+        assertFalse(SolutionValidator.isValid(new int[]{87, 0, 1, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void testLargeOperandsAreCheckedExactly() {
+        assertTrue(SolutionValidator.isValid(new int[]{1_000_087, 0, 1, 0, 0, 1_000_000, 0, 0, 1}));
+        assertFalse(SolutionValidator.isValid(new int[]{1_000_088, 0, 1, 0, 0, 1_000_000, 0, 0, 1}));
+    }
+
+    @Test
+    void testPackedGrid() {
+        assertTrue(SolutionValidator.isValid(PackedNumbers.pack(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8})));
+        assertFalse(SolutionValidator.isValid(PackedNumbers.pack(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9})));
+    }
+
+    @Test
+    void testPackedGridOfWrongLength() {
+        assertFalse(SolutionValidator.isValid(PackedNumbers.pack(new int[]{9, 1, 2, 5, 6, 7, 3, 4})));
+        assertFalse(SolutionValidator.isValid(PackedNumbers.pack(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8, 0})));
+        assertFalse(SolutionValidator.isValid(0x9_1256_7348L));
+    }
+}
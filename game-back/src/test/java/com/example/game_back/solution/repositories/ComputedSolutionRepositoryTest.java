@@ -0,0 +1,101 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.solvers.PruningSolver;
+import com.example.game_back.solution.solvers.Solver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComputedSolutionRepositoryTest {
+
+    private static final ValidityBitmap CLASSIC_INDEX =
+            ValidityBitmap.build(Puzzle.CLASSIC, PruningSolver.findAll().solutions());
+
+    private final Puzzle variant = new Puzzle("target-66",
+            Equation.parse("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 66"), Puzzle.parseDigits("1-9"));
+
+    private ComputedSolutionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ComputedSolutionRepository(new PuzzleRegistry(List.of(variant)));
+    }
+
+    @Test
+    void findById_shouldDeriveTheIdFromTheRank() {
+        repository.publish(CLASSIC_INDEX);
+        List<Integer> numbers = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+
+        long id = repository.findIdByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, numbers);
+
+        assertEquals(ComputedSolutionRepository.ID_BASE + CLASSIC_INDEX.getSpace().rank(numbers), id);
+        Solution solution = repository.findById(id).orElseThrow();
+        assertEquals(numbers, solution.getNumbers());
+        assertEquals(Puzzle.CLASSIC_ID, solution.getPuzzleId());
+        assertTrue(solution.isCorrect());
+        assertTrue(repository.findById(1L).isEmpty());
+        assertEquals(-1, repository.findIdByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, List.of(1, 2, 3, 4, 5, 6, 7, 8, 9)));
+        assertEquals(-1, repository.findIdByPuzzleIdAndNumbers("target-66", numbers));
+    }
+
+    @Test
+    void findPage_shouldWalkEveryPublishedPuzzleInIdOrder() {
+        repository.publish(CLASSIC_INDEX);
+        repository.publish(ValidityBitmap.build(variant, solve(variant)));
+        int total = CLASSIC_INDEX.count() + solve(variant).size();
+
+        List<SolutionView> all = new ArrayList<>();
+        List<SolutionView> page = repository.findPage(0L, 25);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = repository.findPage(page.get(page.size() - 1).id(), 25);
+        }
+
+        assertEquals(total, all.size());
+        assertEquals(total, repository.count());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i).id() > all.get(i - 1).id());
+        }
+        assertEquals(Puzzle.CLASSIC_ID, all.get(0).puzzleId());
+        assertEquals("target-66", all.get(all.size() - 1).puzzleId());
+        assertTrue(all.get(all.size() - 1).id() < 1L << 53);
+
+        List<SolutionView> streamed = new ArrayList<>();
+        repository.forEach(streamed::add);
+        assertEquals(all, streamed);
+    }
+
+    @Test
+    void remove_shouldStopServingOnlyThatPuzzle() {
+        repository.publish(CLASSIC_INDEX);
+        repository.publish(ValidityBitmap.build(variant, solve(variant)));
+        long id = repository.findPage(0L, 1).get(0).id();
+
+        assertEquals(136, repository.remove(Puzzle.CLASSIC_ID));
+
+        assertFalse(repository.isPublished(Puzzle.CLASSIC_ID));
+        assertTrue(repository.findById(id).isEmpty());
+        assertEquals("target-66", repository.findPage(0L, 1).get(0).puzzleId());
+        assertEquals(repository.count(), repository.clear());
+        assertEquals(0, repository.count());
+        assertThrows(IllegalArgumentException.class, () -> repository.publish(
+                ValidityBitmap.build(new Puzzle("unknown", variant.getEquation(), variant.getDigits()), List.of())));
+    }
+
+    private static List<int[]> solve(Puzzle puzzle) {
+        List<int[]> solutions = new ArrayList<>();
+        Solver solver = puzzle.newSolver(numbers -> solutions.add(numbers.clone()));
+        solver.search();
+        return solutions;
+    }
+}
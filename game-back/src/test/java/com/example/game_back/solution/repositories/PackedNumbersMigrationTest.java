@@ -0,0 +1,111 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(PackedNumbersMigration.class)
+class PackedNumbersMigrationTest {
+
+    @Autowired
+    private SolutionRepository solutionRepository;
+
+    @Autowired
+    private PackedNumbersMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * H2 commits on DDL, so the legacy rows and table of a test would outlive its rollback.
+     */
+    @AfterEach
+    void dropLegacyRows() {
+        jdbcTemplate.update("DELETE FROM solution WHERE id IN (1000, 1001)");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS solution_numbers");
+    }
+
+    @Test
+    void save_shouldStoreNumbersInOneColumn() {
+        List<Integer> numbers = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        Long id = solutionRepository.saveAndFlush(new Solution(null, numbers)).getId();
+        entityManager.clear();
+
+        assertEquals(numbers, solutionRepository.findById(id).orElseThrow().getNumbers());
+        assertEquals(PackedNumbers.pack(numbers),
+                jdbcTemplate.queryForObject("SELECT packed_numbers FROM solution WHERE id = ?", Long.class, id));
+    }
+
+    @Test
+    void migrate_shouldDoNothingWithoutTheLegacyTable() {
+        assertEquals(0, migration.migrate());
+    }
+
+    @Test
+    void migrate_shouldPackLegacyRowsAndDropTheLegacyTable() {
+        jdbcTemplate.execute("CREATE TABLE solution_numbers (solution_id BIGINT NOT NULL, "
+                + "numbers INTEGER, numbers_order INTEGER NOT NULL)");
+        long id = 1_000;
+        jdbcTemplate.update("INSERT INTO solution (id, correct) VALUES (?, FALSE)", id);
+        int[] legacy = {9, 8, 7, 6, 5, 4, 3, 2, 1};
+        for (int order = legacy.length - 1; order >= 0; order--) {
+            jdbcTemplate.update("INSERT INTO solution_numbers VALUES (?, ?, ?)", id, legacy[order], order);
+        }
+
+        assertEquals(1, migration.migrate());
+        entityManager.clear();
+
+        Solution migrated = solutionRepository.findById(id).orElseThrow();
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1), migrated.getNumbers());
+        assertEquals(Puzzle.CLASSIC_ID, migrated.getPuzzleId());
+        assertEquals(0, migration.migrate());
+        assertTrue(solutionRepository.saveAndFlush(new Solution(null, List.of(1, 2, 3))).getId() > id);
+    }
+
+    @Test
+    void migrate_withRepeatedGrids_shouldKeepOnlyTheLowestId() {
+        jdbcTemplate.execute("CREATE TABLE solution_numbers (solution_id BIGINT NOT NULL, "
+                + "numbers INTEGER, numbers_order INTEGER NOT NULL)");
+        jdbcTemplate.update("INSERT INTO solution (id, correct) VALUES (1000, TRUE), (1001, FALSE)");
+        for (long id = 1000; id <= 1001; id++) {
+            for (int order = 0; order < 3; order++) {
+                jdbcTemplate.update("INSERT INTO solution_numbers VALUES (?, ?, ?)", id, order + 1, order);
+            }
+        }
+
+        assertEquals(1, migration.migrate());
+        entityManager.clear();
+
+        assertEquals(List.of(1, 2, 3), solutionRepository.findById(1000L).orElseThrow().getNumbers());
+        assertTrue(solutionRepository.findById(1001L).isEmpty());
+    }
+
+    @Test
+    void migrate_withUnpackableRows_shouldFailAndKeepTheLegacyTable() {
+        jdbcTemplate.execute("CREATE TABLE solution_numbers (solution_id BIGINT NOT NULL, "
+                + "numbers INTEGER, numbers_order INTEGER NOT NULL)");
+        jdbcTemplate.update("INSERT INTO solution (id, correct) VALUES (1000, FALSE), (1001, FALSE)");
+        jdbcTemplate.update("INSERT INTO solution_numbers VALUES (1000, 1, 0), (1000, NULL, 1), (1001, 16, 0)");
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, migration::migrate);
+
+        assertTrue(failure.getMessage().contains("[1000, 1001]"));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM solution_numbers", Integer.class));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class SolutionRepositoryTest {
+
+    private static final List<Integer> NUMBERS = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+
+    @Autowired
+    private SolutionRepository solutionRepository;
+
+    @Test
+    void findByPuzzleIdAndNumbers_shouldFindTheSolutionOfThatPuzzleOnly() {
+        Solution classic = solutionRepository.saveAndFlush(new Solution(null, Puzzle.CLASSIC_ID, NUMBERS, true));
+        Solution variant = solutionRepository.saveAndFlush(new Solution(null, "variant", NUMBERS, false));
+
+        assertEquals(Optional.of(classic.getId()),
+                solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, NUMBERS).map(Solution::getId));
+        assertEquals(Optional.of(variant.getId()),
+                solutionRepository.findByPuzzleIdAndNumbers("variant", NUMBERS).map(Solution::getId));
+        assertTrue(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, List.of(1, 2, 3, 4, 5, 6, 7, 8, 9))
+                .isEmpty());
+    }
+
+    @Test
+    void findKeysByPuzzleIdAndPackedNumbersIn_shouldReturnTheStoredGridsOfThatPuzzleOnly() {
+        List<Integer> other = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        Solution classic = solutionRepository.saveAndFlush(new Solution(null, Puzzle.CLASSIC_ID, NUMBERS, true));
+        solutionRepository.saveAndFlush(new Solution(null, "variant", other, false));
+
+        List<SolutionRepository.StoredKey> keys = solutionRepository.findKeysByPuzzleIdAndPackedNumbersIn(
+                Puzzle.CLASSIC_ID, new long[] {PackedNumbers.pack(NUMBERS), PackedNumbers.pack(other)});
+
+        assertEquals(1, keys.size());
+        assertEquals(classic.getId(), keys.get(0).getId());
+        assertEquals(PackedNumbers.pack(NUMBERS), keys.get(0).getPackedNumbers());
+        assertTrue(keys.get(0).getCorrect());
+    }
+
+    @Test
+    void saveAndFlush_shouldRejectTheSameNumbersTwiceForOnePuzzle() {
+        solutionRepository.saveAndFlush(new Solution(null, Puzzle.CLASSIC_ID, NUMBERS, true));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                solutionRepository.saveAndFlush(new Solution(null, Puzzle.CLASSIC_ID, NUMBERS, true)));
+    }
+
+    @Test
+    void bulkDeletes_shouldReturnRowCountsAndLeaveNoStaleEntities() {
+        Solution correct = solutionRepository.save(new Solution(null, Puzzle.CLASSIC_ID, NUMBERS, true));
+        solutionRepository.save(new Solution(null, Puzzle.CLASSIC_ID, List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), false));
+        solutionRepository.save(new Solution(null, "variant", NUMBERS, true));
+
+        assertEquals(1, solutionRepository.deleteByCorrect(false));
+        assertEquals(1, solutionRepository.deleteByPuzzleId("variant"));
+        assertEquals(List.of(correct.getId()), solutionRepository.findAll().stream().map(Solution::getId).toList());
+        assertEquals(1, solutionRepository.deleteAllInBulk());
+        assertTrue(solutionRepository.findById(correct.getId()).isEmpty());
+        assertEquals(0, solutionRepository.count());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.repositories.SolutionSnapshot.Contents;
+import com.example.game_back.solution.repositories.SolutionSnapshot.Row;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionSnapshotTest {
+
+    private static final long CLASSIC_SOLUTION = PackedNumbers.pack(new int[]{9, 1, 2, 5, 6, 7, 3, 4, 8});
+
+    private static final long WRONG_GRID = PackedNumbers.pack(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+    @TempDir
+    Path directory;
+
+    private Contents sample() {
+        return new Contents(Map.of("classic", new long[]{CLASSIC_SOLUTION, WRONG_GRID}),
+                List.of(new Row(1, "classic", WRONG_GRID, false), new Row(51, "classic", CLASSIC_SOLUTION, true)));
+    }
+
+    @Test
+    void write_thenRead_shouldRestoreTheContents() throws IOException {
+        Path file = directory.resolve("nested/solutions.snapshot");
+
+        long size = SolutionSnapshot.write(file, sample());
+        Contents read = SolutionSnapshot.read(file);
+
+        assertEquals(Files.size(file), size);
+        assertEquals(SolutionSnapshot.HEADER_SIZE + 2 * (1 + 1 + 7 + 4) + 2 * 8 + 2 * 16, size);
+        assertEquals(List.of("classic"), List.copyOf(read.generated().keySet()));
+        assertArrayEquals(new long[]{CLASSIC_SOLUTION, WRONG_GRID}, read.generated().get("classic"));
+        assertEquals(sample().rows(), read.rows());
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void read_withMissingFile_shouldThrowNoSuchFile() {
+        assertThrows(NoSuchFileException.class, () -> SolutionSnapshot.read(directory.resolve("missing")));
+    }
+
+    @Test
+    void read_withCorruptedRecord_shouldFailTheChecksum() throws IOException {
+        Path file = directory.resolve("solutions.snapshot");
+        SolutionSnapshot.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        IOException exception = assertThrows(IOException.class, () -> SolutionSnapshot.read(file));
+        assertTrue(exception.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void read_withTruncatedOrForeignFile_shouldThrow() throws IOException {
+        Path file = directory.resolve("solutions.snapshot");
+        SolutionSnapshot.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertTrue(assertThrows(IOException.class, () -> SolutionSnapshot.read(file)).getMessage().contains("truncated"));
+
+        bytes[0] = 'X';
+        Files.write(file, bytes);
+        assertTrue(assertThrows(IOException.class, () -> SolutionSnapshot.read(file)).getMessage()
+                .contains("not a solution snapshot"));
+
+        Files.write(file, new byte[4]);
+        assertThrows(IOException.class, () -> SolutionSnapshot.read(file));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.game_back.solution.repositories;
+
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SolutionViewRepository.class)
+class SolutionViewRepositoryTest {
+
+    private static final List<Integer> NUMBERS = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+
+    @Autowired
+    private SolutionRepository solutionRepository;
+
+    @Autowired
+    private SolutionViewRepository solutionViews;
+
+    private List<Long> saveFive() {
+        return IntStream.range(0, 5)
+                .mapToObj(i -> solutionRepository.saveAndFlush(
+                        new Solution(null, "puzzle-" + i, NUMBERS, i % 2 == 0)).getId())
+                .toList();
+    }
+
+    @Test
+    void findPage_shouldPageInIdOrderAndFilterOnCorrect() {
+        List<Long> ids = saveFive();
+
+        assertEquals(ids.subList(0, 2), solutionViews.findPage(0, null, 2).stream().map(SolutionView::id).toList());
+        assertEquals(ids.subList(2, 5),
+                solutionViews.findPage(ids.get(1), null, 10).stream().map(SolutionView::id).toList());
+        assertEquals(List.of(ids.get(2), ids.get(4)),
+                solutionViews.findPage(ids.get(0), true, 10).stream().map(SolutionView::id).toList());
+        assertEquals(List.of(ids.get(3)),
+                solutionViews.findPage(ids.get(1), false, 10).stream().map(SolutionView::id).toList());
+    }
+
+    @Test
+    void forEach_shouldPassTheSolutionsInIdOrder() {
+        List<Long> ids = saveFive();
+
+        List<Long> all = new ArrayList<>();
+        solutionViews.forEach(null, view -> all.add(view.id()));
+        List<Long> correct = new ArrayList<>();
+        solutionViews.forEach(true, view -> correct.add(view.id()));
+
+        assertEquals(ids, all);
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(4)), correct);
+    }
+
+    @Test
+    void findById_shouldMapTheRowAndBeEmptyForAnUnknownId() {
+        Solution saved = solutionRepository.saveAndFlush(new Solution(null, "variant", NUMBERS, true));
+
+        assertEquals(SolutionView.of(saved), solutionViews.findById(saved.getId()).orElseThrow());
+        assertTrue(solutionViews.findById(saved.getId() + 1).isEmpty());
+    }
+}
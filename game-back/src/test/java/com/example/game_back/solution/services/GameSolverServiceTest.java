@@ -1,18 +1,51 @@
 package com.example.game_back.solution.services;
 
+import com.example.game_back.solution.config.PersistenceProperties;
+import com.example.game_back.solution.config.SolutionCacheProperties;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.models.GenerationResult;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.ProposalResult;
 import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionChange;
+import com.example.game_back.solution.models.SolutionValidator;
+import com.example.game_back.solution.models.SolutionView;
+import com.example.game_back.solution.models.SolutionClasses;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionQueryPage;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
 import com.example.game_back.solution.repositories.SolutionRepository;
+import com.example.game_back.solution.repositories.SolutionViewRepository;
+import com.example.game_back.solution.solvers.ParallelSolver;
+import com.example.game_back.solution.solvers.PruningSolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,11 +55,31 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class GameSolverServiceTest {
 
+    private static final ValidityBitmap VALIDITY_BITMAP =
+            ValidityBitmap.build(Puzzle.CLASSIC, PruningSolver.findAll().solutions());
+
     @Mock
     private SolutionRepository solutionRepository;
 
+    @Mock
+    private SolutionViewRepository solutionViews;
+
+    private MeterRegistry meterRegistry;
+
+    private SolutionMetrics metrics;
+
+    private SolutionCache solutionCache;
+
+    private ComputedSolutionRepository computedSolutions;
+
+    private SolutionIndex solutionIndex;
+
     private GameSolverService gameSolverService;
 
+    private final List<Object> events = new ArrayList<>();
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
     private Solution testSolution;
     private List<Integer> testNumbers;
 
@@ -34,62 +87,609 @@ class GameSolverServiceTest {
     void setUp() {
         testNumbers = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9);
         testSolution = new Solution(1L, testNumbers);
-        gameSolverService = new GameSolverService(solutionRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new SolutionMetrics(meterRegistry, solutionRepository);
+        solutionCache = new SolutionCache(new SolutionCacheProperties(1000, 100, Duration.ofMinutes(10)),
+                meterRegistry);
+        computedSolutions = new ComputedSolutionRepository(new PuzzleRegistry(List.of()));
+        solutionIndex = new SolutionIndex(solutionRepository, computedSolutions);
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(500, 1, 2000));
+    }
+
+    private GameSolverService newService(ParallelSolver parallelSolver, PersistenceProperties persistenceProperties) {
+        return new GameSolverService(solutionRepository, parallelSolver, new PuzzleRegistry(List.of()),
+                VALIDITY_BITMAP, persistenceProperties, metrics, solutionCache, computedSolutions, solutionIndex,
+                solutionViews, true, events::add, 50);
+    }
+
+    /**
+     * A service serving generated solutions from the {@link ComputedSolutionRepository}.
+     */
+    private GameSolverService newComputedService() {
+        return new GameSolverService(solutionRepository, new ParallelSolver(1, 2), new PuzzleRegistry(List.of()),
+                VALIDITY_BITMAP, new PersistenceProperties(500, 1, 2000), metrics, solutionCache, computedSolutions,
+                solutionIndex, solutionViews, false, events::add, 50);
+    }
+
+    /**
+     * Assigns ids to the solutions like the database would, and returns them.
+     */
+    private <T> T withIds(T saved) {
+        if (saved instanceof Solution solution) {
+            solution.setId(nextId.getAndIncrement());
+        } else {
+            ((Iterable<?>) saved).forEach(this::withIds);
+        }
+        return saved;
     }
 
     @Test
-    void getAllSolutions_shouldReturnAllSolutions() {
-        List<Solution> expectedSolutions = Collections.singletonList(testSolution);
-        when(solutionRepository.findAll()).thenReturn(expectedSolutions);
+    @SuppressWarnings("unchecked")
+    void generateSolutionsEfficient_shouldReplacePuzzleSolutionsWithSolverResults() {
+        ArgumentCaptor<Iterable<Solution>> saved = ArgumentCaptor.forClass(Iterable.class);
 
-        List<Solution> actualSolutions = gameSolverService.getAllSolutions();
+        Optional<GenerationResult> result = gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
 
-        assertEquals(expectedSolutions, actualSolutions);
-        verify(solutionRepository).findAll();
+        assertTrue(result.isPresent());
+        assertEquals(136, result.get().totalSolutions());
+        verify(solutionRepository).deleteByPuzzleId(Puzzle.CLASSIC_ID);
+        verify(solutionRepository).saveAll(saved.capture());
+        List<Solution> solutions = new ArrayList<>();
+        saved.getValue().forEach(solutions::add);
+        assertEquals(136, solutions.size());
+        solutions.forEach(solution -> {
+            assertTrue(solution.isValid());
+            assertTrue(solution.isCorrect());
+            assertEquals(Puzzle.CLASSIC_ID, solution.getPuzzleId());
+        });
     }
 
     @Test
-    void getSolutionById_whenSolutionExists_shouldReturnSolution() {
+    @SuppressWarnings("unchecked")
+    void generateSolutionsEfficient_shouldSaveInBatchesOfTheConfiguredSize() {
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(50, 1, 2000));
+        ArgumentCaptor<Iterable<Solution>> saved = ArgumentCaptor.forClass(Iterable.class);
+
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+
+        verify(solutionRepository, times(3)).saveAll(saved.capture());
+        List<Integer> batchSizes = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batchSizes.add(((List<Solution>) batch).size()));
+        assertEquals(List.of(50, 50, 36), batchSizes);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutionsEfficient_withSymmetryReduction_shouldSaveTheSameSolutions() {
+        gameSolverService = newService(new ParallelSolver(1, 2, true), new PersistenceProperties(500, 1, 2000));
+        ArgumentCaptor<Iterable<Solution>> saved = ArgumentCaptor.forClass(Iterable.class);
+
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+
+        verify(solutionRepository).saveAll(saved.capture());
+        Set<List<Integer>> grids = new HashSet<>();
+        saved.getValue().forEach(solution -> {
+            assertTrue(solution.isValid());
+            grids.add(solution.getNumbers());
+        });
+        assertEquals(136, grids.size());
+    }
+
+    @Test
+    void findSolutionClasses_shouldReturnOneCanonicalSolutionPerClass() {
+        SolutionClasses classes = gameSolverService.findSolutionClasses(Puzzle.CLASSIC_ID).orElseThrow();
+
+        assertEquals(Puzzle.CLASSIC_ID, classes.puzzleId());
+        assertEquals("{n1, n4} {n7, n8}", classes.symmetry());
+        assertEquals(4, classes.classSize());
+        assertEquals(34, classes.solutions().size());
+        classes.solutions().forEach(numbers -> {
+            assertTrue(gameSolverService.isSolution(numbers));
+            assertTrue(numbers.get(0) < numbers.get(3) && numbers.get(6) < numbers.get(7));
+        });
+        assertTrue(gameSolverService.findSolutionClasses("unknown").isEmpty());
+        verifyNoInteractions(solutionRepository);
+    }
+
+    @Test
+    void generateSolutions_shouldReportProgressAndSeparateTimings() {
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+
+        GenerationResult result = gameSolverService.generateSolutions(Puzzle.CLASSIC, job);
+
+        assertEquals(136, result.totalSolutions());
+        assertTrue(result.solverTimeMs() <= result.calculationTimeMs());
+        assertTrue(result.persistenceTimeMs() <= result.calculationTimeMs());
+        assertEquals(136, job.getSolutionsFound());
+        assertEquals(136, job.getRowsPersisted());
+        assertTrue(job.getNodesVisited() > 0);
+    }
+
+    @Test
+    void generateSolutions_shouldRecordSearchAndBatchMetrics() {
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(50, 1, 2000));
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+
+        gameSolverService.generateSolutions(Puzzle.CLASSIC, job);
+
+        assertEquals(136, meterRegistry.get("game.solver.solutions.found").tag("puzzle", Puzzle.CLASSIC_ID)
+                .counter().count());
+        assertEquals(job.getNodesVisited(), meterRegistry.get("game.solver.nodes.visited").counter().count());
+        double pruned = meterRegistry.get("game.solver.nodes.pruned").counter().count();
+        assertTrue(pruned > 0 && pruned < job.getNodesVisited());
+        assertEquals(3, meterRegistry.get("game.persistence.batch.size").summary().count());
+        assertEquals(136, meterRegistry.get("game.persistence.batch.size").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("game.persistence.batch").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutions_whenCancelledWhileSaving_shouldStopBeforeTheNextBatch() {
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(50, 1, 2000));
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+        when(solutionRepository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            job.cancel();
+            return withIds(invocation.getArgument(0));
+        });
+
+        assertThrows(CancellationException.class, () -> gameSolverService.generateSolutions(Puzzle.CLASSIC, job));
+        verify(solutionRepository, times(1)).saveAll(any(Iterable.class));
+        assertEquals(50, job.getRowsPersisted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutions_withATinyQueue_shouldMakeTheSolverWaitAndStillSaveEverything() {
+        gameSolverService = newService(new ParallelSolver(2, 2), new PersistenceProperties(7, 2, 1));
+        List<Solution> saved = Collections.synchronizedList(new ArrayList<>());
+        when(solutionRepository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            ((Iterable<Solution>) invocation.getArgument(0)).forEach(saved::add);
+            return withIds(invocation.getArgument(0));
+        });
+
+        GenerationResult result = gameSolverService.generateSolutions(Puzzle.CLASSIC, new GenerationJob("job", Puzzle.CLASSIC_ID));
+
+        assertEquals(136, result.totalSolutions());
+        assertEquals(136, saved.size());
+        assertEquals(136, saved.stream().map(Solution::getNumbers).distinct().count());
+        saved.forEach(solution -> assertTrue(solution.isValid()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutions_whenWriterFails_shouldStopTheSolverAndRethrow() {
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(1, 1, 1));
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("database down");
+        when(solutionRepository.saveAll(any(Iterable.class))).thenThrow(failure);
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> gameSolverService.generateSolutions(Puzzle.CLASSIC, job));
+
+        assertSame(failure, thrown);
+        assertTrue(job.isCancelled());
+        assertEquals(0, job.getRowsPersisted());
+        assertTrue(job.getSolutionsFound() < 136, "found " + job.getSolutionsFound());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutions_whenWriterThrowsAnError_shouldStopTheSolverAndRethrow() {
+        gameSolverService = newService(new ParallelSolver(1, 2), new PersistenceProperties(1, 1, 1));
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+        OutOfMemoryError failure = new OutOfMemoryError("Java heap space");
+        when(solutionRepository.saveAll(any(Iterable.class))).thenThrow(failure);
+
+        Error thrown = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(Error.class,
+                () -> gameSolverService.generateSolutions(Puzzle.CLASSIC, job)));
+
+        assertSame(failure, thrown);
+        assertTrue(job.isCancelled());
+    }
+
+    @Test
+    void generateSolutions_whenSolverThrowsAnError_shouldStopTheWriters() {
+        ParallelSolver solver = mock(ParallelSolver.class);
+        StackOverflowError failure = new StackOverflowError();
+        when(solver.forEach(any(), any(), any())).thenThrow(failure);
+        gameSolverService = newService(solver, new PersistenceProperties(1, 2, 1));
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+
+        Error thrown = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(Error.class,
+                () -> gameSolverService.generateSolutions(Puzzle.CLASSIC, job)));
+
+        assertSame(failure, thrown);
+        assertTrue(job.isCancelled());
+    }
+
+    @Test
+    void generateSolutionsEfficient_whenPuzzleIsUnknown_shouldReturnEmpty() {
+        Optional<GenerationResult> result = gameSolverService.generateSolutionsEfficient("unknown");
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(solutionRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutionsEfficient_withComputedSolutions_shouldServeThemWithoutSaving() {
+        gameSolverService = newComputedService();
+        when(solutionRepository.deleteByPuzzleIdAndCorrect(Puzzle.CLASSIC_ID, true)).thenReturn(2);
+
+        GenerationResult result = gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID).orElseThrow();
+
+        assertEquals(136, result.totalSolutions());
+        assertEquals(136, computedSolutions.count());
+        assertEquals(List.of(new SolutionsGeneratedEvent(Puzzle.CLASSIC_ID, 136)), events);
+        verify(solutionRepository).deleteByPuzzleIdAndCorrect(Puzzle.CLASSIC_ID, true);
+        verify(solutionRepository, never()).deleteByPuzzleId(any());
+        verify(solutionRepository, never()).saveAll(any(Iterable.class));
+
+        long id = computedSolutions.findIdByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, List.of(9, 1, 2, 5, 6, 7, 3, 4, 8));
+        SolutionView solution = gameSolverService.getSolutionById(id).orElseThrow();
+        assertArrayEquals(new int[] {9, 1, 2, 5, 6, 7, 3, 4, 8}, solution.numbers());
+        assertTrue(solution.correct());
+        verify(solutionViews, never()).findById(anyLong());
+    }
+
+    @Test
+    void generateSolutions_withComputedClassicSolutions_shouldReportThemOnTheJob() {
+        gameSolverService = newComputedService();
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+
+        gameSolverService.generateSolutions(Puzzle.CLASSIC, job);
+
+        assertEquals(136, job.getSolutionsFound());
+    }
+
+    @Test
+    void generateSolutions_withComputedSolutions_whenCancelled_shouldChangeNothing() {
+        gameSolverService = newComputedService();
+        GenerationJob job = new GenerationJob("job", Puzzle.CLASSIC_ID);
+        job.cancel();
+
+        assertThrows(CancellationException.class, () -> gameSolverService.generateSolutions(Puzzle.CLASSIC, job));
+
+        assertEquals(0, computedSolutions.count());
+        assertTrue(events.isEmpty());
+        verify(solutionRepository, never()).deleteByPuzzleIdAndCorrect(any(), anyBoolean());
+    }
+
+    @Test
+    void getSolutionPage_withComputedSolutions_shouldFollowTheStoredRows() {
+        gameSolverService = newComputedService();
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        when(solutionViews.findPage(0L, null, 51)).thenReturn(List.of(SolutionView.of(testSolution)));
+
+        List<SolutionView> all = new ArrayList<>();
+        SolutionPage page = gameSolverService.getSolutionPage(0L, null, null);
+        all.addAll(page.solutions());
+        while (page.nextCursor() != null) {
+            page = gameSolverService.getSolutionPage(page.nextCursor(), null, null);
+            all.addAll(page.solutions());
+        }
+
+        assertEquals(137, all.size());
+        assertEquals(SolutionView.of(testSolution), all.get(0));
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i).id() > all.get(i - 1).id());
+            assertTrue(ComputedSolutionRepository.isComputedId(all.get(i).id()));
+            assertTrue(SolutionValidator.isValid(all.get(i).numbers()));
+        }
+        assertTrue(gameSolverService.getSolutionPage(0L, 10, false).solutions().isEmpty());
+        verify(solutionViews).findPage(0L, null, 51);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createSolution_whenGridIsComputed_shouldReturnTheComputedSolution() {
+        gameSolverService = newComputedService();
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        List<Integer> valid = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+
+        Solution created = gameSolverService.createSolution(valid);
+        List<ProposalResult> proposed = gameSolverService.proposeSolutions(List.of(valid));
+
+        assertTrue(ComputedSolutionRepository.isComputedId(created.getId()));
+        assertEquals(List.of(ProposalResult.duplicate(created.getId(), true)), proposed);
+        verify(solutionRepository, never()).saveAndFlush(any());
+        verify(solutionRepository, never()).saveAll(any(Iterable.class));
+        assertEquals(2, meterRegistry.get("game.solutions.duplicates").counter().count());
+    }
+
+    @Test
+    void updateSolution_whenGridIsComputed_shouldDeleteTheRowAndReturnTheComputedSolution() {
+        gameSolverService = newComputedService();
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        List<Integer> valid = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
         when(solutionRepository.findById(1L)).thenReturn(Optional.of(testSolution));
 
-        Optional<Solution> result = gameSolverService.getSolutionById(1L);
+        Solution updated = gameSolverService.updateSolution(1L, valid).orElseThrow();
+
+        assertTrue(ComputedSolutionRepository.isComputedId(updated.getId()));
+        verify(solutionRepository).deleteById(1L);
+        verify(solutionRepository, never()).saveAndFlush(any());
+        assertTrue(gameSolverService.updateSolution(updated.getId(), testNumbers).isEmpty());
+        assertFalse(gameSolverService.deleteSolutionById(updated.getId()));
+    }
+
+    @Test
+    void querySolutions_shouldMatchStoredThenComputedSolutionsAndFollowChanges() {
+        gameSolverService = newComputedService();
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        when(solutionRepository.findKeysByPuzzleId(Puzzle.CLASSIC_ID))
+                .thenReturn(List.of(storedKey(1L, PackedNumbers.pack(testNumbers), false)));
+        SolutionQuery firstIsOne = SolutionQuery.parse("n1=1");
+        long computedMatches = VALIDITY_BITMAP.validRanks()
+                .filter(rank -> VALIDITY_BITMAP.getSpace().unrank(rank)[0] == 1)
+                .count();
+
+        SolutionQueryPage page = gameSolverService.querySolutions(Puzzle.CLASSIC_ID, firstIsOne, 0, 5, null)
+                .orElseThrow();
+
+        assertEquals(computedMatches + 1, page.total());
+        assertEquals(1L, page.solutions().get(0).id());
+        assertTrue(ComputedSolutionRepository.isComputedId(page.solutions().get(1).id()));
+        assertTrue(page.solutions().stream().allMatch(solution -> solution.numbers()[0] == 1));
+        assertEquals(page.solutions().get(4).id(), page.nextCursor());
+
+        Solution proposal = new Solution(60L, Puzzle.CLASSIC_ID, List.of(1, 9, 8, 7, 6, 5, 4, 3, 2), false);
+        when(solutionRepository.saveAndFlush(any(Solution.class))).thenReturn(proposal);
+        when(solutionRepository.existsById(1L)).thenReturn(true);
+        gameSolverService.createSolution(proposal.getNumbers());
+        gameSolverService.deleteSolutionById(1L);
+
+        page = gameSolverService.querySolutions(Puzzle.CLASSIC_ID, firstIsOne, 0, 5, false).orElseThrow();
+        assertEquals(1, page.total());
+        assertEquals(List.of(SolutionView.of(proposal)), page.solutions());
+        assertNull(page.nextCursor());
+        verify(solutionRepository, times(1)).findKeysByPuzzleId(Puzzle.CLASSIC_ID);
+        assertTrue(gameSolverService.querySolutions("unknown", firstIsOne, 0, 5, null).isEmpty());
+    }
+
+    @Test
+    void deleteAllSolutions_withComputedSolutions_shouldStopServingThem() {
+        gameSolverService = newComputedService();
+        gameSolverService.generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+        when(solutionRepository.deleteAllInBulk()).thenReturn(3);
+
+        assertEquals(139, gameSolverService.deleteAllSolutions());
+        assertEquals(0, computedSolutions.count());
+        assertEquals(SolutionChange.cleared(139), events.get(events.size() - 1));
+    }
+
+    @Test
+    void mutations_shouldPublishTheChanges() {
+        when(solutionRepository.saveAndFlush(any(Solution.class)))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        when(solutionRepository.existsById(1L)).thenReturn(true);
+        when(solutionRepository.deleteByCorrect(false)).thenReturn(4);
+
+        Solution created = gameSolverService.createSolution(testNumbers);
+        gameSolverService.deleteSolutionById(1L);
+        gameSolverService.deleteIncorrectSolutions();
+
+        assertEquals(List.of(SolutionChange.created(created), SolutionChange.deleted(1L),
+                SolutionChange.clearedIncorrect(4)), events);
+    }
+
+    @Test
+    void getSolutionPage_shouldUseKeysetQueryMatchingTheFilter() {
+        List<SolutionView> expectedSolutions = Collections.singletonList(SolutionView.of(testSolution));
+        when(solutionViews.findPage(10L, null, 21)).thenReturn(expectedSolutions);
+        when(solutionViews.findPage(10L, false, 21)).thenReturn(expectedSolutions);
+
+        assertEquals(new SolutionPage(expectedSolutions, null), gameSolverService.getSolutionPage(10L, 20, null));
+        assertEquals(new SolutionPage(expectedSolutions, null), gameSolverService.getSolutionPage(10L, 20, false));
+        verify(solutionRepository, never()).findAll();
+    }
+
+    @Test
+    void getSolutionPage_whenMoreSolutionsFollow_shouldReturnCursorOfLastSolution() {
+        List<SolutionView> rows = Stream.of(3L, 5L, 8L)
+                .map(id -> SolutionView.of(new Solution(id, testNumbers)))
+                .toList();
+        when(solutionViews.findPage(0L, null, 3)).thenReturn(rows);
+
+        SolutionPage page = gameSolverService.getSolutionPage(0L, 2, null);
+
+        assertEquals(rows.subList(0, 2), page.solutions());
+        assertEquals(5L, page.nextCursor());
+    }
+
+    @Test
+    void getSolutionPage_withoutSize_shouldUseConfiguredDefault() {
+        gameSolverService.getSolutionPage(0L, null, true);
+
+        verify(solutionViews).findPage(0L, true, 51);
+    }
+
+    @Test
+    void getSolutionById_whenSolutionExists_shouldReturnSolution() {
+        when(solutionViews.findById(1L)).thenReturn(Optional.of(SolutionView.of(testSolution)));
+
+        Optional<SolutionView> result = gameSolverService.getSolutionById(1L);
 
         assertTrue(result.isPresent());
-        assertEquals(testSolution, result.get());
-        verify(solutionRepository).findById(1L);
+        assertEquals(SolutionView.of(testSolution), result.get());
+        verify(solutionViews).findById(1L);
+        verify(solutionRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getSolutionById_whenCalledAgain_shouldServeTheCachedSolution() {
+        when(solutionViews.findById(1L)).thenReturn(Optional.of(SolutionView.of(testSolution)));
+
+        gameSolverService.getSolutionById(1L);
+        Optional<SolutionView> result = gameSolverService.getSolutionById(1L);
+
+        assertEquals(Optional.of(SolutionView.of(testSolution)), result);
+        verify(solutionViews, times(1)).findById(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateSolutions_shouldWarmTheCacheWithTheSavedSolutions() {
+        when(solutionRepository.saveAll(any(Iterable.class)))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        gameSolverService.generateSolutions(Puzzle.CLASSIC, new GenerationJob("job", Puzzle.CLASSIC_ID));
+
+        for (long id = 1; id <= 136; id++) {
+            Optional<SolutionView> solution = gameSolverService.getSolutionById(id);
+            assertTrue(solution.isPresent() && solution.get().correct());
+        }
+        verify(solutionViews, never()).findById(anyLong());
+    }
+
+    @Test
+    void deleteSolutionById_shouldEvictTheCachedSolution() {
+        when(solutionViews.findById(1L)).thenReturn(Optional.of(SolutionView.of(testSolution)));
+        when(solutionRepository.existsById(1L)).thenReturn(true);
+        gameSolverService.getSolutionById(1L);
+
+        gameSolverService.deleteSolutionById(1L);
+        when(solutionViews.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(gameSolverService.getSolutionById(1L).isEmpty());
     }
 
     @Test
     void getSolutionById_whenSolutionDoesNotExist_shouldReturnEmpty() {
-        when(solutionRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(solutionViews.findById(anyLong())).thenReturn(Optional.empty());
 
-        Optional<Solution> result = gameSolverService.getSolutionById(999L);
+        Optional<SolutionView> result = gameSolverService.getSolutionById(999L);
 
         assertTrue(result.isEmpty());
-        verify(solutionRepository).findById(999L);
+        verify(solutionViews).findById(999L);
     }
 
     @Test
     void createSolution_whenSolutionDoesNotExist_shouldCreateAndReturnSolution() {
-        when(solutionRepository.findAll()).thenReturn(Collections.emptyList());
-        when(solutionRepository.save(any(Solution.class))).thenReturn(testSolution);
+        when(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, testNumbers)).thenReturn(Optional.empty());
+        when(solutionRepository.saveAndFlush(any(Solution.class))).thenReturn(testSolution);
 
         Solution result = gameSolverService.createSolution(testNumbers);
 
         assertEquals(testSolution, result);
-        verify(solutionRepository).findAll();
-        verify(solutionRepository).save(any(Solution.class));
+        verify(solutionRepository).findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, testNumbers);
+        verify(solutionRepository, never()).findAll();
+        verify(solutionRepository).saveAndFlush(any(Solution.class));
+        assertEquals(0, meterRegistry.get("game.solutions.duplicates").counter().count());
+    }
+
+    @Test
+    void createSolution_shouldFlagRepeatedDigitsAsIncorrect() {
+        List<Integer> repeated = Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 4);
+        when(solutionRepository.saveAndFlush(any(Solution.class)))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        Solution valid = gameSolverService.createSolution(Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8));
+        Solution invalid = gameSolverService.createSolution(repeated);
+
+        assertTrue(valid.isCorrect());
+        assertFalse(invalid.isCorrect());
+    }
+
+    @Test
+    void isSolution_shouldNotTouchRepository() {
+        assertTrue(gameSolverService.isSolution(Arrays.asList(9, 1, 2, 5, 6, 7, 3, 4, 8)));
+        assertFalse(gameSolverService.isSolution(testNumbers));
+        verifyNoInteractions(solutionRepository);
     }
 
     @Test
     void createSolution_whenSolutionExists_shouldReturnExistingSolution() {
-        when(solutionRepository.findAll()).thenReturn(Collections.singletonList(testSolution));
+        when(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, testNumbers))
+                .thenReturn(Optional.of(testSolution));
+
+        Solution result = gameSolverService.createSolution(testNumbers);
+
+        assertEquals(testSolution, result);
+        verify(solutionRepository, never()).saveAndFlush(any(Solution.class));
+        assertEquals(1, meterRegistry.get("game.solutions.duplicates").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void proposeSolutions_shouldInsertOnlyNewGridsAndReportDuplicates() {
+        List<Integer> valid = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+        List<Integer> stored = List.of(2, 1, 3, 4, 5, 6, 7, 8, 9);
+        SolutionRepository.StoredKey storedKey = storedKey(40L, PackedNumbers.pack(stored), false);
+        when(solutionRepository.findKeysByPuzzleIdAndPackedNumbersIn(eq(Puzzle.CLASSIC_ID), any()))
+                .thenReturn(List.of(storedKey));
+        when(solutionRepository.saveAll(any(Iterable.class)))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ProposalResult> results = gameSolverService.proposeSolutions(
+                List.of(testNumbers, valid, stored, testNumbers, stored));
+
+        assertEquals(List.of(
+                ProposalResult.created(1L, false),
+                ProposalResult.created(2L, true),
+                ProposalResult.duplicate(40L, false),
+                ProposalResult.duplicate(1L, false),
+                ProposalResult.duplicate(40L, false)), results);
+        ArgumentCaptor<long[]> lookedUp = ArgumentCaptor.forClass(long[].class);
+        verify(solutionRepository).findKeysByPuzzleIdAndPackedNumbersIn(eq(Puzzle.CLASSIC_ID), lookedUp.capture());
+        assertArrayEquals(new long[] {PackedNumbers.pack(testNumbers), PackedNumbers.pack(valid),
+                PackedNumbers.pack(stored)}, lookedUp.getValue());
+        ArgumentCaptor<List<Solution>> saved = ArgumentCaptor.forClass(List.class);
+        verify(solutionRepository).saveAll(saved.capture());
+        assertEquals(List.of(testNumbers, valid), saved.getValue().stream().map(Solution::getNumbers).toList());
+        assertEquals(3, meterRegistry.get("game.solutions.duplicates").counter().count());
+        assertEquals(Optional.of(SolutionView.of(saved.getValue().get(1))), gameSolverService.getSolutionById(2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void proposeSolutions_whenConcurrentInsertWins_shouldLookUpAgainAndInsertTheRest() {
+        List<Integer> valid = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+        when(solutionRepository.findKeysByPuzzleIdAndPackedNumbersIn(eq(Puzzle.CLASSIC_ID), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(storedKey(40L, PackedNumbers.pack(valid), true)));
+        when(solutionRepository.saveAll(any(Iterable.class)))
+                .thenThrow(new DataIntegrityViolationException(Solution.KEY_CONSTRAINT))
+                .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ProposalResult> results = gameSolverService.proposeSolutions(List.of(valid, testNumbers));
+
+        assertEquals(List.of(ProposalResult.duplicate(40L, true), ProposalResult.created(1L, false)), results);
+        verify(solutionRepository, times(2)).saveAll(any(Iterable.class));
+    }
+
+    private static SolutionRepository.StoredKey storedKey(long id, long packedNumbers, boolean correct) {
+        return new SolutionRepository.StoredKey() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public long getPackedNumbers() {
+                return packedNumbers;
+            }
+
+            @Override
+            public boolean getCorrect() {
+                return correct;
+            }
+        };
+    }
+
+    @Test
+    void createSolution_whenConcurrentInsertWins_shouldReturnTheStoredSolution() {
+        when(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, testNumbers))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testSolution));
+        when(solutionRepository.saveAndFlush(any(Solution.class)))
+                .thenThrow(new DataIntegrityViolationException(Solution.KEY_CONSTRAINT));
 
         Solution result = gameSolverService.createSolution(testNumbers);
 
         assertEquals(testSolution, result);
-        verify(solutionRepository).findAll();
-        verify(solutionRepository, never()).save(any(Solution.class));
+        verify(solutionRepository, times(2)).findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, testNumbers);
+        assertEquals(1, meterRegistry.get("game.solutions.duplicates").counter().count());
     }
 
     @Test
@@ -117,14 +717,24 @@ class GameSolverServiceTest {
 
     @Test
     void deleteAllSolutions_shouldReturnNumberOfDeletedSolutions() {
-        when(solutionRepository.count()).thenReturn(5L);
-        doNothing().when(solutionRepository).deleteAll();
+        when(solutionRepository.deleteAllInBulk()).thenReturn(5);
 
         long result = gameSolverService.deleteAllSolutions();
 
         assertEquals(5L, result);
-        verify(solutionRepository).count();
-        verify(solutionRepository).deleteAll();
+        verify(solutionRepository).deleteAllInBulk();
+        verify(solutionRepository, never()).deleteAll();
+        verify(solutionRepository, never()).findAll();
+    }
+
+    @Test
+    void deleteIncorrectSolutions_shouldDeleteOnlyIncorrectSolutions() {
+        when(solutionRepository.deleteByCorrect(false)).thenReturn(3);
+
+        long result = gameSolverService.deleteIncorrectSolutions();
+
+        assertEquals(3L, result);
+        verify(solutionRepository).deleteByCorrect(false);
     }
 
     @Test
@@ -133,16 +743,17 @@ class GameSolverServiceTest {
         Solution updatedSolution = new Solution(1L, newNumbers);
         
         when(solutionRepository.findById(1L)).thenReturn(Optional.of(testSolution));
-        when(solutionRepository.findAll()).thenReturn(Collections.singletonList(testSolution));
-        when(solutionRepository.save(any(Solution.class))).thenReturn(updatedSolution);
+        when(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, newNumbers)).thenReturn(Optional.empty());
+        when(solutionRepository.saveAndFlush(any(Solution.class))).thenReturn(updatedSolution);
 
         Optional<Solution> result = gameSolverService.updateSolution(1L, newNumbers);
 
         assertTrue(result.isPresent());
         assertEquals(updatedSolution, result.get());
         verify(solutionRepository).findById(1L);
-        verify(solutionRepository).findAll();
-        verify(solutionRepository).save(any(Solution.class));
+        verify(solutionRepository, never()).findAll();
+        verify(solutionRepository, never()).deleteById(anyLong());
+        verify(solutionRepository).saveAndFlush(any(Solution.class));
     }
 
     @Test
@@ -153,8 +764,8 @@ class GameSolverServiceTest {
 
         assertTrue(result.isEmpty());
         verify(solutionRepository).findById(999L);
-        verify(solutionRepository, never()).findAll();
-        verify(solutionRepository, never()).save(any(Solution.class));
+        verify(solutionRepository, never()).findByPuzzleIdAndNumbers(any(), any());
+        verify(solutionRepository, never()).saveAndFlush(any(Solution.class));
     }
 
     @Test
@@ -164,17 +775,18 @@ class GameSolverServiceTest {
         Solution updatedSolution = new Solution(1L, newNumbers);
         
         when(solutionRepository.findById(1L)).thenReturn(Optional.of(testSolution));
-        when(solutionRepository.findAll()).thenReturn(Arrays.asList(testSolution, duplicateSolution));
-        when(solutionRepository.save(any(Solution.class))).thenReturn(updatedSolution);
+        when(solutionRepository.findByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, newNumbers))
+                .thenReturn(Optional.of(duplicateSolution));
+        when(solutionRepository.saveAndFlush(any(Solution.class))).thenReturn(updatedSolution);
         doNothing().when(solutionRepository).deleteById(2L);
 
         Optional<Solution> result = gameSolverService.updateSolution(1L, newNumbers);
 
         assertTrue(result.isPresent());
         assertEquals(updatedSolution, result.get());
-        verify(solutionRepository).findById(1L);
-        verify(solutionRepository).findAll();
-        verify(solutionRepository).deleteById(2L);
-        verify(solutionRepository).save(any(Solution.class));
+        InOrder inOrder = inOrder(solutionRepository);
+        inOrder.verify(solutionRepository).findById(1L);
+        inOrder.verify(solutionRepository).deleteById(2L);
+        inOrder.verify(solutionRepository).saveAndFlush(any(Solution.class));
     }
 }
@@ -0,0 +1,140 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.models.GenerationJob;
+import com.example.game_back.solution.models.GenerationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationJobServiceTest {
+
+    private static final GenerationResult RESULT = new GenerationResult(Puzzle.CLASSIC_ID, 3L, 136, 1L, 2L);
+
+    @Mock
+    private GameSolverService gameSolverService;
+
+    private ExecutorService executor;
+
+    private GenerationJobService generationJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        generationJobService = new GenerationJobService(gameSolverService, new PuzzleRegistry(List.of()), executor, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void startJob_shouldRunGenerationInTheBackground() throws Exception {
+        when(gameSolverService.generateSolutions(eq(Puzzle.CLASSIC), any(GenerationJob.class))).thenReturn(RESULT);
+
+        GenerationJob job = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        awaitIdle();
+
+        assertEquals(GenerationJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(RESULT, job.getResult());
+        assertSame(job, generationJobService.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void startJob_whenPuzzleIsUnknown_shouldReturnEmpty() {
+        assertTrue(generationJobService.startJob("unknown").isEmpty());
+        verifyNoInteractions(gameSolverService);
+    }
+
+    @Test
+    void cancelJob_whenQueued_shouldNeverRunIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+
+        GenerationJob job = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        assertEquals(Optional.of(job), generationJobService.cancelJob(job.getId()));
+        release.countDown();
+        awaitIdle();
+
+        assertEquals(GenerationJob.Status.CANCELLED, job.getStatus());
+        verifyNoInteractions(gameSolverService);
+    }
+
+    @Test
+    void runningJob_shouldEndCancelledOrFailedFromTheGeneration() throws Exception {
+        when(gameSolverService.generateSolutions(eq(Puzzle.CLASSIC), any(GenerationJob.class)))
+                .thenThrow(new CancellationException())
+                .thenThrow(new IllegalStateException("database down"));
+
+        GenerationJob cancelled = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        GenerationJob failed = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        awaitIdle();
+
+        assertEquals(GenerationJob.Status.CANCELLED, cancelled.getStatus());
+        assertEquals(GenerationJob.Status.FAILED, failed.getStatus());
+        assertEquals("database down", failed.getError());
+        assertNull(failed.getResult());
+    }
+
+    @Test
+    void runningJob_whenAWriterThrowsAnError_shouldEndFailed() throws Exception {
+        when(gameSolverService.generateSolutions(eq(Puzzle.CLASSIC), any(GenerationJob.class)))
+                .thenThrow(new OutOfMemoryError("Java heap space"));
+
+        GenerationJob job = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        awaitIdle();
+
+        assertEquals(GenerationJob.Status.FAILED, job.getStatus());
+        assertEquals("java.lang.OutOfMemoryError: Java heap space", job.getError());
+    }
+
+    @Test
+    void startJob_shouldForgetTheOldestFinishedJobsBeyondTheRetainedCount() throws Exception {
+        when(gameSolverService.generateSolutions(eq(Puzzle.CLASSIC), any(GenerationJob.class))).thenReturn(RESULT);
+
+        GenerationJob first = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+        awaitIdle();
+        generationJobService.startJob(Puzzle.CLASSIC_ID);
+        awaitIdle();
+        GenerationJob third = generationJobService.startJob(Puzzle.CLASSIC_ID).orElseThrow();
+
+        assertTrue(generationJobService.getJob(first.getId()).isEmpty());
+        assertTrue(generationJobService.getJob(third.getId()).isPresent());
+    }
+
+    @Test
+    void cancelJob_whenUnknown_shouldReturnEmpty() {
+        assertTrue(generationJobService.cancelJob("unknown").isEmpty());
+    }
+
+    private void awaitIdle() throws Exception {
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.models.Hint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+    private static final List<Integer> EMPTY = Collections.nCopies(9, null);
+
+    private MeterRegistry meterRegistry;
+
+    private HintService hintService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Puzzle pair = new Puzzle("pair", Equation.parse("n1 + n2 = 9"), Puzzle.parseDigits("1-9"));
+        hintService = new HintService(new PuzzleRegistry(List.of(pair)), meterRegistry, 10_000);
+    }
+
+    @Test
+    void hint_withEmptyGrid_shouldCountEverySolution() {
+        Hint hint = hintService.hint(Puzzle.CLASSIC_ID, EMPTY, 2).orElseThrow();
+
+        assertEquals(136, hint.completions());
+        assertEquals(2, hint.firstCompletions().size());
+        hint.firstCompletions().forEach(numbers ->
+                assertTrue(Puzzle.CLASSIC.isSolution(numbers.stream().mapToInt(Integer::intValue).toArray())));
+        assertEquals(9, hint.viableDigits().size());
+    }
+
+    @Test
+    void hint_withFilledCells_shouldOnlyKeepAgreeingSolutions() {
+        Hint hint = hintService.hint("pair", Arrays.asList(4, null), 5).orElseThrow();
+
+        assertEquals(1, hint.completions());
+        assertEquals(List.of(List.of(4), List.of(5)), hint.viableDigits());
+        assertEquals(List.of(List.of(4, 5)), hint.firstCompletions());
+    }
+
+    @Test
+    void hint_shouldServeRepeatedRequestsFromTheMemo() {
+        hintService.hint(Puzzle.CLASSIC_ID, EMPTY, 0);
+        hintService.hint(Puzzle.CLASSIC_ID, EMPTY, 0);
+
+        double hits = meterRegistry.get("cache.gets").tag("cache", "hint-states:" + Puzzle.CLASSIC_ID).tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    void hint_withInvalidGridOrUnknownPuzzle_shouldBeRejected() {
+        assertTrue(hintService.hint("unknown", EMPTY, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> hintService.hint(Puzzle.CLASSIC_ID, List.of(1, 2), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> hintService.hint("pair", Arrays.asList(0, null), 0));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.config.SnapshotProperties;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.ValidityBitmap;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
+import com.example.game_back.solution.repositories.SolutionSnapshot;
+import com.example.game_back.solution.repositories.SolutionSnapshot.Contents;
+import com.example.game_back.solution.solvers.PruningSolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotServiceTest {
+
+    private static final ValidityBitmap CLASSIC_INDEX =
+            ValidityBitmap.build(Puzzle.CLASSIC, PruningSolver.findAll().solutions());
+
+    @Mock
+    private GameSolverService gameSolverService;
+
+    @Mock
+    private SolutionIndex solutionIndex;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    private MeterRegistry meterRegistry;
+
+    private ComputedSolutionRepository computedSolutions;
+
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("solutions.snapshot");
+        meterRegistry = new SimpleMeterRegistry();
+        PuzzleRegistry puzzleRegistry = new PuzzleRegistry(List.of());
+        computedSolutions = new ComputedSolutionRepository(puzzleRegistry);
+        snapshotService = new SnapshotService(new SnapshotProperties(file.toString(), false), puzzleRegistry,
+                computedSolutions, gameSolverService, solutionIndex, jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    void onGenerated_thenRun_shouldServeTheSnapshotWithoutGenerating() {
+        computedSolutions.publish(CLASSIC_INDEX);
+        snapshotService.onGenerated(new SolutionsGeneratedEvent(Puzzle.CLASSIC_ID, 136));
+        computedSolutions.clear();
+
+        snapshotService.run(null);
+
+        assertEquals(136, computedSolutions.count());
+        List<Integer> numbers = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+        assertEquals(ComputedSolutionRepository.ID_BASE + CLASSIC_INDEX.getSpace().rank(numbers),
+                computedSolutions.findIdByPuzzleIdAndNumbers(Puzzle.CLASSIC_ID, numbers));
+        assertEquals(1, meterRegistry.get("game.snapshot.load").timer().count());
+        assertEquals(1, meterRegistry.get("game.snapshot.save").timer().count());
+        verifyNoInteractions(gameSolverService, jdbcTemplate);
+    }
+
+    @Test
+    void run_withCorruptedSnapshot_shouldGenerateInstead() throws IOException {
+        computedSolutions.publish(CLASSIC_INDEX);
+        snapshotService.save();
+        computedSolutions.clear();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x10;
+        Files.write(file, bytes);
+
+        snapshotService.run(null);
+
+        assertEquals(0, computedSolutions.count());
+        verify(gameSolverService).generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+    }
+
+    @Test
+    void run_withSnapshotOfWrongGrids_shouldGenerateInstead() throws IOException {
+        long wrong = PackedNumbers.pack(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        SolutionSnapshot.write(file, new Contents(Map.of(Puzzle.CLASSIC_ID, new long[]{wrong}), List.of()));
+
+        snapshotService.run(null);
+
+        assertEquals(0, computedSolutions.count());
+        verify(gameSolverService).generateSolutionsEfficient(Puzzle.CLASSIC_ID);
+    }
+
+    @Test
+    void run_whenDisabled_shouldDoNothing() {
+        snapshotService = new SnapshotService(new SnapshotProperties("", false), new PuzzleRegistry(List.of()),
+                computedSolutions, gameSolverService, solutionIndex, jdbcTemplate, meterRegistry);
+
+        snapshotService.run(null);
+        snapshotService.onGenerated(new SolutionsGeneratedEvent(Puzzle.CLASSIC_ID, 136));
+
+        assertFalse(Files.exists(file));
+        verifyNoInteractions(gameSolverService, jdbcTemplate);
+    }
+}
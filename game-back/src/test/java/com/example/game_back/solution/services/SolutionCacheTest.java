@@ -0,0 +1,172 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.config.SolutionCacheProperties;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionPage;
+import com.example.game_back.solution.models.SolutionView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCacheTest {
+
+    private static final List<Integer> VALID = List.of(9, 1, 2, 5, 6, 7, 3, 4, 8);
+
+    private static final List<Integer> INVALID = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    private MeterRegistry meterRegistry;
+
+    private SolutionCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SolutionCache(new SolutionCacheProperties(100, 100, Duration.ofMinutes(10)), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private static SolutionView solution(long id, String puzzleId, List<Integer> numbers) {
+        return SolutionView.of(new Solution(id, puzzleId, numbers, numbers.equals(VALID)));
+    }
+
+    private SolutionPage page(long after, SolutionPage page) {
+        return cache.getPage(after, 2, null, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+    }
+
+    private Optional<SolutionView> lookup(long id, SolutionView solution) {
+        return cache.getSolution(id, () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(solution);
+        });
+    }
+
+    @Test
+    void getSolution_shouldLoadOnceAndCountHitsAndMisses() {
+        SolutionView solution = solution(1L, Puzzle.CLASSIC_ID, VALID);
+
+        assertEquals(Optional.of(solution), lookup(1L, solution));
+        assertEquals(Optional.of(solution), lookup(1L, solution));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "solutions").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "solutions").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getSolution_whenMissing_shouldNotCacheTheAbsence() {
+        lookup(1L, null);
+        lookup(1L, null);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void added_shouldEvictOnlyThePagesTheNewIdsFallInto() {
+        SolutionPage first = new SolutionPage(List.of(solution(1L, Puzzle.CLASSIC_ID, VALID),
+                solution(2L, Puzzle.CLASSIC_ID, VALID)), 2L);
+        SolutionPage last = new SolutionPage(List.of(solution(3L, Puzzle.CLASSIC_ID, VALID)), null);
+        page(0, first);
+        page(2, last);
+
+        Solution created = new Solution(4L, Puzzle.CLASSIC_ID, INVALID, false);
+        cache.added(List.of(created));
+
+        page(0, first);
+        assertEquals(2, loads.get());
+        page(2, last);
+        assertEquals(3, loads.get());
+        assertEquals(Optional.of(SolutionView.of(created)), lookup(4L, null));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void removed_shouldEvictTheSolutionAndThePageHoldingIt() {
+        SolutionView removed = solution(2L, Puzzle.CLASSIC_ID, VALID);
+        SolutionPage first = new SolutionPage(List.of(solution(1L, Puzzle.CLASSIC_ID, VALID), removed), 2L);
+        SolutionPage last = new SolutionPage(List.of(solution(3L, Puzzle.CLASSIC_ID, VALID)), null);
+        page(0, first);
+        page(2, last);
+        lookup(2L, removed);
+
+        cache.removed(2L);
+
+        page(2, last);
+        assertEquals(3, loads.get());
+        page(0, first);
+        lookup(2L, removed);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void removedIncorrect_shouldKeepPagesWithOnlyCorrectSolutions() {
+        SolutionPage correct = new SolutionPage(List.of(solution(1L, Puzzle.CLASSIC_ID, VALID)), 1L);
+        SolutionPage mixed = new SolutionPage(List.of(solution(2L, Puzzle.CLASSIC_ID, INVALID)), null);
+        page(0, correct);
+        page(1, mixed);
+
+        cache.removedIncorrect();
+
+        page(0, correct);
+        assertEquals(2, loads.get());
+        page(1, mixed);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void removedPuzzle_shouldEvictOnlyThatPuzzlesSolutions() {
+        SolutionView classic = solution(1L, Puzzle.CLASSIC_ID, VALID);
+        SolutionView variant = solution(2L, "target-66", VALID);
+        lookup(1L, classic);
+        lookup(2L, variant);
+
+        cache.removedPuzzle("target-66");
+
+        lookup(1L, classic);
+        assertEquals(2, loads.get());
+        lookup(2L, variant);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getPage_whenAChangeOverlapsTheLoad_shouldNotKeepThePage() {
+        SolutionPage stale = new SolutionPage(List.of(solution(1L, Puzzle.CLASSIC_ID, VALID)), null);
+        cache.getPage(0, 2, null, () -> {
+            loads.incrementAndGet();
+            cache.removed(1L);
+            return stale;
+        });
+
+        page(0, stale);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void cleared_shouldEvictEverything() {
+        SolutionPage only = new SolutionPage(List.of(solution(1L, Puzzle.CLASSIC_ID, VALID)), null);
+        page(0, only);
+        lookup(1L, only.solutions().get(0));
+
+        cache.cleared();
+
+        page(0, only);
+        lookup(1L, only.solutions().get(0));
+        assertEquals(4, loads.get());
+    }
+}
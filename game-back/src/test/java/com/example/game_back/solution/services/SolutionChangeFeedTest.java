@@ -0,0 +1,187 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.models.SolutionChange;
+import com.example.game_back.solution.models.SolutionsGeneratedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionChangeFeedTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private MeterRegistry meterRegistry;
+
+    private SolutionChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new SolutionChangeFeed(meterRegistry, 5, 3, Duration.ofMinutes(1), tasks::add);
+    }
+
+    /**
+     * Runs the queued sends, as the sender threads would.
+     */
+    private void deliver() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static Solution solution(long id, boolean correct) {
+        return new Solution(id, "classic", List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), correct);
+    }
+
+    @Test
+    void publish_shouldSendEveryChangeInOrderWithIncreasingIds() {
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(null, sink);
+
+        feed.publish(SolutionChange.created(solution(1, false)));
+        deliver();
+        feed.publish(SolutionChange.deleted(1));
+        feed.onGenerated(new SolutionsGeneratedEvent("classic", 136));
+        deliver();
+
+        assertEquals(List.of(SolutionChange.created(solution(1, false)), SolutionChange.deleted(1),
+                SolutionChange.generated("classic", 136)), sink.changes);
+        assertTrue(sink.ids.get(0).endsWith("-1"));
+        assertTrue(sink.ids.get(2).endsWith("-3"));
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    @Test
+    void publish_whileSubscriberIsBehind_shouldCoalesceTheWaitingChanges() {
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(null, sink);
+
+        feed.publish(SolutionChange.created(solution(1, false)));
+        feed.publish(SolutionChange.updated(solution(1, true)));
+        feed.publish(SolutionChange.created(solution(2, false)));
+        feed.publish(SolutionChange.deleted(2));
+        feed.publish(SolutionChange.updated(solution(3, true)));
+        feed.publish(SolutionChange.deleted(3));
+        deliver();
+
+        assertEquals(List.of(SolutionChange.created(solution(1, true)), SolutionChange.deleted(3)), sink.changes);
+        assertTrue(sink.ids.get(1).endsWith("-6"));
+    }
+
+    @Test
+    void publish_whenEverySolutionIsCleared_shouldDropTheChangesBefore() {
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(null, sink);
+
+        feed.publish(SolutionChange.updated(solution(1, true)));
+        feed.publish(SolutionChange.clearedIncorrect(2));
+        feed.publish(SolutionChange.cleared(7));
+        feed.publish(SolutionChange.created(solution(4, true)));
+        deliver();
+
+        assertEquals(List.of(SolutionChange.cleared(7), SolutionChange.created(solution(4, true))), sink.changes);
+    }
+
+    @Test
+    void publish_whenBufferOverflows_shouldReplaceTheChangesWithAReset() {
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(null, sink);
+
+        for (long id = 1; id <= 4; id++) {
+            feed.publish(SolutionChange.deleted(id));
+        }
+        feed.publish(SolutionChange.deleted(5));
+        deliver();
+
+        assertEquals(List.of(SolutionChange.reset(), SolutionChange.deleted(5)), sink.changes);
+        assertTrue(sink.ids.get(0).endsWith("-4"));
+        assertEquals(1, meterRegistry.get("game.feed.resets").counter().count());
+    }
+
+    @Test
+    void subscribe_withLastEventId_shouldReplayTheMissedChanges() {
+        RecordingSink first = new RecordingSink();
+        feed.subscribe(null, first);
+        feed.publish(SolutionChange.deleted(1));
+        deliver();
+        feed.publish(SolutionChange.deleted(2));
+        feed.publish(SolutionChange.deleted(3));
+
+        RecordingSink resumed = new RecordingSink();
+        feed.subscribe(first.ids.get(0), resumed);
+        deliver();
+
+        assertEquals(List.of(SolutionChange.deleted(2), SolutionChange.deleted(3)), resumed.changes);
+    }
+
+    @Test
+    void subscribe_whenMissedChangesAreNoLongerKept_shouldSendAReset() {
+        RecordingSink first = new RecordingSink();
+        feed.subscribe(null, first);
+        feed.publish(SolutionChange.deleted(1));
+        deliver();
+        for (long id = 2; id <= 7; id++) {
+            feed.publish(SolutionChange.deleted(id));
+        }
+
+        RecordingSink late = new RecordingSink();
+        feed.subscribe(first.ids.get(0), late);
+        RecordingSink restarted = new RecordingSink();
+        feed.subscribe("abc-1", restarted);
+        deliver();
+
+        assertEquals(List.of(SolutionChange.reset()), late.changes);
+        assertTrue(late.ids.get(0).endsWith("-7"));
+        assertEquals(List.of(SolutionChange.reset()), restarted.changes);
+    }
+
+    @Test
+    void publish_whenSendFails_shouldDropTheSubscriber() {
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+        feed.subscribe(null, sink);
+
+        feed.publish(SolutionChange.deleted(1));
+        deliver();
+        feed.publish(SolutionChange.deleted(2));
+        deliver();
+
+        assertTrue(sink.closed);
+        assertEquals(0, feed.getSubscriberCount());
+        assertTrue(tasks.isEmpty());
+    }
+
+    private static final class RecordingSink implements SolutionChangeFeed.Sink {
+
+        final List<String> ids = new ArrayList<>();
+
+        final List<SolutionChange> changes = new ArrayList<>();
+
+        boolean failing;
+
+        boolean closed;
+
+        @Override
+        public void send(String eventId, SolutionChange change) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            ids.add(eventId);
+            changes.add(change);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
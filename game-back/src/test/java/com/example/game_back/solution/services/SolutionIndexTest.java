@@ -0,0 +1,105 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.indexes.SolutionQuery;
+import com.example.game_back.solution.models.PackedNumbers;
+import com.example.game_back.solution.models.Solution;
+import com.example.game_back.solution.repositories.ComputedSolutionRepository;
+import com.example.game_back.solution.repositories.SolutionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SolutionIndexTest {
+
+    private static final Puzzle PAIR = new Puzzle("pair", Equation.parse("n1 + n2 = 9"), Puzzle.parseDigits("1-9"));
+
+    private static final List<Integer> NUMBERS = List.of(1, 8);
+
+    private static final SolutionQuery ANY = SolutionQuery.parse("n1=1");
+
+    @Mock
+    private SolutionRepository solutionRepository;
+
+    private SolutionIndex solutionIndex;
+
+    @BeforeEach
+    void setUp() {
+        solutionIndex = new SolutionIndex(solutionRepository,
+                new ComputedSolutionRepository(new PuzzleRegistry(List.of())));
+    }
+
+    private static SolutionRepository.StoredKey storedKey(long id) {
+        return new SolutionRepository.StoredKey() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public long getPackedNumbers() {
+                return PackedNumbers.pack(NUMBERS);
+            }
+
+            @Override
+            public boolean getCorrect() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void query_whileAPuzzleIsRead_shouldNotBlockOtherQueriesOrChanges() throws Exception {
+        Puzzle cold = new Puzzle("cold", PAIR.getEquation(), PAIR.getDigits());
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(solutionRepository.findKeysByPuzzleId(PAIR.getId())).thenReturn(List.of(storedKey(1L)));
+        when(solutionRepository.findKeysByPuzzleId(cold.getId())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return List.of();
+        });
+        solutionIndex.query(PAIR, ANY, 0, 10, null);
+
+        CompletableFuture<?> coldQuery = CompletableFuture.runAsync(() -> solutionIndex.query(cold, ANY, 0, 10, null));
+        reading.await();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                solutionIndex.updated(new Solution(2L, PAIR.getId(), NUMBERS, true));
+                assertEquals(2, solutionIndex.query(PAIR, ANY, 0, 10, null).total());
+            });
+        } finally {
+            release.countDown();
+        }
+        coldQuery.get();
+    }
+
+    @Test
+    void query_whenAChangeIsReportedWhileReading_shouldNotKeepTheRowsRead() {
+        when(solutionRepository.findKeysByPuzzleId(PAIR.getId()))
+                .thenAnswer(invocation -> {
+                    solutionIndex.removed(1L);
+                    return List.of(storedKey(1L));
+                })
+                .thenReturn(List.of());
+
+        assertEquals(1, solutionIndex.query(PAIR, ANY, 0, 10, null).total());
+        assertEquals(0, solutionIndex.query(PAIR, ANY, 0, 10, null).total());
+        assertEquals(0, solutionIndex.query(PAIR, ANY, 0, 10, null).total());
+
+        verify(solutionRepository, times(2)).findKeysByPuzzleId(PAIR.getId());
+    }
+}
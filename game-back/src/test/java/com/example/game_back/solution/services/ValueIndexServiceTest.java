@@ -0,0 +1,99 @@
+package com.example.game_back.solution.services;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.equations.PuzzleRegistry;
+import com.example.game_back.solution.models.TargetHistogram;
+import com.example.game_back.solution.models.TargetSolutions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueIndexServiceTest {
+
+    private static final Puzzle TARGET_66 = new Puzzle("target-66",
+            Equation.parse("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 66"), Puzzle.parseDigits("1-9"));
+
+    private MeterRegistry meterRegistry;
+
+    private ValueIndexService valueIndexService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        valueIndexService = new ValueIndexService(new PuzzleRegistry(List.of(TARGET_66)), meterRegistry,
+                DataSize.ofMegabytes(8), 50);
+    }
+
+    @Test
+    void histogram_shouldCountTheSolutionsOfEachIntegerTarget() {
+        TargetHistogram histogram = valueIndexService.histogram(Puzzle.CLASSIC_ID, true, null).orElseThrow();
+
+        assertEquals("n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9", histogram.expression());
+        assertEquals(362_880, histogram.grids());
+        assertEquals(histogram.targetCount(), histogram.targets().size());
+        assertTrue(histogram.targets().contains(new TargetHistogram.Entry("87", 136)));
+        histogram.targets().forEach(entry -> assertFalse(entry.target().contains("/")));
+        assertTrue(histogram.targets().stream().mapToLong(TargetHistogram.Entry::solutions).sum() < 362_880);
+    }
+
+    @Test
+    void histogram_withTop_shouldReturnTheTargetsWithMostSolutionsFirst() {
+        TargetHistogram all = valueIndexService.histogram(Puzzle.CLASSIC_ID, false, null).orElseThrow();
+        TargetHistogram top = valueIndexService.histogram(Puzzle.CLASSIC_ID, false, 3).orElseThrow();
+
+        assertEquals(all.targetCount(), top.targetCount());
+        assertEquals(3, top.targets().size());
+        long most = all.targets().stream().mapToLong(TargetHistogram.Entry::solutions).max().orElseThrow();
+        assertEquals(most, top.targets().get(0).solutions());
+        assertTrue(top.targets().get(1).solutions() >= top.targets().get(2).solutions());
+    }
+
+    @Test
+    void solutions_shouldPageThroughTheGridsOfATarget() {
+        List<List<Integer>> grids = new ArrayList<>();
+        Long after = null;
+        do {
+            TargetSolutions page = valueIndexService.solutions(Puzzle.CLASSIC_ID, " 87 ", after, 50).orElseThrow();
+            assertEquals("87", page.target());
+            assertEquals(136, page.total());
+            grids.addAll(page.solutions());
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(136, grids.size());
+        assertEquals(List.of(1, 2, 6, 4, 7, 8, 3, 5, 9), grids.get(0));
+        grids.forEach(grid -> assertTrue(Puzzle.CLASSIC.isSolution(grid.stream().mapToInt(Integer::intValue).toArray())));
+    }
+
+    @Test
+    void solutions_shouldShareTheIndexBetweenPuzzlesWithTheSameExpression() {
+        TargetSolutions classic = valueIndexService.solutions(Puzzle.CLASSIC_ID, "66", null, 1000).orElseThrow();
+        TargetSolutions variant = valueIndexService.solutions("target-66", "132/2", null, 1000).orElseThrow();
+
+        assertEquals(classic.solutions(), variant.solutions());
+        assertEquals("66", variant.target());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "value-indexes").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(0, valueIndexService.solutions(Puzzle.CLASSIC_ID, "10000", null, 10).orElseThrow().total());
+    }
+
+    @Test
+    void solutions_withInvalidTargetOrUnknownPuzzle_shouldBeRejected() {
+        assertTrue(valueIndexService.solutions("unknown", "87", null, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> valueIndexService.solutions(Puzzle.CLASSIC_ID, "x", null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> valueIndexService.solutions(Puzzle.CLASSIC_ID, "1/0", null, 10));
+
+        ValueIndexService small = new ValueIndexService(new PuzzleRegistry(List.of()), meterRegistry,
+                DataSize.ofKilobytes(64), 50);
+        assertThrows(IllegalArgumentException.class, () -> small.histogram(Puzzle.CLASSIC_ID, true, null));
+    }
+}
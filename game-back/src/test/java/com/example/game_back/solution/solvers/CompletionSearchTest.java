@@ -0,0 +1,117 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import com.example.game_back.solution.solvers.CompletionSearch.Memo;
+import com.example.game_back.solution.solvers.CompletionSearch.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionSearchTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87; 1-9",
+            "n1*n2/n3 - n4 + 2*n5/n6 = 5; 0-6",
+            "n1/(n2*n3) + n4/n5 - n6 = -4; 1-7",
+            "3*n1 - n2*n2/n3 + n4/2 = 7; 0-5",
+    })
+    void search_shouldMatchFilteredSolutions(String expression, String digits) {
+        Puzzle puzzle = new Puzzle("variant", Equation.parse(expression), Puzzle.parseDigits(digits));
+        List<int[]> solutions = new ArrayList<>();
+        puzzle.newSolver(numbers -> solutions.add(numbers.clone())).search();
+        Memo memo = Memo.of(new HashMap<>());
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            int[] grid = new int[puzzle.getCellCount()];
+            Arrays.fill(grid, -1);
+            int[] source = round % 2 == 0 && !solutions.isEmpty()
+                    ? solutions.get(random.nextInt(solutions.size()))
+                    : randomGrid(puzzle, random);
+            for (int cell = 0; cell < grid.length; cell++) {
+                if (random.nextInt(3) == 0) {
+                    grid[cell] = source[cell];
+                }
+            }
+
+            Result result = new CompletionSearch(puzzle.getCompiled(), memo).search(grid, 3);
+
+            List<int[]> expected = solutions.stream().filter(numbers -> agrees(grid, numbers)).toList();
+            assertEquals(expected.size(), result.count(), Arrays.toString(grid));
+            long[] viable = new long[grid.length];
+            expected.forEach(numbers -> {
+                for (int cell = 0; cell < numbers.length; cell++) {
+                    viable[cell] |= 1L << numbers[cell];
+                }
+            });
+            assertArrayEquals(viable, result.viableDigits(), Arrays.toString(grid));
+            assertEquals(Math.min(3, expected.size()), result.completions().size());
+            for (int i = 0; i < result.completions().size(); i++) {
+                assertArrayEquals(expected.get(i), result.completions().get(i));
+            }
+        }
+    }
+
+    @Test
+    void search_shouldReuseTheMemoAcrossGrids() {
+        Memo memo = Memo.of(new HashMap<>());
+        int[] empty = new int[9];
+        Arrays.fill(empty, -1);
+
+        CompletionSearch first = new CompletionSearch(Puzzle.CLASSIC.getCompiled(), memo);
+        assertEquals(136, first.search(empty, 0).count());
+        CompletionSearch second = new CompletionSearch(Puzzle.CLASSIC.getCompiled(), memo);
+        Result again = second.search(empty, 136);
+
+        assertEquals(136, again.count());
+        assertEquals(136, again.completions().size());
+        assertTrue(second.getNodesVisited() < first.getNodesVisited() / 4,
+                second.getNodesVisited() + " nodes visited again, " + first.getNodesVisited() + " at first");
+        again.completions().forEach(numbers -> assertTrue(Puzzle.CLASSIC.isSolution(numbers)));
+    }
+
+    @Test
+    void search_withRepeatedDigit_shouldFindNothing() {
+        Result result = new CompletionSearch(Puzzle.CLASSIC.getCompiled(), Memo.of(new HashMap<>()))
+                .search(new int[]{5, -1, -1, -1, 5, -1, -1, -1, -1}, 10);
+
+        assertEquals(0, result.count());
+        assertTrue(result.completions().isEmpty());
+        assertArrayEquals(new long[9], result.viableDigits());
+    }
+
+    @Test
+    void search_withWrongCellCount_shouldThrow() {
+        CompletionSearch search = new CompletionSearch(Puzzle.CLASSIC.getCompiled(), Memo.of(new HashMap<>()));
+
+        assertThrows(IllegalArgumentException.class, () -> search.search(new int[8], 0));
+    }
+
+    private static boolean agrees(int[] grid, int[] numbers) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] >= 0 && grid[cell] != numbers[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] randomGrid(Puzzle puzzle, Random random) {
+        int[] digits = puzzle.getDigits();
+        int[] grid = new int[puzzle.getCellCount()];
+        for (int cell = 0; cell < grid.length; cell++) {
+            grid[cell] = digits[random.nextInt(digits.length)];
+        }
+        return grid;
+    }
+}
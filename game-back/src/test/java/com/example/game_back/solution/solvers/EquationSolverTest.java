@@ -0,0 +1,99 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationSolverTest {
+
+    @Test
+    void search_shouldMatchHandWrittenSolverOnClassicPuzzle() {
+        SearchResult expected = PruningSolver.findAll();
+
+        List<int[]> solutions = solve(Puzzle.CLASSIC);
+
+        assertEquals(expected.solutions().size(), solutions.size());
+        for (int i = 0; i < solutions.size(); i++) {
+            assertArrayEquals(expected.solutions().get(i), solutions.get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 66; 1-9",
+            "n1*n2/n3 - n4 + 2*n5/n6 = 5; 0-6",
+            "n1/(n2*n3) + n4/n5 - n6 = -4; 1-7",
+            "3*n1 - n2*n2/n3 + n4/2 = 7; 0-5",
+            "n1 + n2 = 9; 1-9",
+    })
+    void search_shouldMatchBruteForce(String expression, String digits) {
+        Puzzle puzzle = new Puzzle("variant", Equation.parse(expression), Puzzle.parseDigits(digits));
+        List<int[]> expected = new ArrayList<>();
+        bruteForce(puzzle, 0, new int[puzzle.getCellCount()], new boolean[64], expected);
+
+        List<int[]> solutions = solve(puzzle);
+
+        assertEquals(expected.size(), solutions.size());
+        for (int i = 0; i < solutions.size(); i++) {
+            assertArrayEquals(expected.get(i), solutions.get(i));
+        }
+    }
+
+    @Test
+    void search_withPrefix_shouldOnlyExploreMatchingBranch() {
+        List<int[]> all = solve(Puzzle.CLASSIC);
+        List<int[]> found = new ArrayList<>();
+        Solver solver = Puzzle.CLASSIC.newSolver(numbers -> found.add(numbers.clone()));
+
+        solver.search(2, 8);
+
+        long expected = all.stream().filter(numbers -> numbers[2] == 2 && numbers[8] == 8).count();
+        assertEquals(expected, found.size());
+        found.forEach(numbers -> assertTrue(Puzzle.CLASSIC.isSolution(numbers)));
+    }
+
+    @Test
+    void search_withInvalidPrefix_shouldFindNothing() {
+        List<int[]> found = new ArrayList<>();
+        Solver solver = Puzzle.CLASSIC.newSolver(numbers -> found.add(numbers.clone()));
+
+        solver.search(3, 3);
+        solver.search(0);
+        solver.search(10);
+
+        assertTrue(found.isEmpty());
+    }
+
+    private static List<int[]> solve(Puzzle puzzle) {
+        List<int[]> solutions = new ArrayList<>();
+        puzzle.newSolver(numbers -> solutions.add(numbers.clone())).search();
+        solutions.sort(Arrays::compare);
+        return solutions;
+    }
+
+    private static void bruteForce(Puzzle puzzle, int position, int[] numbers, boolean[] used, List<int[]> solutions) {
+        if (position == numbers.length) {
+            if (puzzle.isSolution(numbers)) {
+                solutions.add(numbers.clone());
+            }
+            return;
+        }
+
+        for (int digit : puzzle.getDigits()) {
+            if (!used[digit]) {
+                used[digit] = true;
+                numbers[position] = digit;
+                bruteForce(puzzle, position + 1, numbers, used, solutions);
+                used[digit] = false;
+            }
+        }
+    }
+}
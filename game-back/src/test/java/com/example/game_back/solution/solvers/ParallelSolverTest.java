@@ -0,0 +1,158 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.equations.CellSymmetry;
+import com.example.game_back.solution.equations.Equation;
+import com.example.game_back.solution.equations.Puzzle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSolverTest {
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "4, 1", "4, 2", "0, 2"})
+    void findAll_shouldMatchSequentialSearch(int parallelism, int splitDepth) {
+        SearchResult expected = sequential(Puzzle.CLASSIC);
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth)) {
+            SearchResult result = solver.findAll(Puzzle.CLASSIC);
+
+            assertEquals(expected.nodesVisited(), result.nodesVisited());
+            assertEquals(expected.solutions().size(), result.solutions().size());
+            for (int i = 0; i < expected.solutions().size(); i++) {
+                assertArrayEquals(expected.solutions().get(i), result.solutions().get(i));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "3, 1", "3, 2"})
+    void findAll_shouldSolveVariantsWithZeroDigits(int parallelism, int splitDepth) {
+        Puzzle puzzle = new Puzzle("zero", Equation.parse("n1*n2/n3 - n4 + 2*n5/n6 = 5"), Puzzle.parseDigits("0-6"));
+        SearchResult expected = sequential(puzzle);
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth)) {
+            SearchResult result = solver.findAll(puzzle);
+
+            assertFalse(result.solutions().isEmpty());
+            assertEquals(expected.nodesVisited(), result.nodesVisited());
+            assertEquals(expected.solutions().size(), result.solutions().size());
+            for (int i = 0; i < expected.solutions().size(); i++) {
+                assertArrayEquals(expected.solutions().get(i), result.solutions().get(i));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "4, 2"})
+    void findAll_shouldReportProgressMatchingTheResult(int parallelism, int splitDepth) {
+        SearchProgress progress = new SearchProgress();
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth)) {
+            SearchResult result = solver.findAll(Puzzle.CLASSIC, progress);
+
+            assertEquals(result.nodesVisited(), progress.getNodesVisited());
+            assertEquals(result.solutions().size(), progress.getSolutionsFound());
+            assertTrue(progress.getNodesPruned() > 0);
+            assertTrue(progress.getNodesPruned() < progress.getNodesVisited());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "4, 2"})
+    void findAll_whenCancelled_shouldStopWithoutSearching(int parallelism, int splitDepth) {
+        SearchProgress progress = new SearchProgress();
+        progress.cancel();
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth)) {
+            assertThrows(CancellationException.class, () -> solver.findAll(Puzzle.CLASSIC, progress));
+            assertEquals(0, progress.getNodesVisited());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 2, 'n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87', 1-9",
+            "4, 1, 'n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 = 87', 1-9",
+            "4, 2, 'n1 + 13*n2/n3 + n4 + 12*n5 - n6 + n7*n8/n9 - 11*n10 = 87', 1-10",
+            "1, 2, '2*n1 + n2*n4/n3 + n5*n2*n4 + 2*n6 + 2*n7 - n8 = 11', 0-9"})
+    void findAll_withSymmetryReduction_shouldMatchFullSearchWithFewerNodes(int parallelism, int splitDepth,
+                                                                          String equation, String digits) {
+        Puzzle puzzle = new Puzzle("symmetric", Equation.parse(equation), Puzzle.parseDigits(digits));
+        SearchResult expected = sequential(puzzle);
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth, true)) {
+            SearchResult result = solver.findAll(puzzle);
+
+            assertFalse(result.solutions().isEmpty());
+            assertEquals(expected.solutions().size(), result.solutions().size());
+            for (int i = 0; i < expected.solutions().size(); i++) {
+                assertArrayEquals(expected.solutions().get(i), result.solutions().get(i));
+            }
+            assertTrue(result.nodesVisited() < expected.nodesVisited(),
+                    result.nodesVisited() + " nodes with reduction, " + expected.nodesVisited() + " without");
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "4, 2"})
+    void forEach_withSymmetryReduction_shouldPassEverySolution(int parallelism, int splitDepth) {
+        List<int[]> solutions = new ArrayList<>();
+        SearchProgress progress = new SearchProgress();
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth, true)) {
+            solver.forEach(Puzzle.CLASSIC, progress, numbers -> {
+                synchronized (solutions) {
+                    solutions.add(numbers.clone());
+                }
+            });
+        }
+
+        solutions.sort(Arrays::compare);
+        List<int[]> expected = sequential(Puzzle.CLASSIC).solutions();
+        assertEquals(expected.size(), solutions.size());
+        assertEquals(expected.size(), progress.getSolutionsFound());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), solutions.get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2", "4, 1"})
+    void findCanonical_shouldReturnOneSolutionPerClass(int parallelism, int splitDepth) {
+        CellSymmetry symmetry = Puzzle.CLASSIC.getSymmetry();
+        List<int[]> expected = sequential(Puzzle.CLASSIC).solutions().stream()
+                .filter(symmetry::isCanonical)
+                .toList();
+
+        try (ParallelSolver solver = new ParallelSolver(parallelism, splitDepth)) {
+            SearchResult result = solver.findCanonical(Puzzle.CLASSIC);
+
+            assertEquals(34, result.solutions().size());
+            assertEquals(expected.size(), result.solutions().size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), result.solutions().get(i));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"4, 0", "4, 3"})
+    void constructor_shouldRejectUnsupportedSplitDepth(int parallelism, int splitDepth) {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSolver(parallelism, splitDepth));
+    }
+
+    private static SearchResult sequential(Puzzle puzzle) {
+        List<int[]> solutions = new ArrayList<>();
+        Solver solver = puzzle.newSolver(numbers -> solutions.add(numbers.clone()));
+        solver.search();
+        solutions.sort(Arrays::compare);
+        return new SearchResult(solutions, solver.getNodesVisited());
+    }
+}
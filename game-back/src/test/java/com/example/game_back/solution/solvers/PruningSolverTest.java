@@ -0,0 +1,66 @@
+package com.example.game_back.solution.solvers;
+
+import com.example.game_back.solution.models.SolutionValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PruningSolverTest {
+
+    private static final long BRUTE_FORCE_NODES = 986_409;
+
+    @Test
+    void findAll_shouldMatchBruteForceExactly() {
+        List<int[]> expected = new ArrayList<>();
+        bruteForce(0, new int[9], new boolean[10], expected);
+
+        SearchResult result = PruningSolver.findAll();
+
+        assertEquals(expected.size(), result.solutions().size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), result.solutions().get(i));
+        }
+    }
+
+    @Test
+    void findAll_shouldVisitFarFewerNodesThanBruteForce() {
+        SearchResult result = PruningSolver.findAll();
+
+        assertTrue(result.nodesVisited() > 0);
+        assertTrue(result.nodesVisited() * 10 < BRUTE_FORCE_NODES,
+                "visited " + result.nodesVisited() + " nodes");
+    }
+
+    @Test
+    void search_shouldPassEveryValidGridToTheSink() {
+        List<int[]> found = new ArrayList<>();
+        new PruningSolver(numbers -> found.add(numbers.clone())).search();
+
+        assertFalse(found.isEmpty());
+        found.forEach(numbers -> assertTrue(SolutionValidator.isValid(numbers)));
+    }
+
+    /**
+     * The original exhaustive search: every permutation of 1..9 in lexicographic order.
+     */
+    private static void bruteForce(int position, int[] numbers, boolean[] used, List<int[]> solutions) {
+        if (position == 9) {
+            if (SolutionValidator.isValid(numbers)) {
+                solutions.add(numbers.clone());
+            }
+            return;
+        }
+
+        for (int num = 1; num <= 9; num++) {
+            if (!used[num]) {
+                used[num] = true;
+                numbers[position] = num;
+                bruteForce(position + 1, numbers, used, solutions);
+                used[num] = false;
+            }
+        }
+    }
+}